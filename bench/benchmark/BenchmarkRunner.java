@@ -0,0 +1,226 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+//a small throughput harness in the style of JMH: timed warmup and measurement iterations,
+//an optional thread count, and results exported in the JMH JSON layout
+public class BenchmarkRunner {
+
+    //the body of a benchmark; each call is one operation
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    //makes the input of one operation, like the row a delete removes; not timed
+    public interface Setup<T> {
+        T prepare() throws Exception;
+    }
+
+    //the body of a benchmark whose every call needs a fresh input from a Setup
+    public interface InputOperation<T> {
+        void run(T input) throws Exception;
+    }
+
+    //one measured benchmark
+    public static class Result {
+        final String name;
+        final Map<String, String> params;
+        final int threads;
+        final double[] opsPerSecond;    //one entry per measurement iteration
+        final double charsPerOp;        //0 unless the benchmark reports a per-character cost
+
+        Result(String name, Map<String, String> params, int threads, double[] opsPerSecond, double charsPerOp) {
+            this.name = name;
+            this.params = params;
+            this.threads = threads;
+            this.opsPerSecond = opsPerSecond;
+            this.charsPerOp = charsPerOp;
+        }
+
+        double mean() {
+            double sum = 0;
+            for (double v : opsPerSecond) sum += v;
+            return sum / opsPerSecond.length;
+        }
+
+        //half-width of a ~99.9% interval, like the JMH score error
+        double error() {
+            if (opsPerSecond.length < 2) return Double.NaN;
+            double mean = mean(), sq = 0;
+            for (double v : opsPerSecond) sq += (v - mean) * (v - mean);
+            return 3.29 * Math.sqrt(sq / (opsPerSecond.length - 1)) / Math.sqrt(opsPerSecond.length);
+        }
+    }
+
+    //sink for benchmark results so the JIT cannot drop the work
+    private static volatile Object sink;
+    private static volatile long longSink;
+
+    public static void consume(Object value) { sink = value; }
+    public static void consume(long value) { longSink = value; }
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationMillis;
+    private final Pattern filter;
+    private final List<Result> results = new ArrayList<>();
+
+    public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis, String filter) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationMillis = iterationMillis;
+        this.filter = filter == null ? null : Pattern.compile(filter);
+    }
+
+    public boolean accepts(String name) {
+        return filter == null || filter.matcher(name).find();
+    }
+
+    public void run(String name, Map<String, String> params, Operation operation) throws Exception {
+        run(name, params, 1, 0, operation);
+    }
+
+    //run a benchmark on the given number of threads; charsPerOp > 0 also reports ns/char
+    public void run(String name, Map<String, String> params, int threads, double charsPerOp,
+            Operation operation) throws Exception {
+        if (!accepts(name)) return;
+        for (int i = 0; i < warmupIterations; i++) iteration(threads, operation);
+        double[] measured = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) measured[i] = iteration(threads, operation);
+        report(name, params, threads, measured, charsPerOp);
+    }
+
+    //run a single-threaded benchmark that prepares an input before every operation, like JMH's
+    //Level.Invocation setup; only the operations are timed
+    public <T> void run(String name, Map<String, String> params, Setup<T> setup, InputOperation<T> operation)
+            throws Exception {
+        if (!accepts(name)) return;
+        for (int i = 0; i < warmupIterations; i++) iteration(setup, operation);
+        double[] measured = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) measured[i] = iteration(setup, operation);
+        report(name, params, 1, measured, 0);
+    }
+
+    private void report(String name, Map<String, String> params, int threads, double[] measured, double charsPerOp) {
+        Result result = new Result(name, new LinkedHashMap<>(params), threads, measured, charsPerOp);
+        results.add(result);
+        System.out.printf("%-45s %-28s %2d thr  %,16.1f +- %,12.1f ops/s%s%n", name, params, threads,
+                result.mean(), result.error(),
+                charsPerOp > 0 ? String.format("  %8.3f ns/char", 1e9 / result.mean() * threads / charsPerOp) : "");
+    }
+
+    //one timed iteration; returns the total operations per second of all threads
+    private double iteration(int threads, Operation operation) throws Exception {
+        LongAdder operations = new LongAdder();
+        CountDownLatch startGate = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        Exception[] failure = new Exception[1];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    startGate.await();
+                    long count = 0;
+                    while (System.nanoTime() < deadline[0]) {
+                        operation.run();
+                        count++;
+                    }
+                    operations.add(count);
+                } catch (Exception e) {
+                    failure[0] = e;
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        long start = System.nanoTime();
+        deadline[0] = start + iterationMillis * 1_000_000L;
+        startGate.countDown();
+        for (Thread worker : workers) worker.join();
+        long elapsed = System.nanoTime() - start;
+        if (failure[0] != null) throw failure[0];
+        return operations.sum() * 1e9 / elapsed;
+    }
+
+    //one iteration of a prepared benchmark; returns the operations per second of operation time
+    private <T> double iteration(Setup<T> setup, InputOperation<T> operation) throws Exception {
+        long count = 0;
+        long timed = 0;
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000L;
+        while (System.nanoTime() < deadline) {
+            T input = setup.prepare();
+            long start = System.nanoTime();
+            operation.run(input);
+            timed += System.nanoTime() - start;
+            count++;
+        }
+        return count * 1e9 / Math.max(1, timed);
+    }
+
+    //write all results in the JMH JSON layout so existing tooling can compare runs
+    public void writeJson(String file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8))) {
+            out.println("[");
+            for (int r = 0; r < results.size(); r++) {
+                Result result = results.get(r);
+                out.println("  {");
+                out.println("    \"benchmark\": " + quote(result.name) + ",");
+                out.println("    \"mode\": \"thrpt\",");
+                out.println("    \"threads\": " + result.threads + ",");
+                out.println("    \"warmupIterations\": " + warmupIterations + ",");
+                out.println("    \"measurementIterations\": " + measurementIterations + ",");
+                out.println("    \"measurementTime\": \"" + iterationMillis + " ms\",");
+                out.print("    \"params\": {");
+                int p = 0;
+                for (Map.Entry<String, String> e : result.params.entrySet())
+                    out.print((p++ > 0 ? ", " : "") + quote(e.getKey()) + ": " + quote(e.getValue()));
+                out.println("},");
+                out.println("    \"primaryMetric\": {");
+                out.println("      \"score\": " + number(result.mean()) + ",");
+                out.println("      \"scoreError\": " + number(result.error()) + ",");
+                out.println("      \"scoreUnit\": \"ops/s\",");
+                StringBuilder raw = new StringBuilder();
+                for (double v : result.opsPerSecond) raw.append(raw.length() > 0 ? ", " : "").append(number(v));
+                out.println("      \"rawData\": [[" + raw + "]]");
+                out.print("    }");
+                if (result.charsPerOp > 0) {
+                    out.println(",");
+                    out.println("    \"secondaryMetrics\": {");
+                    out.println("      \"perChar\": {\"score\": "
+                            + number(1e9 / result.mean() * result.threads / result.charsPerOp)
+                            + ", \"scoreUnit\": \"ns/char\"}");
+                    out.print("    }");
+                }
+                out.println();
+                out.println(r + 1 < results.size() ? "  }," : "  }");
+            }
+            out.println("]");
+        }
+        System.out.println("Results written to " + file);
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) ? "\"NaN\"" : Double.toString(value);
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < ' ') sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
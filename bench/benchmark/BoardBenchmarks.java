@@ -0,0 +1,161 @@
+package benchmark;
+
+import java.util.Map;
+
+import application.Answers;
+import application.DiscussionBoardValidator;
+import application.Question;
+import application.Questions;
+import application.UserNameRecognizer;
+import databasePart1.DiscussionBoardDAO;
+import databasePart1.DiscussionBoardRepository;
+import databasePart1.InMemoryDiscussionBoard;
+import passwordEvaluationTestbed.PasswordEvaluator;
+
+/*******
+ * <p> Title: BoardBenchmarks Class. </p>
+ *
+ * <p> Description: The benchmark suite for the discussion board.  It covers the input
+ * recognizers (including the per-character cost of each rule set and the thread scaling of the
+ * password evaluator), the in-memory Questions and Answers collections at several sizes, and
+ * the DiscussionBoardDAO against an embedded in-memory H2 database next to the same calls on
+ * the InMemoryDiscussionBoard.</p>
+ *
+ * <p> Usage: </p>
+ * <pre>
+ *   BoardBenchmarks [--filter REGEX] [--sizes 1000,10000,...] [--json results.json] [--quick]
+ * </pre>
+ *
+ * @version 1.00	2026-10-19 Initial benchmark suite
+ *
+ */
+public class BoardBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        String filter = null;
+        String json = null;
+        int[] sizes = { 1_000, 10_000, 100_000, 1_000_000 };
+        boolean quick = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--filter": filter = args[++i]; break;
+                case "--json": json = args[++i]; break;
+                case "--quick": quick = true; break;
+                case "--sizes":
+                    String[] parts = args[++i].split(",");
+                    sizes = new int[parts.length];
+                    for (int p = 0; p < parts.length; p++) sizes[p] = Integer.parseInt(parts[p].trim());
+                    break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        BenchmarkRunner runner = quick ? new BenchmarkRunner(1, 3, 200, filter)
+                : new BenchmarkRunner(3, 5, 1000, filter);
+
+        recognizers(runner);
+        collections(runner, sizes);
+        board(runner, quick ? new int[] { 1_000 } : new int[] { 1_000, 10_000 }, false);
+        board(runner, quick ? new int[] { 1_000 } : new int[] { 1_000, 10_000 }, true);
+
+        if (json != null) runner.writeJson(json);
+    }
+
+    //the recognizers, reported per operation and per character of input
+    private static void recognizers(BenchmarkRunner runner) throws Exception {
+        String userName = "Student.Name-42";
+        String badUserName = "Student..Name";
+        String password = "Aa!15678Strong_Password";
+        String badPassword = "aaaaaaaaaaaaaaaaaaaaaa";
+        String content = "x".repeat(4_990);
+
+        runner.run("recognizer.userName.valid", Map.of("chars", "" + userName.length()), 1, userName.length(),
+                () -> BenchmarkRunner.consume(UserNameRecognizer.recognize(userName)));
+        runner.run("recognizer.userName.invalid", Map.of("chars", "" + badUserName.length()), 1, badUserName.length(),
+                () -> BenchmarkRunner.consume(UserNameRecognizer.recognize(badUserName)));
+        runner.run("recognizer.password.valid", Map.of("chars", "" + password.length()), 1, password.length(),
+                () -> BenchmarkRunner.consume(PasswordEvaluator.evaluate(password)));
+        runner.run("recognizer.password.invalid", Map.of("chars", "" + badPassword.length()), 1, badPassword.length(),
+                () -> BenchmarkRunner.consume(PasswordEvaluator.evaluate(badPassword)));
+        runner.run("recognizer.boardContent.valid", Map.of("chars", "" + content.length()), 1, content.length(),
+                () -> BenchmarkRunner.consume(DiscussionBoardValidator.validateContent(content)));
+
+        //the evaluators keep no shared state, so throughput should grow with the thread count
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            runner.run("recognizer.password.scaling", Map.of("chars", "" + password.length()), threads, password.length(),
+                    () -> BenchmarkRunner.consume(PasswordEvaluator.evaluate(password)));
+        }
+    }
+
+    //the in-memory collections at each size
+    private static void collections(BenchmarkRunner runner, int[] sizes) throws Exception {
+        for (int size : sizes) {
+            if (!runner.accepts("questions.search") && !runner.accepts("questions.filterBy")
+                    && !runner.accepts("answers.getAnswersForQuestion")) return;
+            SyntheticData data = new SyntheticData(size, Math.max(10, size / 20));
+            Questions questions = data.questions(size);
+            Answers answers = data.answers(size * 2, size);
+            Map<String, String> params = Map.of("size", "" + size);
+
+            runner.run("questions.search", params, () -> BenchmarkRunner.consume(questions.search(data.keyword())));
+            runner.run("questions.filterByAnsweredStatus", params,
+                    () -> BenchmarkRunner.consume(questions.filterByAnsweredStatus(true)));
+            runner.run("questions.filterByAuthor", params,
+                    () -> BenchmarkRunner.consume(questions.filterByAuthor(data.author())));
+            runner.run("questions.filterByCategory", params,
+                    () -> BenchmarkRunner.consume(questions.filterByCategory(data.category())));
+            runner.run("answers.getAnswersForQuestion", params,
+                    () -> BenchmarkRunner.consume(answers.getAnswersForQuestion(1 + data.nextInt(size))));
+        }
+    }
+
+    //the board holding the given number of questions: the DAO against an in-memory H2 database
+    //(dao.*), or the in-memory engine (memory.*)
+    private static void board(BenchmarkRunner runner, int[] sizes, boolean inMemory) throws Exception {
+        String prefix = inMemory ? "memory." : "dao.";
+        for (int size : sizes) {
+            if (!runner.accepts(prefix)) return;
+            DiscussionBoardRepository dao = inMemory ? new InMemoryDiscussionBoard()
+                    : new DiscussionBoardDAO("jdbc:h2:mem:bench" + size + ";DB_CLOSE_DELAY=-1");
+            try {
+                SyntheticData data = new SyntheticData(size, Math.max(10, size / 20));
+                int answerCount = 0;
+                for (int i = 0; i < size; i++) {
+                    int questionId = dao.createQuestion(data.question());
+                    for (int a = data.nextInt(4); a > 0; a--) {
+                        int answerId = dao.createAnswer(data.answer(questionId));
+                        for (int r = data.nextInt(3); r > 0; r--) dao.createReply(data.reply(answerId));
+                        answerCount++;
+                    }
+                }
+                int answers = answerCount;
+                Map<String, String> params = Map.of("rows", "" + size);
+
+                runner.run(prefix + "getQuestionById", params,
+                        () -> BenchmarkRunner.consume(dao.getQuestionById(1 + data.nextInt(size))));
+                runner.run(prefix + "updateQuestion", params, () -> {
+                    Question q = dao.getQuestionById(1 + data.nextInt(size));
+                    q.setIsAnswered(!q.getIsAnswered());
+                    BenchmarkRunner.consume(dao.updateQuestion(q));
+                });
+                runner.run(prefix + "getAllQuestions", params, () -> BenchmarkRunner.consume(dao.getAllQuestions()));
+                runner.run(prefix + "getAnswersForQuestion", params,
+                        () -> BenchmarkRunner.consume(dao.getAnswersForQuestion(1 + data.nextInt(size))));
+                runner.run(prefix + "getRepliesForAnswer", params,
+                        () -> BenchmarkRunner.consume(dao.getRepliesForAnswer(1 + data.nextInt(answers))));
+                //each delete removes a row made for it, so the board keeps its size
+                runner.run(prefix + "deleteQuestion", params, () -> dao.createQuestion(data.question()),
+                        questionId -> BenchmarkRunner.consume(dao.deleteQuestion(questionId)));
+                runner.run(prefix + "deleteAnswer", params,
+                        () -> dao.createAnswer(data.answer(1 + data.nextInt(size))),
+                        answerId -> BenchmarkRunner.consume(dao.deleteAnswer(answerId)));
+                //last, since they grow the tables
+                runner.run(prefix + "createReply", params,
+                        () -> BenchmarkRunner.consume(dao.createReply(data.reply(1 + data.nextInt(answers)))));
+                runner.run(prefix + "createQuestion", params, () -> BenchmarkRunner.consume(dao.createQuestion(data.question())));
+            } finally {
+                dao.closeConnection();
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package benchmark;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import application.Answer;
+import application.Answers;
+import application.Question;
+import application.User;
+import databasePart1.DatabaseHelper;
+import databasePart1.DatabaseMetrics;
+import databasePart1.DiscussionBoardDAO;
+import databasePart1.DiscussionBoardRepository;
+import databasePart1.InMemoryDiscussionBoard;
+import databasePart1.LatencyHistogram;
+
+/*******
+ * <p> Title: LoadDriver Class. </p>
+ *
+ * <p> Description: A headless load driver for the discussion board.  Each simulated student is
+ * a virtual thread that runs a weighted mix of operations against the discussion board (the
+ * H2 DiscussionBoardDAO, or the InMemoryDiscussionBoard with --engine memory, kept on disk
+ * with --data-dir) and DatabaseHelper, doing the same calls the JavaFX pages make.  Questions
+ * are picked with a Zipfian popularity, so a few questions get most of the answers, replies and views.  The
+ * report gives the throughput and the p50/p99/p99.9 latency of each operation.</p>
+ *
+ * <p> Usage: </p>
+ * <pre>
+ *   LoadDriver [--students 50] [--seconds 30] [--questions 2000] [--connections 4]
+ *              [--theta 0.99] [--think-ms 0] [--db jdbc:h2:mem:load] [--engine h2|memory]
+ *              [--data-dir DIR]
+ *              [--mix ask=5,answer=10,reply=10,search=15,filter=10,accept=5,view=40,login=5]
+ * </pre>
+ *
+ * @version 1.00	2026-10-19 Initial load driver
+ *
+ */
+public class LoadDriver {
+
+    //the operations a student performs, with the default share of the mix
+    enum Operation {
+        ASK(5), ANSWER(10), REPLY(10), SEARCH(15), FILTER(10), ACCEPT(5), VIEW(40), LOGIN(5);
+
+        final int defaultWeight;
+
+        Operation(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    //the latency and error counts of one operation
+    static class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final DiscussionBoardRepository[] daos;
+    private final DatabaseHelper databaseHelper;
+    private final int students;
+    private final int[] questionIds;
+    private final ZipfianGenerator popularity;
+    private final Operation[] mixTable;        //about 1000 slots, filled by weight
+    private final long thinkMillis;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    LoadDriver(DiscussionBoardRepository[] daos, DatabaseHelper databaseHelper, int students, int[] questionIds,
+            double theta, Map<Operation, Integer> mix, long thinkMillis) {
+        this.daos = daos;
+        this.databaseHelper = databaseHelper;
+        this.students = students;
+        this.questionIds = questionIds;
+        this.popularity = new ZipfianGenerator(questionIds.length, theta);
+        this.thinkMillis = thinkMillis;
+        for (Operation op : Operation.values()) stats.put(op, new OperationStats());
+
+        int total = 0;
+        for (int weight : mix.values()) total += weight;
+        if (total <= 0) throw new IllegalArgumentException("The mix must have a positive weight");
+        List<Operation> table = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> e : mix.entrySet())
+            for (int i = 0; i < Math.round(e.getValue() * 1000.0 / total); i++) table.add(e.getKey());
+        this.mixTable = table.toArray(new Operation[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int students = 50;
+        int seconds = 30;
+        int questions = 2000;
+        int connections = 4;
+        double theta = 0.99;
+        long thinkMillis = 0;
+        String dbUrl = "jdbc:h2:mem:load;DB_CLOSE_DELAY=-1";
+        boolean inMemory = false;
+        Path dataDir = null;
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) mix.put(op, op.defaultWeight);
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--students": students = Integer.parseInt(args[++i]); break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                case "--questions": questions = Integer.parseInt(args[++i]); break;
+                case "--connections": connections = Integer.parseInt(args[++i]); break;
+                case "--theta": theta = Double.parseDouble(args[++i]); break;
+                case "--think-ms": thinkMillis = Long.parseLong(args[++i]); break;
+                case "--db": dbUrl = args[++i]; break;
+                case "--engine": inMemory = args[++i].equalsIgnoreCase("memory"); break;
+                case "--data-dir": dataDir = Paths.get(args[++i]); break;
+                case "--mix":
+                    for (Operation op : Operation.values()) mix.put(op, 0);
+                    for (String part : args[++i].split(",")) {
+                        String[] kv = part.split("=");
+                        mix.put(Operation.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+                    }
+                    break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        //one DAO per connection, or one in-memory board; the students share them round-robin
+        DiscussionBoardRepository[] daos = new DiscussionBoardRepository[inMemory ? 1 : connections];
+        for (int i = 0; i < daos.length; i++) {
+            if (!inMemory) daos[i] = new DiscussionBoardDAO(dbUrl);
+            else daos[i] = dataDir == null ? new InMemoryDiscussionBoard() : InMemoryDiscussionBoard.open(dataDir);
+        }
+        DatabaseHelper databaseHelper = new DatabaseHelper(dbUrl);
+        databaseHelper.connectToDatabase();
+        try {
+            System.out.println("Seeding " + questions + " questions and " + students + " students...");
+            int[] questionIds = seed(daos[0], databaseHelper, questions, students);
+            LoadDriver driver = new LoadDriver(daos, databaseHelper, students, questionIds, theta, mix, thinkMillis);
+            System.out.println("Running " + students + " students for " + seconds + " s, mix " + mix);
+            driver.run(seconds);
+            driver.report(seconds);
+            System.out.println();
+            System.out.print(DatabaseMetrics.dump());
+        } finally {
+            for (DiscussionBoardRepository dao : daos) dao.closeConnection();
+            databaseHelper.closeConnection();
+        }
+    }
+
+    //create the questions and answers that the run works on, and one account per student
+    static int[] seed(DiscussionBoardRepository dao, DatabaseHelper databaseHelper, int questions, int students)
+            throws SQLException {
+        SyntheticData data = new SyntheticData(42, students);
+        int[] ids = new int[questions];
+        for (int i = 0; i < questions; i++) {
+            ids[i] = dao.createQuestion(data.question());
+            for (int a = data.nextInt(3); a > 0; a--) dao.createAnswer(data.answer(ids[i]));
+        }
+        for (int s = 0; s < students; s++) {
+            if (!databaseHelper.doesUserExist("student" + s))
+                databaseHelper.register(new User("student" + s, "Aa!15678", "student"));
+        }
+        return ids;
+    }
+
+    void run(int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int s = 0; s < students; s++) {
+                int student = s;
+                executor.submit(() -> runStudent(student, deadline));
+            }
+        }
+    }
+
+    private void runStudent(int student, long deadline) {
+        DiscussionBoardRepository dao = daos[student % daos.length];
+        SyntheticData data = new SyntheticData(student, students);
+        String userName = "student" + student;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation op = mixTable[random.nextInt(mixTable.length)];
+            OperationStats opStats = stats.get(op);
+            long start = System.nanoTime();
+            try {
+                perform(op, dao, data, userName);
+                opStats.latency.record(System.nanoTime() - start);
+            } catch (SQLException | RuntimeException e) {
+                opStats.errors.increment();
+            }
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    //one operation, done the way the discussion board page does it
+    private void perform(Operation op, DiscussionBoardRepository dao, SyntheticData data, String userName)
+            throws SQLException {
+        switch (op) {
+            case ASK: {
+                Question q = data.question();
+                q.setAuthorUserName(userName);
+                dao.createQuestion(q);
+                break;
+            }
+            case ANSWER: {
+                Question q = dao.getQuestionById(popularQuestion());
+                if (q == null) break;
+                dao.createAnswer(new Answer(q.getQuestionId(), data.words(10, 60), userName));
+                q.setIsAnswered(true);
+                dao.updateQuestion(q);
+                break;
+            }
+            case REPLY: {
+                Answers answers = dao.getAnswersForQuestion(popularQuestion());
+                if (answers.isEmpty()) break;
+                List<Answer> list = answers.getAllAnswers();
+                dao.createReply(data.reply(list.get(data.nextInt(list.size())).getAnswerId()));
+                break;
+            }
+            case SEARCH:
+                BenchmarkRunner.consume(dao.getAllQuestions().search(data.keyword()));
+                break;
+            case FILTER:
+                BenchmarkRunner.consume(dao.getAllQuestions().filterByAnsweredStatus(data.nextInt(2) == 0));
+                break;
+            case ACCEPT: {
+                Question q = dao.getQuestionById(popularQuestion());
+                if (q == null) break;
+                List<Answer> answers = dao.getAnswersForQuestion(q.getQuestionId()).getAllAnswers();
+                for (Answer a : answers) {
+                    if (a.getIsAccepted()) {
+                        a.setIsAccepted(false);
+                        dao.updateAnswer(a);
+                    }
+                }
+                if (answers.isEmpty()) break;
+                Answer accepted = answers.get(data.nextInt(answers.size()));
+                accepted.setIsAccepted(true);
+                dao.updateAnswer(accepted);
+                q.setIsAnswered(true);
+                dao.updateQuestion(q);
+                break;
+            }
+            case VIEW: {
+                Question q = dao.getQuestionById(popularQuestion());
+                if (q == null) break;
+                for (Answer a : dao.getAnswersForQuestion(q.getQuestionId()).getAllAnswers())
+                    BenchmarkRunner.consume(dao.getRepliesForAnswer(a.getAnswerId()));
+                break;
+            }
+            case LOGIN:
+                BenchmarkRunner.consume(databaseHelper.login(new User(userName, "Aa!15678", "student")));
+                break;
+        }
+    }
+
+    private int popularQuestion() {
+        return questionIds[(int) popularity.next()];
+    }
+
+    void report(int seconds) {
+        System.out.println();
+        System.out.printf("%-8s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+                "op", "count", "errors", "ops/s", "mean ms", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        long totalCount = 0;
+        for (Map.Entry<Operation, OperationStats> e : stats.entrySet()) {
+            LatencyHistogram h = e.getValue().latency;
+            totalCount += h.getCount();
+            System.out.printf("%-8s %10d %8d %10.1f %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                    e.getKey().name().toLowerCase(), h.getCount(), e.getValue().errors.sum(),
+                    (double) h.getCount() / seconds, h.getMeanNanos() / 1e6,
+                    h.valueAtPercentile(0.50) / 1e6, h.valueAtPercentile(0.99) / 1e6,
+                    h.valueAtPercentile(0.999) / 1e6, h.getMaxNanos() / 1e6);
+        }
+        System.out.printf("%-8s %10d %8s %10.1f%n", "total", totalCount, "", (double) totalCount / seconds);
+    }
+}
@@ -0,0 +1,107 @@
+package benchmark;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import application.Answer;
+import application.Answers;
+import application.Question;
+import application.Questions;
+import application.Reply;
+
+//deterministic generator of discussion board content for benchmarks and load tests
+public class SyntheticData {
+    private static final String[] WORDS = {
+        "java", "class", "method", "loop", "array", "list", "map", "exception", "thread", "stream",
+        "database", "query", "index", "table", "join", "scene", "button", "layout", "event", "handler",
+        "compile", "error", "null", "pointer", "string", "integer", "parse", "format", "date", "time",
+        "homework", "project", "phase", "team", "deadline", "grade", "lecture", "exam", "quiz", "lab",
+        "recursion", "sorting", "search", "tree", "graph", "stack", "queue", "hash", "memory", "test"
+    };
+    private static final String[] CATEGORIES = {
+        "General", "Homework", "Project", "Exams", "JavaFX", "Database", "Testing", "Tools"
+    };
+
+    private final Random random;
+    private final int authors;
+
+    public SyntheticData(long seed, int authors) {
+        this.random = new Random(seed);
+        this.authors = authors;
+    }
+
+    public String author() {
+        return "student" + random.nextInt(authors);
+    }
+
+    public String category() {
+        return CATEGORIES[random.nextInt(CATEGORIES.length)];
+    }
+
+    public String words(int min, int max) {
+        int count = min + random.nextInt(max - min + 1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    public String keyword() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    public Question question() {
+        Question q = new Question(words(3, 10), words(10, 80), author());
+        q.setCategory(category());
+        q.setIsAnswered(random.nextInt(3) == 0);
+        return q;
+    }
+
+    //an in-memory board with ids 1..count, created over the last year
+    public Questions questions(int count) {
+        Questions questions = new Questions();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= count; i++) {
+            Question q = question();
+            q.setQuestionId(i);
+            q.setCreatedAt(now.minusMinutes(random.nextInt(525_600)));
+            questions.addQuestion(q);
+        }
+        return questions;
+    }
+
+    public Answer answer(int questionId) {
+        return new Answer(questionId, words(10, 60), author());
+    }
+
+    //answers spread over question ids 1..questionCount
+    public Answers answers(int count, int questionCount) {
+        Answers answers = new Answers();
+        for (int i = 1; i <= count; i++) {
+            Answer a = answer(1 + random.nextInt(questionCount));
+            a.setAnswerId(i);
+            answers.addAnswer(a);
+        }
+        return answers;
+    }
+
+    public Reply reply(int answerId) {
+        return new Reply(answerId, words(5, 30), author());
+    }
+
+    //a user name that the UserName recognizer accepts
+    public String validUserName() {
+        return "user" + random.nextInt(1_000_000) + (random.nextBoolean() ? ".x" : "");
+    }
+
+    //a password that the password evaluator accepts
+    public String validPassword() {
+        return "Aa1!" + words(1, 2).replace(' ', '_');
+    }
+}
@@ -0,0 +1,98 @@
+package benchmark;
+
+import application.UserNameRecognizer;
+import inputValidation.ValidationResult;
+
+import java.util.Random;
+
+/*******
+ * <p> Title: UserNameDifferentialCheck Class. </p>
+ *
+ * <p> Description: Checks the table-driven UserNameRecognizer against the original hand-coded
+ * FSM, kept as LegacyUserNameRecognizer.  Every input up to a length over a small alphabet
+ * (one character of each class the FSM tells apart) is run through both, followed by random
+ * inputs over a wider alphabet and up to past the 16 character limit.  The error message and
+ * the index of the error must agree; the first inputs that disagree are listed and the exit
+ * status is non-zero if there are any.</p>
+ *
+ * <p> Usage: </p>
+ * <pre>
+ *   UserNameDifferentialCheck [--exhaustive-length 7] [--random 1000000] [--seed 360]
+ * </pre>
+ *
+ * @version 1.00	2026-10-19 Initial differential check
+ *
+ */
+public class UserNameDifferentialCheck {
+    //a letter of each case, a digit, each special, and characters the FSM rejects
+    private static final String SMALL_ALPHABET = "aZ0.-_ @";
+    private static final String WIDE_ALPHABET =
+            "abcxyzABCXYZ0189.-_ @#/\\'\"!?~`\u00e9\t";
+    private static final int MAX_RANDOM_LENGTH = 24;
+    private static final int MAX_REPORTED = 20;
+
+    private static long checked;
+    private static long mismatches;
+
+    public static void main(String[] args) {
+        int exhaustiveLength = 7;
+        int randomInputs = 1_000_000;
+        long seed = 360;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--exhaustive-length": exhaustiveLength = Integer.parseInt(args[++i]); break;
+            case "--random": randomInputs = Integer.parseInt(args[++i]); break;
+            case "--seed": seed = Long.parseLong(args[++i]); break;
+            default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+
+        //every string over the small alphabet, shortest first
+        char[] buffer = new char[exhaustiveLength];
+        for (int length = 0; length <= exhaustiveLength; length++) {
+            int[] digits = new int[length];
+            while (true) {
+                for (int i = 0; i < length; i++) buffer[i] = SMALL_ALPHABET.charAt(digits[i]);
+                check(new String(buffer, 0, length));
+                int i = length - 1;
+                while (i >= 0 && ++digits[i] == SMALL_ALPHABET.length()) digits[i--] = 0;
+                if (i < 0) break;
+            }
+        }
+
+        //random strings, mostly valid characters so the length limits are reached
+        Random random = new Random(seed);
+        StringBuilder input = new StringBuilder();
+        for (int n = 0; n < randomInputs; n++) {
+            input.setLength(0);
+            int length = random.nextInt(MAX_RANDOM_LENGTH + 1);
+            for (int i = 0; i < length; i++) {
+                input.append(random.nextInt(8) == 0 ? WIDE_ALPHABET.charAt(random.nextInt(WIDE_ALPHABET.length()))
+                        : SMALL_ALPHABET.charAt(random.nextInt(3)));
+            }
+            check(input.toString());
+        }
+
+        System.out.println("Inputs checked: " + checked + "  |  Mismatches: " + mismatches);
+        if (mismatches > 0) System.exit(1);
+    }
+
+    //run the input through both recognizers and report it if they disagree
+    private static void check(String input) {
+        checked++;
+        String expected = LegacyUserNameRecognizer.checkForValidUserName(input);
+        int expectedIndex = LegacyUserNameRecognizer.userNameRecognizerIndexofError;
+        ValidationResult actual = UserNameRecognizer.recognize(input);
+        boolean sameIndex = expected.isEmpty() ? actual.isValid() : actual.getIndexOfError() == expectedIndex;
+        if (expected.equals(actual.getErrorMessage()) && sameIndex) return;
+        if (++mismatches <= MAX_REPORTED) {
+            System.out.println("Mismatch for \"" + input + "\": expected " + printable(expected) + " at "
+                    + expectedIndex + ", got " + printable(actual.getErrorMessage()) + " at "
+                    + actual.getIndexOfError());
+        }
+    }
+
+    private static String printable(String message) {
+        return message.isEmpty() ? "valid" : "\"" + message.trim() + "\"";
+    }
+}
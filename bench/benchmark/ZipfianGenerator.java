@@ -0,0 +1,40 @@
+package benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+//picks ranks 0..n-1 where rank k is chosen with probability proportional to 1/(k+1)^theta,
+//so a few popular items receive most of the traffic. uses the method of Gray et al.
+//("Quickly Generating Billion-Record Synthetic Databases"), as YCSB does.
+public class ZipfianGenerator {
+    private final long items;
+    private final double theta;
+    private final double alpha;
+    private final double zetan;
+    private final double eta;
+
+    public ZipfianGenerator(long items, double theta) {
+        if (items < 1) throw new IllegalArgumentException("items must be positive");
+        if (theta <= 0 || theta == 1) throw new IllegalArgumentException("theta must be > 0 and != 1");
+        this.items = items;
+        this.theta = theta;
+        this.alpha = 1.0 / (1.0 - theta);
+        this.zetan = zeta(items, theta);
+        double zeta2 = zeta(2, theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / zetan);
+    }
+
+    //the next rank; rank 0 is the most popular
+    public long next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        double uz = u * zetan;
+        if (uz < 1.0) return 0;
+        if (uz < 1.0 + Math.pow(0.5, theta)) return Math.min(1, items - 1);
+        return Math.min(items - 1, (long) (items * Math.pow(eta * u - eta + 1, alpha)));
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) sum += 1 / Math.pow(i, theta);
+        return sum;
+    }
+}
@@ -15,11 +15,13 @@ import javafx.geometry.Pos;
 public class AdminHomePage {
     private Stage stage;
     private String userName;
+    private Navigator navigator;
 
     //constructor
-    public AdminHomePage(Stage stage, String userName) {
+    public AdminHomePage(Stage stage, String userName, Navigator navigator) {
         this.stage = stage;
         this.userName = userName;
+        this.navigator = navigator;
     }
 
     //create the scene
@@ -36,8 +38,7 @@ public class AdminHomePage {
         Button discussionBoardBtn = new Button("Discussion Board");
         discussionBoardBtn.setPrefWidth(200);
         discussionBoardBtn.setOnAction(e -> {
-            DiscussionBoardPage dbPage = new DiscussionBoardPage(stage, userName, "admin");
-            stage.setScene(dbPage.createScene());
+            navigator.showDiscussionBoard();
         });
 
         layout.getChildren().addAll(adminLabel, discussionBoardBtn);
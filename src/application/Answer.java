@@ -1,23 +1,29 @@
 package application;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 //create an answer class
 public class Answer {
+    private static final DateTimeFormatter DISPLAY_TIME = DateTimeFormatter.ofPattern("hh:mm a · MMM dd, yyyy");
+
     private int answerId;
     private int questionId;
     private String content;
-    private String authorUserName;
+    //the author's number in Symbols, so rows share one copy of each name; 0 for null
+    private int author;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private boolean isAccepted;
     private boolean isCorrect;
+    //list text for the board, built on first use and cleared by the setters that change it
+    private String displayText;
 
     //constructor getter and setter
     public Answer(int questionId, String content, String authorUserName) {
         this.questionId = questionId;
         this.content = content;
-        this.authorUserName = authorUserName;
+        this.author = Symbols.id(authorUserName);
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
 	    this.isAccepted = false;
@@ -26,14 +32,18 @@ public class Answer {
 
     //constructor with all fields for db retrieval
     public Answer(int answerId, int questionId, String content, String authorUserName, LocalDateTime createdAt, LocalDateTime updatedAt, boolean isAccepted) {
+        this(answerId, questionId, content, authorUserName, createdAt, updatedAt, isAccepted, false);
+    }
+
+    public Answer(int answerId, int questionId, String content, String authorUserName, LocalDateTime createdAt, LocalDateTime updatedAt, boolean isAccepted, boolean isCorrect) {
 	    this.answerId = answerId;
 	    this.questionId = questionId;
 	    this.content = content;
-	    this.authorUserName = authorUserName;
+	    this.author = Symbols.id(authorUserName);
 	    this.createdAt = createdAt;
 	    this.updatedAt = updatedAt;
 	    this.isAccepted = isAccepted;
-	    this.isCorrect = false;
+	    this.isCorrect = isCorrect;
     }
 
     //getters and setters
@@ -56,7 +66,10 @@ public class Answer {
         return content;
     }
     public String getAuthorUserName() {
-        return authorUserName;
+        return Symbols.name(author);
+    }
+    public int getAuthorId() {
+        return author;
     }
     public LocalDateTime getCreatedAt() {
         return createdAt;
@@ -75,13 +88,16 @@ public class Answer {
     }
     public void setContent(String content) {
         this.content = content;
+        this.displayText = null;
         this.updatedAt = LocalDateTime.now(); //update the updatedAt time
     }
     public void setAuthorUserName(String authorUserName) {
-        this.authorUserName = authorUserName;
+        this.author = Symbols.id(authorUserName);
+        this.displayText = null;
     }
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
+        this.displayText = null;
     }
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
@@ -112,13 +128,21 @@ public class Answer {
         this.isCorrect = true;
         this.updatedAt = LocalDateTime.now();
     }
+    //the text of the answer in the board's list
+    String getDisplayText() {
+        if (displayText == null) {
+            String timeInfo = (createdAt != null) ? createdAt.format(DISPLAY_TIME) : "unknown time";
+            displayText = getContent() + "\n(by " + getAuthorUserName() + " at " + timeInfo + ")";
+        }
+        return displayText;
+    }
     @Override
     public String toString() {
         return "Answer{" +
                 "answerId=" + answerId +
                 ", questionId=" + questionId +
-                ", content='" + content + '\'' +
-                ", authorUserName='" + authorUserName + '\'' +
+                ", content='" + getContent() + '\'' +
+                ", authorUserName='" + getAuthorUserName() + '\'' +
                 ", isAccepted=" + isAccepted +
                 ", createdAt=" + createdAt +
                 '}';
@@ -72,10 +72,11 @@ public class Answers {
         return new Answers(filtered);
     }
 
-    // author filter
+    // author filter, comparing Symbols numbers
     public Answers filterByAuthor(String authorUserName) {
+        int authorId = Symbols.lookup(authorUserName);
         List<Answer> filtered = answerList.stream()
-            .filter(a -> authorUserName.equals(a.getAuthorUserName()))
+            .filter(a -> a.getAuthorId() == authorId)
             .collect(Collectors.toList());
         return new Answers(filtered);
     }
@@ -0,0 +1,95 @@
+package application;
+
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+//list cells for the discussion board. each cell builds its nodes once and is recycled by the
+//ListView as it scrolls; updateItem only swaps in the item's cached display text (see
+//getDisplayText() in Question, Answer and Reply), so unchanged cells keep the same strings
+//and are not laid out again.
+public class BoardListCells {
+    //height of a one-line question cell; a fixed height lets the ListView skip measuring cells
+    static final double QUESTION_CELL_HEIGHT = 24;
+
+    private BoardListCells() {
+    }
+
+    //one line per question: status, title and author
+    static class QuestionCell extends ListCell<Question> {
+        private final UiDiagnostics diagnostics;
+
+        QuestionCell(UiDiagnostics diagnostics) {
+            this.diagnostics = diagnostics;
+        }
+
+        @Override
+        protected void updateItem(Question question, boolean empty) {
+            long start = System.nanoTime();
+            super.updateItem(question, empty);
+            setText(empty || question == null ? null : question.getDisplayText());
+            diagnostics.record("render.questionCell", start);
+        }
+    }
+
+    //the answer text with its verified and helpful badges
+    static class AnswerCell extends ListCell<Answer> {
+        private final UiDiagnostics diagnostics;
+        private final Label contentLabel = new Label();
+        private final Label verifiedLabel = new Label("          [✓] Verified Answer");
+        private final Label helpfulLabel = new Label("          [✓] Student Found Helpful");
+        private final HBox hBox;
+
+        AnswerCell(UiDiagnostics diagnostics) {
+            this.diagnostics = diagnostics;
+            contentLabel.setWrapText(true);
+            verifiedLabel.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
+            helpfulLabel.setStyle("-fx-text-fill: blue; -fx-font-weight: bold;");
+            VBox statusBox = new VBox(2, verifiedLabel, helpfulLabel);
+            hBox = new HBox(10, contentLabel, statusBox);
+            hBox.setAlignment(Pos.CENTER_LEFT);
+            HBox.setHgrow(contentLabel, Priority.ALWAYS);
+        }
+
+        @Override
+        protected void updateItem(Answer answer, boolean empty) {
+            long start = System.nanoTime();
+            super.updateItem(answer, empty);
+            setText(null);
+            if (empty || answer == null) {
+                setGraphic(null);
+            } else {
+                contentLabel.setText(answer.getDisplayText());
+                show(verifiedLabel, answer.getIsAccepted());
+                show(helpfulLabel, answer.isCorrect());
+                setGraphic(hBox);
+            }
+            diagnostics.record("render.answerCell", start);
+        }
+
+        private static void show(Label label, boolean visible) {
+            label.setVisible(visible);
+            label.setManaged(visible);
+        }
+    }
+
+    //the reply text with its author and date
+    static class ReplyCell extends ListCell<Reply> {
+        private final UiDiagnostics diagnostics;
+
+        ReplyCell(UiDiagnostics diagnostics) {
+            this.diagnostics = diagnostics;
+        }
+
+        @Override
+        protected void updateItem(Reply reply, boolean empty) {
+            long start = System.nanoTime();
+            super.updateItem(reply, empty);
+            setText(empty || reply == null ? null : reply.getDisplayText());
+            diagnostics.record("render.replyCell", start);
+        }
+    }
+}
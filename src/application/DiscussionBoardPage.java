@@ -8,23 +8,49 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import databasePart1.DiscussionBoardDAO;
+import javafx.application.Platform;
+import javafx.animation.PauseTransition;
+import javafx.beans.value.ChangeListener;
+import databasePart1.DiscussionBoardRepository;
+import databasePart1.QuestionSnapshot;
+import textSearch.SearchDocument;
+import textSearch.SearchHit;
+import textSearch.SearchIndex;
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 
 //UI for the discussion board
 public class DiscussionBoardPage {
     private Stage stage;
     private String currentUserName;
     private String currentUserRole;
-    private DiscussionBoardDAO dao;
+    private Navigator navigator;
+    //the application's board storage, shared by every visit to the board; null while it is
+    //still being opened, when the list shows the question snapshot and the controls are off
+    private DiscussionBoardRepository dao;
+    //the DAO write version the question list was loaded at (see revalidate)
+    private long loadedVersion = -1;
 
     //UI components
+    private VBox topSection;
+    private VBox actionSection;
     private ListView<Question> questionListView;
     private TextArea questionDetailArea;
     private ListView<Answer> answerListView;
     private ListView<Reply> replyListView;
     private TextField searchField;
     private ComboBox<String> filterComboBox;
+    //the filter choices, each with the criteria it adds to the question query
+    private final Map<String, UnaryOperator<QuestionQuery.Builder>> filters = new LinkedHashMap<>();
+    //the filter of the list on screen, without the keyword; read by the search thread
+    private volatile QuestionQuery filterQuery = QuestionQuery.all();
 
     //currently selected question
     private Question selectedQuestion;
@@ -35,25 +61,94 @@ public class DiscussionBoardPage {
     private Button markCorrectBtn;
     private Button markHelpfulBtn;
 
-    public DiscussionBoardPage(Stage stage, String currentUserName, String currentUserRole) {
+    //handler, cell render and pulse timings (Ctrl+Shift+D shows them)
+    private final UiDiagnostics diagnostics = new UiDiagnostics("DiscussionBoardPage");
+
+    //ranked search over questions, answers and replies; set once the index is up to date
+    private static final int RANKED_RESULTS = 20;
+    private static final int RELATED_RESULTS = 5;
+    private volatile SearchIndex searchIndex;
+    //finds the related questions of a draft, since the index may be busy indexing the board
+    private final ExecutorService relatedExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "related-questions");
+        t.setDaemon(true);
+        return t;
+    });
+
+    //set by dispose(), so a board that finishes opening afterwards is not shown
+    private boolean disposed;
+
+    //search-as-you-type over the question list
+    private final IncrementalSearch incrementalSearch = new IncrementalSearch(
+            () -> dao.queryQuestions(filterQuery).getAllQuestions(),
+            results -> diagnostics.time("showSearchResults", () -> questionListView.setItems(FXCollections.observableArrayList(results))),
+            results -> diagnostics.time("appendSearchResults", () -> questionListView.getItems().addAll(results)),
+            message -> showError("Failed to search questions: " + message));
+
+    public DiscussionBoardPage(Stage stage, String currentUserName, String currentUserRole, Navigator navigator) {
         this.stage = stage;
         this.currentUserName = currentUserName;
         this.currentUserRole = currentUserRole;
+        this.navigator = navigator;
 
-        try {
-            this.dao = new DiscussionBoardDAO();
-        } catch (SQLException e) {
-            showError("Failed to connect to the database");
+        this.dao = navigator.getDatabaseHelper().openedDiscussionBoard();
+        if (dao != null) {
+            attachSearchIndex();
+        } else {
+            openBoard();
         }
     }
 
+    //open the board off the FX thread when startup has not opened it yet
+    private void openBoard() {
+        Thread open = new Thread(() -> {
+            try {
+                DiscussionBoardRepository board = navigator.getDatabaseHelper().getDiscussionBoard();
+                Platform.runLater(() -> boardOpened(board));
+            } catch (SQLException e) {
+                Platform.runLater(() -> showError("Failed to connect to the database"));
+            }
+        }, "board-open");
+        open.setDaemon(true);
+        open.start();
+    }
+
+    //replace the snapshot with the board's own rows, keeping the selected question
+    private void boardOpened(DiscussionBoardRepository board) {
+        if (disposed) return;
+        dao = board;
+        attachSearchIndex();
+        topSection.setDisable(false);
+        actionSection.setDisable(false);
+        int questionId = selectedQuestion == null ? 0 : selectedQuestion.getQuestionId();
+        loadQuestions();
+        select(questionId, 0);
+    }
+
+    //open the search index off the FX thread, since the first start indexes the whole board
+    private void attachSearchIndex() {
+        Thread attach = new Thread(() -> {
+            try {
+                SearchIndex index = SearchIndex.shared();
+                index.attach(dao);
+                searchIndex = index;
+            } catch (IOException | SQLException e) {
+                Platform.runLater(() -> showError("Failed to open the search index: " + e.getMessage()));
+            }
+        }, "search-index");
+        attach.setDaemon(true);
+        attach.start();
+    }
+
     //create the scene for UI
     public Scene createScene() {
         BorderPane mainLayout = new BorderPane();
         mainLayout.setPadding(new Insets(10));
 
         //top: search and filter
-        mainLayout.setTop(createTopSection());
+        topSection = createTopSection();
+        topSection.setDisable(dao == null);
+        mainLayout.setTop(topSection);
 
         //left: question list
         mainLayout.setLeft(createQuestionsSection());
@@ -62,9 +157,11 @@ public class DiscussionBoardPage {
         mainLayout.setCenter(createDetailSection());
 
         //right: action buttons.
-        mainLayout.setRight(createActionSection());
+        actionSection = createActionSection();
+        actionSection.setDisable(dao == null);
+        mainLayout.setRight(actionSection);
 
-        return new Scene(mainLayout, 1200, 800);
+        return diagnostics.createScene(mainLayout, 1200, 800);
     }
 
     //create the top layout for search and filter
@@ -78,21 +175,37 @@ public class DiscussionBoardPage {
         searchField = new TextField();
         searchField.setPromptText("Search questions...");
         searchField.setPrefWidth(300);
+        //search as the user types; a keyword that is too short leaves the list as it is
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal.trim().isEmpty()) {
+                incrementalSearch.cancel();
+                if (!oldVal.trim().isEmpty()) loadQuestions();
+            } else if (DiscussionBoardValidator.validateSearchQuery(newVal) == null) {
+                incrementalSearch.keywordChanged(newVal);
+            }
+        });
 
         Button searchButton = new Button("Search");
-        searchButton.setOnAction(e -> performSearch());
+        searchButton.setOnAction(e -> diagnostics.time("performSearch", this::performSearch));
+
+        Button rankedSearchButton = new Button("Ranked Search");
+        rankedSearchButton.setOnAction(e -> diagnostics.time("rankedSearch", this::rankedSearch));
 
         Button clearSearchButton = new Button("Clear");
-        clearSearchButton.setOnAction(e -> clearSearch());
+        clearSearchButton.setOnAction(e -> diagnostics.time("clearSearch", this::clearSearch));
 
-        searchBox.getChildren().addAll(new Label("Search:"), searchField, searchButton, clearSearchButton);
+        searchBox.getChildren().addAll(new Label("Search:"), searchField, searchButton, rankedSearchButton, clearSearchButton);
 
         //filter
         HBox filterBox = new HBox(10);
         filterComboBox = new ComboBox<>();
-        filterComboBox.setItems(FXCollections.observableArrayList("All", "Answered", "Unanswered", "My Questions"));
+        filters.put("All", query -> query);
+        filters.put("Answered", query -> query.answered(true));
+        filters.put("Unanswered", query -> query.answered(false));
+        filters.put("My Questions", query -> query.author(currentUserName));
+        filterComboBox.setItems(FXCollections.observableArrayList(filters.keySet()));
         filterComboBox.setValue("All");
-        filterComboBox.setOnAction(e -> applyFilter());
+        filterComboBox.setOnAction(e -> diagnostics.time("applyFilter", this::applyFilter));
 
         filterBox.getChildren().addAll(new Label("Filter by:"), filterComboBox);
         topBox.getChildren().addAll(titleLabel, searchBox, filterBox);
@@ -110,21 +223,12 @@ public class DiscussionBoardPage {
         questionListView = new ListView<>();
         questionListView.setPrefHeight(600);
 
-        //cell factory for question list
-        questionListView.setCellFactory(lv -> new ListCell<Question>() {
-            @Override
-            protected void updateItem(Question question, boolean empty) {
-                super.updateItem(question, empty);
-                if (empty || question == null) {
-                    setText(null);
-                } else{
-                	String status = question.getIsAnswered() ? "[✓]" : "[?]";
-                	setText(status + " " + question.getTitle()+ " (" + question.getAuthorUserName() + ")");
-                }
-            }
-        });
+        //recycled cells that show each question's cached display text
+        questionListView.setFixedCellSize(BoardListCells.QUESTION_CELL_HEIGHT);
+        questionListView.setCellFactory(lv -> new BoardListCells.QuestionCell(diagnostics));
 
-        questionListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> displayQuestionDetail(newVal));
+        questionListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) ->
+                diagnostics.time("displayQuestionDetail", () -> displayQuestionDetail(newVal)));
 
         loadQuestions();
         questionsBox.getChildren().addAll(questionLabel, questionListView);
@@ -152,54 +256,8 @@ public class DiscussionBoardPage {
         answerListView = new ListView<>();
         answerListView.setPrefHeight(175);
 
-        //cell factory for answer list
-        answerListView.setCellFactory(lv -> new ListCell<Answer>() {
-            @Override
-            protected void updateItem(Answer answer, boolean empty) {
-                super.updateItem(answer, empty);
-                if (empty || answer == null) {
-                    setText(null);
-                    setGraphic(null);
-                } else {
-                    java.time.format.DateTimeFormatter formatter =
-                        java.time.format.DateTimeFormatter.ofPattern("hh:mm a · MMM dd, yyyy");
-
-                    String timeInfo = (answer.getCreatedAt() != null)
-                            ? answer.getCreatedAt().format(formatter)
-                            : "unknown time";
-
-                    Label contentLabel = new Label(String.format(
-                        "%s\n(by %s at %s)",
-                        answer.getContent(),
-                        answer.getAuthorUserName(),
-                        timeInfo
-                    ));
-                    contentLabel.setWrapText(true);
-
-                    VBox statusBox = new VBox(2);
-
-                    if (answer.getIsAccepted()) {
-                        Label verifiedLabel = new Label("          [✓] Verified Answer");
-                        verifiedLabel.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
-                        statusBox.getChildren().add(verifiedLabel);
-                    }
-
-                    if (answer.isCorrect()) {
-                        Label helpfulLabel = new Label("          [✓] Student Found Helpful");
-                        helpfulLabel.setStyle("-fx-text-fill: blue; -fx-font-weight: bold;");
-                        statusBox.getChildren().add(helpfulLabel);
-                    }
-
-                    HBox hBox = new HBox(10);
-                    hBox.setAlignment(Pos.CENTER_LEFT);
-                    HBox.setHgrow(contentLabel, Priority.ALWAYS);
-                    hBox.getChildren().addAll(contentLabel, statusBox);
-
-                    setGraphic(hBox);
-                    setText(null);
-                }
-            }
-        });
+        //recycled cells for the answer list
+        answerListView.setCellFactory(lv -> new BoardListCells.AnswerCell(diagnostics));
 
         answerListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             if (markCorrectBtn != null) {
@@ -210,7 +268,8 @@ public class DiscussionBoardPage {
                 }
             }
         });
-        answerListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> displayAnswerDetail(newVal));
+        answerListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) ->
+                diagnostics.time("displayAnswerDetail", () -> displayAnswerDetail(newVal)));
         
         //reply list
         Label replyLabel = new Label("Replies");
@@ -219,18 +278,8 @@ public class DiscussionBoardPage {
         replyListView = new ListView<>();
         replyListView.setPrefHeight(175);
 
-        //cell factory for reply list
-        replyListView.setCellFactory(lv -> new ListCell<Reply>() {
-            @Override
-            protected void updateItem(Reply reply, boolean empty) {
-                super.updateItem(reply, empty);
-                if (empty || reply == null) {
-                    setText(null);
-                } else {
-                    setText(reply.getContent() + "\n - " + reply.getAuthorUserName() + " (" + reply.getCreatedAt().toLocalDate() + ")");
-                }
-            }
-        });
+        //recycled cells for the reply list
+        replyListView.setCellFactory(lv -> new BoardListCells.ReplyCell(diagnostics));
 
         detailBox.getChildren().addAll(detailLabel, questionDetailArea, answerLabel, answerListView, replyLabel, replyListView);
         return detailBox;
@@ -245,57 +294,57 @@ public class DiscussionBoardPage {
         //add question button
         Button createQuestionBtn = new Button("Create Question");
         createQuestionBtn.setPrefWidth(180);
-        createQuestionBtn.setOnAction(e -> createQuestion());
+        createQuestionBtn.setOnAction(e -> diagnostics.time("createQuestion", this::createQuestion));
         //edit question
         Button editQuestionBtn = new Button("Edit Question");
         editQuestionBtn.setPrefWidth(180);
-        editQuestionBtn.setOnAction(e -> editQuestion());
+        editQuestionBtn.setOnAction(e -> diagnostics.time("editQuestion", this::editQuestion));
         //delete question
         Button deleteQuestionBtn = new Button("Delete Question");
         deleteQuestionBtn.setPrefWidth(180);
-        deleteQuestionBtn.setOnAction(e -> deleteQuestion());
+        deleteQuestionBtn.setOnAction(e -> diagnostics.time("deleteQuestion", this::deleteQuestion));
         //add answer
         Button addAnswerBtn = new Button("Add Answer");
         addAnswerBtn.setPrefWidth(180);
-        addAnswerBtn.setOnAction(e -> addAnswer());
+        addAnswerBtn.setOnAction(e -> diagnostics.time("addAnswer", this::addAnswer));
         //edit answer
         Button editAnswerBtn = new Button("Edit Answer");
         editAnswerBtn.setPrefWidth(180);
-        editAnswerBtn.setOnAction(e -> editAnswer());
+        editAnswerBtn.setOnAction(e -> diagnostics.time("editAnswer", this::editAnswer));
         //delete answer
         Button deleteAnswerBtn = new Button("Delete Answer");
         deleteAnswerBtn.setPrefWidth(180);
-        deleteAnswerBtn.setOnAction(e -> deleteAnswer());
+        deleteAnswerBtn.setOnAction(e -> diagnostics.time("deleteAnswer", this::deleteAnswer));
         // Mark as Correct button (admin only)
         markCorrectBtn = new Button("Mark as Correct");
         markCorrectBtn.setPrefWidth(180);
-        markCorrectBtn.setOnAction(e -> markAnswerAsCorrect());
+        markCorrectBtn.setOnAction(e -> diagnostics.time("markAnswerAsCorrect", this::markAnswerAsCorrect));
         markCorrectBtn.setDisable(!"admin".equals(currentUserRole));
         // Mark as Helpful button (student only)
         markHelpfulBtn = new Button("Mark as Helpful");
         markHelpfulBtn.setPrefWidth(180);
-        markHelpfulBtn.setOnAction(e -> markAnswerAsHelpful());
+        markHelpfulBtn.setOnAction(e -> diagnostics.time("markAnswerAsHelpful", this::markAnswerAsHelpful));
         markHelpfulBtn.setDisable("admin".equals(currentUserRole));
         //add reply
         Button addReplyBtn = new Button("Add Reply");
         addReplyBtn.setPrefWidth(180);
-        addReplyBtn.setOnAction(e -> addReply());
+        addReplyBtn.setOnAction(e -> diagnostics.time("addReply", this::addReply));
         //edit reply
         Button editReplyBtn = new Button("Edit Reply");
         editReplyBtn.setPrefWidth(180);
-        editReplyBtn.setOnAction(e -> editReply());
+        editReplyBtn.setOnAction(e -> diagnostics.time("editReply", this::editReply));
         //delete reply
         Button deleteReplyBtn = new Button("Delete Reply");
         deleteReplyBtn.setPrefWidth(180);
-        deleteReplyBtn.setOnAction(e -> deleteReply());
+        deleteReplyBtn.setOnAction(e -> diagnostics.time("deleteReply", this::deleteReply));
         //refresh button
         Button refreshBtn = new Button("Refresh");
         refreshBtn.setPrefWidth(180);
-        refreshBtn.setOnAction(e -> refreshData());
+        refreshBtn.setOnAction(e -> diagnostics.time("refreshData", this::refreshData));
         //back button
         Button backBtn = new Button("Back");
         backBtn.setPrefWidth(180);
-        backBtn.setOnAction(e -> goBack());
+        backBtn.setOnAction(e -> diagnostics.time("goBack", this::goBack));
         if ("admin".equals(currentUserRole)) {
             actionBox.getChildren().addAll(
                 createQuestionBtn, editQuestionBtn, deleteQuestionBtn,
@@ -350,11 +399,13 @@ public class DiscussionBoardPage {
         grid.add(contentField, 1, 1);
         grid.add(new Label("Category:"), 0, 2);
         grid.add(categoryField, 1, 2);
+        grid.add(new Label("Related:"), 0, 3);
+        grid.add(relatedQuestionsList(titleField, contentField), 1, 3);
 
         dialog.getDialogPane().setContent(grid);
         dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
 
-        dialog.showAndWait().ifPresent(response -> {
+        diagnostics.excluding(dialog::showAndWait).ifPresent(response -> {
             if (response == ButtonType.OK) {
                 String title = titleField.getText();
                 String content = contentField.getText();
@@ -372,6 +423,11 @@ public class DiscussionBoardPage {
                 }
 
                 try {
+                    //offer the near-duplicates already on the board before adding another
+                    Questions duplicates = dao.findNearDuplicates(newQuestion.getTitle(), newQuestion.getContent());
+                    if (!duplicates.isEmpty() && !confirmDespiteDuplicates(duplicates)) {
+                        return;
+                    }
                     dao.createQuestion(newQuestion);
                     showInfo("Question created successfully!");
                     refreshData();
@@ -382,6 +438,53 @@ public class DiscussionBoardPage {
         });
     }
 
+    //ask whether to post a question that looks like ones already on the board
+    private boolean confirmDespiteDuplicates(Questions duplicates) {
+        StringBuilder list = new StringBuilder();
+        for (Question q : duplicates.getAllQuestions()) {
+            list.append("\n - ").append(q.getTitle()).append(" (by ").append(q.getAuthorUserName())
+                .append(q.getIsAnswered() ? ", answered)" : ")");
+        }
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Possible Duplicate");
+        confirm.setHeaderText("This question looks like one already on the board");
+        confirm.setContentText("Similar questions:" + list + "\n\nPost it anyway?");
+        return diagnostics.excluding(confirm::showAndWait).orElse(ButtonType.CANCEL) == ButtonType.OK;
+    }
+
+    //the questions most like the draft, updated once typing pauses; the lookup runs on a
+    //background thread and only the newest one is shown
+    private ListView<SearchHit> relatedQuestionsList(TextField titleField, TextArea contentField) {
+        ListView<SearchHit> relatedListView = new ListView<>();
+        relatedListView.setPrefHeight(120);
+        relatedListView.setPlaceholder(new Label("Related questions appear here as you type"));
+        AtomicLong generation = new AtomicLong();
+        PauseTransition debounce = new PauseTransition(IncrementalSearch.DEBOUNCE);
+        debounce.setOnFinished(e -> {
+            SearchIndex index = searchIndex;
+            if (index == null) return;
+            long gen = generation.get();
+            String title = titleField.getText();
+            String content = contentField.getText();
+            relatedExecutor.execute(() -> {
+                if (gen != generation.get()) return;
+                List<SearchHit> hits = index.similarQuestions(title, content, 0, RELATED_RESULTS);
+                Platform.runLater(() -> {
+                    if (gen == generation.get()) {
+                        diagnostics.time("relatedQuestions", () -> relatedListView.setItems(FXCollections.observableArrayList(hits)));
+                    }
+                });
+            });
+        });
+        ChangeListener<String> edited = (obs, oldVal, newVal) -> {
+            generation.incrementAndGet();
+            debounce.playFromStart();
+        };
+        titleField.textProperty().addListener(edited);
+        contentField.textProperty().addListener(edited);
+        return relatedListView;
+    }
+
     //update a question
     private void editQuestion() {
         //for selecting and validating
@@ -419,7 +522,7 @@ public class DiscussionBoardPage {
         dialog.getDialogPane().setContent(grid);
         dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
 
-        dialog.showAndWait().ifPresent(response -> {
+        diagnostics.excluding(dialog::showAndWait).ifPresent(response -> {
             if (response == ButtonType.OK) {
                 String title = titleField.getText();
                 String content = contentField.getText();
@@ -464,7 +567,7 @@ public class DiscussionBoardPage {
         confirm.setHeaderText("Are you sure you want to delete this question?");
         confirm.setContentText("This action cannot be undone, this will delete all answers associated with this question.");
 
-        confirm.showAndWait().ifPresent(response -> {
+        diagnostics.excluding(confirm::showAndWait).ifPresent(response -> {
             if (response == ButtonType.OK) {
                 try {
                     dao.deleteQuestion(selectedQuestion.getQuestionId());
@@ -490,7 +593,7 @@ public class DiscussionBoardPage {
         dialog.setHeaderText("Add answer to: " + selectedQuestion.getTitle());
         dialog.setContentText("Enter the content of the answer");
 
-        dialog.showAndWait().ifPresent(response -> {
+        diagnostics.excluding(dialog::showAndWait).ifPresent(response -> {
             String error = DiscussionBoardValidator.validateAnswer(response);
             if (error != null) {
                 showError(error);
@@ -531,7 +634,7 @@ public class DiscussionBoardPage {
         dialog.setTitle("Edit Answer");
         dialog.setContentText("Answer:");
 
-        dialog.showAndWait().ifPresent(content -> {
+        diagnostics.excluding(dialog::showAndWait).ifPresent(content -> {
             String error = DiscussionBoardValidator.validateAnswer(content);
             if (error != null) {
                 showError(error);
@@ -563,7 +666,7 @@ public class DiscussionBoardPage {
         confirm.setTitle("Delete Answer");
         confirm.setHeaderText("Are you sure you want to delete this answer?");
 
-        confirm.showAndWait().ifPresent(response -> {
+        diagnostics.excluding(confirm::showAndWait).ifPresent(response -> {
             if (response == ButtonType.OK) {
                 try {
                     dao.deleteAnswer(selectedAnswer.getAnswerId());
@@ -587,7 +690,7 @@ public class DiscussionBoardPage {
         dialog.setHeaderText("Add reply to: " + selectedAnswer.getContent());
         dialog.setContentText("Enter the content of the reply");
 
-        dialog.showAndWait().ifPresent(response -> {
+        diagnostics.excluding(dialog::showAndWait).ifPresent(response -> {
             String error = DiscussionBoardValidator.validateReply(response);
             if (error != null) {
                 showError(error);
@@ -619,7 +722,7 @@ public class DiscussionBoardPage {
         dialog.setTitle("Edit Reply");
         dialog.setContentText("Reply:");
 
-        dialog.showAndWait().ifPresent(content -> {
+        diagnostics.excluding(dialog::showAndWait).ifPresent(content -> {
             String error = DiscussionBoardValidator.validateReply(content);
             if (error != null) {
                 showError(error);
@@ -652,7 +755,7 @@ public class DiscussionBoardPage {
         confirm.setTitle("Delete Reply");
         confirm.setHeaderText("Are you sure you want to delete this reply?");
 
-        confirm.showAndWait().ifPresent(response -> {
+        diagnostics.excluding(confirm::showAndWait).ifPresent(response -> {
             if (response == ButtonType.OK) {
                 try {
                     dao.deleteReply(selectedReply.getReplyId());
@@ -669,11 +772,34 @@ public class DiscussionBoardPage {
 
     //load questions
     private void loadQuestions() {
+        showQuestions("Failed to load questions: ");
+    }
+    //the query for the selected filter, plus the search keyword when it is valid
+    private QuestionQuery currentQuery(boolean withKeyword) {
+        QuestionQuery.Builder query = filters.getOrDefault(filterComboBox.getValue(), q -> q).apply(QuestionQuery.builder());
+        String keyword = searchField.getText();
+        if (withKeyword && DiscussionBoardValidator.validateSearchQuery(keyword) == null) {
+            query.keyword(keyword);
+        }
+        return query.build();
+    }
+    //show the questions of the current query, which runs as one statement
+    private void showQuestions(String errorPrefix) {
+        filterQuery = currentQuery(false);
+        incrementalSearch.invalidate();
+        if (dao == null) {
+            //still opening: show the list the last run saved, if there is one
+            QuestionSnapshot snapshot = QuestionSnapshot.shared();
+            questionListView.setItems(snapshot == null ? FXCollections.observableArrayList()
+                    : FXCollections.observableList(snapshot.questions()));
+            return;
+        }
         try {
-            Questions questions = dao.getAllQuestions();
+            loadedVersion = dao.getWriteVersion();
+            Questions questions = dao.queryQuestions(currentQuery(true));
             ObservableList<Question> questionList = FXCollections.observableArrayList(questions.getAllQuestions());
             questionListView.setItems(questionList);
-        } catch (SQLException e) { showError("Failed to load questions: " + e.getMessage());}
+        } catch (SQLException e) { showError(errorPrefix + e.getMessage());}
     }
         //display question detail
         private void displayQuestionDetail(Question question) {
@@ -691,7 +817,11 @@ public class DiscussionBoardPage {
             "Content:\n" + question.getContent();
             questionDetailArea.setText(details);
 
-            //load answers
+            //load answers, once the board is open
+            if (dao == null) {
+                answerListView.setItems(FXCollections.observableArrayList());
+                return;
+            }
             try {
                 Answers answers = dao.getAnswersForQuestion(question.getQuestionId());
                 ObservableList<Answer> answerList = FXCollections.observableArrayList(answers.getAllAnswers());
@@ -719,12 +849,78 @@ public class DiscussionBoardPage {
                 showError(error);
                 return;
             }
-            try {
-                Questions allQuestions = dao.getAllQuestions();
-                Questions searchResults = allQuestions.search(keyword);
-                ObservableList<Question> resultList = FXCollections.observableArrayList(searchResults.getAllQuestions());
-                questionListView.setItems(resultList);
-            } catch (SQLException e) { showError("Failed to search questions: " + e.getMessage());}
+            //same matching as Questions.search, on the cached questions
+            incrementalSearch.searchNow(keyword);
+        }
+        //rank questions, answers and replies by relevance and open the chosen one
+        private void rankedSearch() {
+            String keyword = searchField.getText();
+            String error = DiscussionBoardValidator.validateSearchQuery(keyword);
+            if (error != null) {
+                showError(error);
+                return;
+            }
+            if (searchIndex == null) {
+                showInfo("The search index is still being built. Please try again in a moment.");
+                return;
+            }
+            List<SearchHit> hits = searchIndex.search(keyword, RANKED_RESULTS);
+            if (hits.isEmpty()) {
+                showInfo("No questions, answers or replies match \"" + keyword.trim() + "\".");
+                return;
+            }
+            Dialog<SearchHit> dialog = new Dialog<>();
+            dialog.setTitle("Ranked Search");
+            dialog.setHeaderText("Best matches for \"" + keyword.trim() + "\"");
+            ListView<SearchHit> hitListView = new ListView<>(FXCollections.observableArrayList(hits));
+            hitListView.setPrefSize(600, 400);
+            hitListView.getSelectionModel().selectFirst();
+            dialog.getDialogPane().setContent(hitListView);
+            dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+            dialog.setResultConverter(button -> button == ButtonType.OK ? hitListView.getSelectionModel().getSelectedItem() : null);
+            diagnostics.excluding(dialog::showAndWait).ifPresent(this::openHit);
+        }
+        //select the question of a hit, and the answer for an answer or a reply
+        private void openHit(SearchHit hit) {
+            int answerId = hit.getType() == SearchDocument.Type.ANSWER ? hit.getId() : hit.getAnswerId();
+            if (!select(hit.getQuestionId(), answerId)) {
+                //filtered out of the list: list every question so it can be selected
+                clearSearch();
+                if (!select(hit.getQuestionId(), answerId)) {
+                    showInfo("That question is no longer on the board.");
+                }
+            }
+        }
+        //select the question and answer with these ids if they are listed; false if the question is not
+        private boolean select(int questionId, int answerId) {
+            boolean listed = false;
+            for (Question q : questionListView.getItems()) {
+                if (q.getQuestionId() == questionId) {
+                    questionListView.getSelectionModel().select(q);
+                    questionListView.scrollTo(q);
+                    listed = true;
+                    break;
+                }
+            }
+            for (Answer a : answerListView.getItems()) {
+                if (a.getAnswerId() == answerId) {
+                    answerListView.getSelectionModel().select(a);
+                    answerListView.scrollTo(a);
+                    break;
+                }
+            }
+            return listed;
+        }
+        //called when the kept board is shown again: nothing is read unless the board has
+        //been written since the list was loaded, and then the selection is kept
+        void revalidate() {
+            if (dao == null || dao.getWriteVersion() == loadedVersion) {
+                return;
+            }
+            int questionId = selectedQuestion == null ? 0 : selectedQuestion.getQuestionId();
+            int answerId = selectedAnswer == null ? 0 : selectedAnswer.getAnswerId();
+            loadQuestions();
+            select(questionId, answerId);
         }
         //clear search
         private void clearSearch() {
@@ -733,30 +929,9 @@ public class DiscussionBoardPage {
             loadQuestions();
         }
 
-        //filter questions
+        //filter questions, keeping the search keyword
         private void applyFilter() {
-            try {
-                Questions allQuestions = dao.getAllQuestions();
-                Questions filtered;
-                String filter = filterComboBox.getValue();
-
-                switch (filter) {
-                    case "Answered":
-                        filtered = allQuestions.filterByAnsweredStatus(true);
-                        break;
-                    case "Unanswered":
-                        filtered = allQuestions.filterByAnsweredStatus(false);
-                        break;
-                    case "My Questions":
-                        filtered = allQuestions.filterByAuthor(currentUserName);
-                        break;
-                    default:
-                        filtered = allQuestions;
-                        break;
-                }
-                ObservableList<Question> resultList = FXCollections.observableArrayList(filtered.getAllQuestions());
-                questionListView.setItems(resultList);
-            } catch (SQLException e) { showError("Failed to filter questions: " + e.getMessage());}
+            showQuestions("Failed to filter questions: ");
         }
         //refresh data
         private void refreshData() {
@@ -777,29 +952,29 @@ public class DiscussionBoardPage {
 
     //navigate to home page for role
     private void goBack() {
-        if(currentUserRole.equals("admin")) {
-            AdminHomePage adminHomePage = new AdminHomePage(stage,currentUserName);
-            stage.setScene(adminHomePage.createScene());
-        } else if(currentUserRole.equals("Student")) {
-            StudentHomePage studentHomePage = new StudentHomePage(stage,currentUserName);
-            stage.setScene(studentHomePage.createScene());
-        } else {
-            UserHomePage userHomePage = new UserHomePage(stage,currentUserName);
-            stage.setScene(userHomePage.createScene());
-        }
+        incrementalSearch.cancel();
+        navigator.showHome();
+    }
+
+    //the session is over: stop the page's search and related-questions threads and its timers
+    public void dispose() {
+        disposed = true;
+        incrementalSearch.dispose();
+        relatedExecutor.shutdown();
+        diagnostics.stop();
     }
     //Show error and info messages
     private void showError(String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
         alert.setTitle("Error");
         alert.setContentText(message);
-        alert.showAndWait();
+        diagnostics.excluding(alert::showAndWait);
     }
     private void showInfo(String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Information");
         alert.setContentText(message);
-        alert.showAndWait();
+        diagnostics.excluding(alert::showAndWait);
     }
 
     // Mark selected answer as correct (admin only)
@@ -845,7 +1020,8 @@ public class DiscussionBoardPage {
             }
 
             answerListView.refresh();
-            questionListView.getItems().set(questionListView.getSelectionModel().getSelectedIndex(), selectedQuestion);
+            int selectedIndex = questionListView.getSelectionModel().getSelectedIndex();
+            if (selectedIndex >= 0) questionListView.getItems().set(selectedIndex, selectedQuestion);
             questionListView.refresh();
             displayQuestionDetail(selectedQuestion);
 
@@ -1,5 +1,10 @@
 package application;
 
+import inputValidation.CharClass;
+import inputValidation.CompiledValidator;
+import inputValidation.ValidationResult;
+import inputValidation.ValidationRules;
+
 //validate the discussion board
 public class DiscussionBoardValidator {
     //validation constants
@@ -7,44 +12,53 @@ public class DiscussionBoardValidator {
     private static final int MAX_TITLE_LENGTH = 200;
     private static final int MIN_CONTENT_LENGTH = 10;
     private static final int MAX_CONTENT_LENGTH = 5000;
+    private static final int MAX_CATEGORY_LENGTH = 50;
+    private static final int MIN_KEYWORD_LENGTH = 2;
+
+    //rule sets for the fields, every character is allowed and the input is trimmed first
+    private static final CompiledValidator TITLE = trimmedText("Title")
+            .emptyMessage("Title cannot be empty")
+            .minLength(MIN_TITLE_LENGTH, "Title must be at least " + MIN_TITLE_LENGTH + " characters long")
+            .maxLength(MAX_TITLE_LENGTH, "Title must be less than " + MAX_TITLE_LENGTH + " characters long")
+            .compile();
+    private static final CompiledValidator CONTENT = trimmedText("Content")
+            .emptyMessage("Content cannot be empty")
+            .minLength(MIN_CONTENT_LENGTH, "Content must be at least " + MIN_CONTENT_LENGTH + " characters long")
+            .maxLength(MAX_CONTENT_LENGTH, "Content must be less than " + MAX_CONTENT_LENGTH + " characters long")
+            .compile();
+    private static final CompiledValidator CATEGORY = trimmedText("Category")
+            .optional()
+            .maxLength(MAX_CATEGORY_LENGTH, "Category must be less than " + MAX_CATEGORY_LENGTH + " characters long")
+            .compile();
+    private static final CompiledValidator SEARCH_QUERY = trimmedText("Keyword")
+            .emptyMessage("Keyword cannot be empty")
+            .minLength(MIN_KEYWORD_LENGTH, "Keyword must be at least " + MIN_KEYWORD_LENGTH + " characters long")
+            .compile();
+
+    private static ValidationRules trimmedText(String name) {
+        return new ValidationRules(name)
+                .charClass("any", CharClass.any())
+                .transition(0, "any", 0)
+                .finalState(0)
+                .trimWhitespace();
+    }
+
+    //the error message of a result, or null if the input is valid
+    private static String errorOf(ValidationResult result) {
+        return result.isValid() ? null : result.getErrorMessage();
+    }
 
     //validate the title
     public static String validateTitle(String title) {
-        if (title == null || title.trim().isEmpty()) {
-            return "Title cannot be empty";
-        }
-        String trimmedTitle = title.trim();
-        if (trimmedTitle.length() < MIN_TITLE_LENGTH) {
-            return "Title must be at least " + MIN_TITLE_LENGTH + " characters long";
-        }
-        if (trimmedTitle.length() > MAX_TITLE_LENGTH) {
-            return "Title must be less than " + MAX_TITLE_LENGTH + " characters long";
-        }
-        return null; //if the title is valid, do not return anything
+        return errorOf(TITLE.validate(title)); //if the title is valid, do not return anything
     }
     //validate the content of the question/answer/reply
     public static String validateContent(String content) {
-        if (content == null || content.trim().isEmpty()) {
-            return "Content cannot be empty";
-        }
-        String trimmedContent = content.trim();
-        if (trimmedContent.length() < MIN_CONTENT_LENGTH) {
-            return "Content must be at least " + MIN_CONTENT_LENGTH + " characters long";
-        }
-        if (trimmedContent.length() > MAX_CONTENT_LENGTH) {
-            return "Content must be less than " + MAX_CONTENT_LENGTH + " characters long";
-        }
-        return null; //if the content is valid, do not return anything
+        return errorOf(CONTENT.validate(content)); //if the content is valid, do not return anything
     }
     //validate the category (optional field)
     public static String validateCategory(String category) {
-        if (category != null && !category.trim().isEmpty()) {
-            String trimmedCategory = category.trim();
-            if(trimmedCategory.length() > 50) {
-                return "Category must be less than 50 characters long";
-            }
-        }
-        return null; //if the category is valid, do not return anything
+        return errorOf(CATEGORY.validate(category)); //if the category is valid, do not return anything
     }
     //validate the complete question
     public static String validateQuestion(String title, String content, String category) {
@@ -55,7 +69,7 @@ public class DiscussionBoardValidator {
         String categoryError = validateCategory(category);
         if(categoryError != null) return categoryError;
         return null; //if the question is valid, do not return anything
-        
+
     }
     //validate the complete answer
     public static String validateAnswer(String content) {
@@ -68,14 +82,6 @@ public class DiscussionBoardValidator {
 
     //validate search query
     public static String validateSearchQuery(String keyword) {
-        if(keyword == null || keyword.trim().isEmpty()) {
-            return "Keyword cannot be empty";
-        }
-        if (keyword.trim().length() < 2) {
-            return "Keyword must be at least 2 characters long";
-        }
-        return null; //if the keyword is valid, do not return anything
+        return errorOf(SEARCH_QUERY.validate(keyword)); //if the keyword is valid, do not return anything
     }
 }
-
-
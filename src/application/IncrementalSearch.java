@@ -0,0 +1,189 @@
+package application;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+//search-as-you-type for the question list, with the same matching as Questions.search (the
+//title or content contains the keyword, ignoring case) and the same order.
+//
+//keystrokes are debounced, and each search runs on a background thread; a newer keystroke
+//cancels the search in flight. the first TOP_K matches are posted to the page as soon as they
+//are found and the rest follow in chunks. when the new keyword contains the previous one, only
+//the previous matches are scanned again. the questions and their lower-case titles are loaded
+//once and kept until invalidate() is called after a write; the bodies are read from the rows as
+//they are scanned, so the search does not keep a second copy of every body.
+public class IncrementalSearch {
+    static final int TOP_K = 50;
+    static final int CHUNK = 1000;
+    static final Duration DEBOUNCE = Duration.millis(200);
+
+    //loads the questions to search, in display order
+    public interface Source {
+        List<Question> load() throws SQLException;
+    }
+
+    //the questions being searched, with the lower-case title of each
+    private static class Snapshot {
+        final List<Question> questions;
+        final String[] titles;
+
+        Snapshot(List<Question> questions) {
+            this.questions = questions;
+            this.titles = new String[questions.size()];
+            for (int i = 0; i < titles.length; i++) titles[i] = questions.get(i).getTitle().toLowerCase();
+        }
+
+        boolean matches(int i, String lower) {
+            return titles[i].contains(lower) || questions.get(i).getContent().toLowerCase().contains(lower);
+        }
+    }
+
+    //a completed search, kept so that a longer keyword can refine it
+    private static class Result {
+        final Snapshot snapshot;
+        final String keyword;
+        final int[] matches;
+
+        Result(Snapshot snapshot, String keyword, int[] matches) {
+            this.snapshot = snapshot;
+            this.keyword = keyword;
+            this.matches = matches;
+        }
+    }
+
+    private final Source source;
+    private final Consumer<List<Question>> onReset;
+    private final Consumer<List<Question>> onAppend;
+    private final Consumer<String> onError;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "incremental-search");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicLong generation = new AtomicLong();
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+    private String pendingKeyword;
+    private Future<?> running;
+
+    //the loaded questions, cleared by invalidate(), and the last search (search thread only)
+    private volatile Snapshot snapshot;
+    private Result last;
+    //counts the invalidate() calls, so a load that one overlapped is not kept
+    private final AtomicLong invalidations = new AtomicLong();
+
+    //onReset replaces the list with the first matches, onAppend adds the next chunk; both are
+    //called on the FX thread, and only for the newest search
+    public IncrementalSearch(Source source, Consumer<List<Question>> onReset, Consumer<List<Question>> onAppend,
+            Consumer<String> onError) {
+        this.source = source;
+        this.onReset = onReset;
+        this.onAppend = onAppend;
+        this.onError = onError;
+        debounce.setOnFinished(e -> searchNow(pendingKeyword));
+    }
+
+    //the keyword was edited; search once typing pauses
+    public void keywordChanged(String keyword) {
+        pendingKeyword = keyword;
+        generation.incrementAndGet();
+        debounce.playFromStart();
+    }
+
+    //search right away, cancelling any pending or running search
+    public void searchNow(String keyword) {
+        debounce.stop();
+        long gen = generation.incrementAndGet();
+        if (running != null) running.cancel(false);
+        running = executor.submit(() -> search(gen, keyword));
+    }
+
+    //stop any pending or running search
+    public void cancel() {
+        debounce.stop();
+        generation.incrementAndGet();
+        if (running != null) running.cancel(false);
+    }
+
+    //stop searching for good and let the search thread end, once the page is gone
+    public void dispose() {
+        cancel();
+        executor.shutdown();
+    }
+
+    //the questions changed; the next search loads them again
+    public void invalidate() {
+        invalidations.incrementAndGet();
+        snapshot = null;
+    }
+
+    //searches are not interrupted, since an interrupt can close H2's file channel; a newer
+    //generation tells them to stop
+    private boolean stale(long gen) {
+        return gen != generation.get();
+    }
+
+    private void search(long gen, String keyword) {
+        try {
+            Snapshot snap = snapshot;
+            if (snap == null) {
+                long loadedAt = invalidations.get();
+                snap = new Snapshot(source.load());
+                //a write during the load may be missing from it; search it, but load again next time
+                if (invalidations.get() == loadedAt) snapshot = snap;
+            }
+            if (stale(gen)) return;
+            String lower = keyword.toLowerCase();
+
+            int[] candidates = null;
+            Result previous = last;
+            if (previous != null && previous.snapshot == snap && lower.contains(previous.keyword)) {
+                candidates = previous.matches;
+            }
+            int count = candidates != null ? candidates.length : snap.titles.length;
+
+            int[] matches = new int[16];
+            int found = 0;
+            int posted = 0;
+            for (int c = 0; c < count; c++) {
+                if ((c & 255) == 0 && stale(gen)) return;
+                int i = candidates != null ? candidates[c] : c;
+                if (!snap.matches(i, lower)) continue;
+                if (found == matches.length) matches = Arrays.copyOf(matches, found * 2);
+                matches[found++] = i;
+                //the top k first, then the rest in chunks
+                if (posted == 0 ? found == TOP_K : found - posted == CHUNK) {
+                    post(gen, snap, matches, posted, found);
+                    posted = found;
+                }
+            }
+            if (posted == 0 || found > posted) post(gen, snap, matches, posted, found);
+            last = new Result(snap, lower, Arrays.copyOf(matches, found));
+        } catch (SQLException e) {
+            Platform.runLater(() -> {
+                if (gen == generation.get()) onError.accept(e.getMessage());
+            });
+        }
+    }
+
+    private void post(long gen, Snapshot snap, int[] matches, int from, int to) {
+        List<Question> batch = new ArrayList<>(to - from);
+        for (int m = from; m < to; m++) batch.add(snap.questions.get(matches[m]));
+        Platform.runLater(() -> {
+            if (gen != generation.get()) return;
+            if (from == 0) onReset.accept(batch);
+            else onAppend.accept(batch);
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package application;
+
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import databasePart1.DatabaseHelper;
+
+//navigation for one signed-in user: the home page and the discussion board are built once
+//and their scenes kept, so going back and forth keeps the lists, selections and scroll
+//positions and reads nothing from the database unless the board changed in the meantime
+public class Navigator {
+    private final Stage stage;
+    private final String userName;
+    private final String role;
+    private final DatabaseHelper databaseHelper;
+
+    //built on first visit
+    private Scene homeScene;
+    private DiscussionBoardPage boardPage;
+    private Scene boardScene;
+
+    //the signed-in session, ended when the next sign-in starts another
+    private static Navigator session;
+
+    //start a user's session, ending the one before it so its pages stop their threads
+    public static Navigator startSession(Stage stage, String userName, String role, DatabaseHelper databaseHelper) {
+        if (session != null) session.endSession();
+        session = new Navigator(stage, userName, role, databaseHelper);
+        return session;
+    }
+
+    public Navigator(Stage stage, String userName, String role, DatabaseHelper databaseHelper) {
+        this.stage = stage;
+        this.userName = userName;
+        this.role = role;
+        this.databaseHelper = databaseHelper;
+    }
+
+    public DatabaseHelper getDatabaseHelper() {
+        return databaseHelper;
+    }
+
+    //show the home page for the user's role
+    public void showHome() {
+        if (homeScene == null) {
+            if (role.equals("admin")) {
+                homeScene = new AdminHomePage(stage, userName, this).createScene();
+            } else if (role.equals("student")) {
+                homeScene = new StudentHomePage(stage, userName, this).createScene();
+            } else {
+                homeScene = new UserHomePage(stage, userName, this).createScene();
+            }
+        }
+        stage.setScene(homeScene);
+    }
+
+    //show the discussion board as it was left, reloading it only if it has changed
+    public void showDiscussionBoard() {
+        if (boardPage == null) {
+            boardPage = new DiscussionBoardPage(stage, userName, boardRole(), this);
+            boardScene = boardPage.createScene();
+        } else {
+            boardPage.revalidate();
+        }
+        stage.setScene(boardScene);
+    }
+
+    //end the session: the board page stops its background threads and the pages are dropped
+    public void endSession() {
+        if (boardPage != null) boardPage.dispose();
+        boardPage = null;
+        boardScene = null;
+        homeScene = null;
+        if (session == this) session = null;
+    }
+
+    //the role name the discussion board checks permissions with
+    private String boardRole() {
+        if (role.equals("admin")) return "admin";
+        if (role.equals("student")) return "Student";
+        return "User";
+    }
+}
@@ -1,154 +0,0 @@
-package application;
-
-
-public class PasswordEvaluator {
-	/**
-	 * <p> Title: Directed Graph-translated Password Assessor. </p>
-	 * 
-	 * <p> Description: A demonstration of the mechanical translation of Directed Graph 
-	 * diagram into an executable Java program using the Password Evaluator Directed Graph. 
-	 * The code detailed design is based on a while loop with a cascade of if statements</p>
-	 * 
-	 * <p> Copyright: Lynn Robert Carter © 2022 </p>
-	 * 
-	 * @author Lynn Robert Carter
-	 * 
-	 * @version 0.00		2018-02-22	Initial baseline 
-	 * 
-	 */
-
-	/**********************************************************************************************
-	 * 
-	 * Result attributes to be used for GUI applications where a detailed error message and a 
-	 * pointer to the character of the error will enhance the user experience.
-	 * 
-	 */
-
-	public static String passwordErrorMessage = "";		// The error message text
-	public static String passwordInput = "";			// The input being processed
-	public static int passwordIndexofError = -1;		// The index where the error was located
-	public static boolean upperCase = false;
-	public static boolean lowerCase = false;
-	public static boolean numericChar = false;
-	public static boolean specialChar = false;
-	public static boolean longEnough = false;
-	public static boolean otherChar = false;
-	private static String inputLine = "";				// The input line
-	private static char currentChar;					// The current character in the line
-	private static int charCounter;					// The index of the current character
-	private static boolean running;						// The flag that specifies if the FSM is 
-														// running
-
-	/**********
-	 * This private method display the input line and then on a line under it displays an up arrow
-	 * at the point where an error should one be detected.  This method is designed to be used to 
-	 * display the error message on the console terminal.
-	 * 
-	 * @param input				The input string
-	 * @param currentCharNdx	The location where an error was found
-	 * @return					Two lines, the entire input line followed by a line with an up arrow
-	 */
-	private static void displayInputState() {
-		// Display the entire input line
-		System.out.println(inputLine);
-		System.out.println(inputLine.substring(0,charCounter) + "?");
-		System.out.println("The password size: " + inputLine.length() + "  |  The currentCharNdx: " + 
-				charCounter + "  |  The currentChar: \"" + currentChar + "\"");
-	}
-
-	/**********
-	 * This method is a mechanical transformation of a Directed Graph diagram into a Java
-	 * method.
-	 * 
-	 * @param input		The input string for directed graph processing
-	 * @return			An output string that is empty if every things is okay or it will be
-	 * 						a string with a help description of the error follow by two lines
-	 * 						that shows the input line follow by a line with an up arrow at the
-	 *						point where the error was found.
-	 */
-	public static String evaluatePassword(String input) {
-		// The following are the local variable used to perform the Directed Graph simulation
-		passwordErrorMessage = "";
-		passwordIndexofError = 0;			// Initialize the IndexofError
-		inputLine = input;					// Save the reference to the input line as a global
-		charCounter = 0;					// The index of the current character
-		
-		if(input.length() <= 0) return "*** Error *** The password is empty!";
-		
-		// The input is not empty, so we can access the first character
-		currentChar = input.charAt(0);		// The current character from the above indexed position
-
-		// The Directed Graph simulation continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition to a next state
-
-		passwordInput = input;				// Save a copy of the input
-		upperCase = false;				// Reset the Boolean flag
-		lowerCase = false;				// Reset the Boolean flag
-		numericChar = false;			// Reset the Boolean flag
-		specialChar = false;			// Reset the Boolean flag
-		longEnough = false;			// Reset the Boolean flag
-		otherChar = false;			// Reset the Boolean flag
-		running = true;						// Start the loop
-
-		// The Directed Graph simulation continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition
-		while (running) {
-			displayInputState();
-			// The cascading if statement sequentially tries the current character against all of the
-			// valid transitions
-			if (currentChar >= 'A' && currentChar <= 'Z') {
-				System.out.println("Upper case letter found");
-				upperCase = true;
-			} else if (currentChar >= 'a' && currentChar <= 'z') {
-				System.out.println("Lower case letter found");
-				lowerCase = true;
-			} else if (currentChar >= '0' && currentChar <= '9') {
-				System.out.println("Digit found");
-				numericChar = true;
-			} else if ("~`!@#$%^&*()_-+{}[]|:,.?/".indexOf(currentChar) >= 0) {
-				System.out.println("Special character found");
-				specialChar = true;
-			} else {
-				otherChar = true;
-				passwordIndexofError = charCounter;
-				return "*** Error *** An invalid character has been found!";
-			}
-			if (charCounter >= 7) {
-				System.out.println("At least 8 characters found");
-				longEnough = true;
-			}
-			
-			// Go to the next character if there is one
-			charCounter++;
-			if (charCounter >= inputLine.length())
-				running = false;
-			else
-				currentChar = input.charAt(charCounter);
-			
-			System.out.println();
-		}
-		
-		String errMessage = "";
-		if (!upperCase)
-			errMessage += "Upper case; ";
-		
-		if (!lowerCase)
-			errMessage += "Lower case; ";
-		
-		if (!numericChar)
-			errMessage += "Numeric digits; ";
-			
-		if (!specialChar)
-			errMessage += "Special character; ";
-			
-		if (!longEnough)
-			errMessage += "Long Enough; ";
-		
-		if (errMessage == "")
-			return "";
-		
-		passwordIndexofError = charCounter;
-		return errMessage + "conditions were not satisfied";
-
-	}
-}
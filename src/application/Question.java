@@ -8,21 +8,37 @@ public class Question {
     private int questionId;
     private String title;
     private String content;
-    private String authorUserName;
+    //numbers in Symbols, so rows share one copy of each name; 0 for null
+    private int author;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private boolean isAnswered;
-    private String category;
+    private int category;
+    //list text for the board, built on first use and cleared by the setters that change it
+    private String displayText;
 
     //constructor getter and setter
     public Question(String title, String content, String authorUserName) {
         this.title = title;
         this.content = content;
-        this.authorUserName = authorUserName;
+        this.author = Symbols.id(authorUserName);
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
         this.isAnswered = false;
     }
+
+    //constructor with all fields for db retrieval
+    public Question(int questionId, String title, String content, String authorUserName, String category,
+            LocalDateTime createdAt, LocalDateTime updatedAt, boolean isAnswered) {
+        this.questionId = questionId;
+        this.title = title;
+        this.content = content;
+        this.author = Symbols.id(authorUserName);
+        this.category = Symbols.id(category);
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.isAnswered = isAnswered;
+    }
     //getters and setters
     public String getTitle() {
         return title;
@@ -31,7 +47,11 @@ public class Question {
         return content;
     }
     public String getAuthorUserName() {
-        return authorUserName;
+        return Symbols.name(author);
+    }
+    //the author's number in Symbols
+    public int getAuthorId() {
+        return author;
     }
     public int getQuestionId() {
         return questionId;
@@ -46,17 +66,23 @@ public class Question {
         return isAnswered;
     }
     public String getCategory() {
+        return Symbols.name(category);
+    }
+    //the category's number in Symbols, 0 for none
+    public int getCategoryId() {
         return category;
     }
     public void setCategory(String category) {
-        this.category = category;
+        this.category = Symbols.id(category);
     }
     public void setIsAnswered(boolean isAnswered) {
         this.isAnswered = isAnswered;
+        this.displayText = null;
         this.updatedAt = LocalDateTime.now(); //update the updatedAt time
     }   
     public void setTitle(String title) {
         this.title = title;
+        this.displayText = null;
         this.updatedAt = LocalDateTime.now(); //update the updatedAt time
     }
     public void setContent(String content) {
@@ -64,7 +90,8 @@ public class Question {
         this.updatedAt = LocalDateTime.now(); //update the updatedAt time
     }
     public void setAuthorUserName(String authorUserName) {
-        this.authorUserName = authorUserName;
+        this.author = Symbols.id(authorUserName);
+        this.displayText = null;
     }
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
@@ -76,15 +103,23 @@ public class Question {
         this.questionId = questionId;
     }  
 
+    //the text of the question in the board's list
+    String getDisplayText() {
+        if (displayText == null) {
+            displayText = (isAnswered ? "[✓]" : "[?]") + " " + title + " (" + getAuthorUserName() + ")";
+        }
+        return displayText;
+    }
+
     //display the question
     @Override
     public String toString() {
         return "Question{" +
                 "questionId=" + questionId +
                 ", title='" + title + '\'' +
-                ", authorUserName='" + authorUserName + '\'' +
+                ", authorUserName='" + getAuthorUserName() + '\'' +
                 ", isAnswered=" + isAnswered +
-                ", category='" + category + '\'' +
+                ", category='" + getCategory() + '\'' +
                 '}';
     }
 }
\ No newline at end of file
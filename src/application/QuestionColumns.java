@@ -0,0 +1,257 @@
+package application;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+//the questions of a board laid out by column for filtering: ids, creation times, author and
+//category numbers (see Symbols) in primitive arrays, plus bitmap indexes over the positions:
+//one RoaringBitmap per author, per category and for the answered questions. the author,
+//category and answered criteria of a query are an AND (answered false an AND NOT) of those
+//bitmaps, so count is a cardinality that touches no Question, and query only visits the
+//positions left; a query without any of them is a tight loop over the arrays. only the
+//keyword needs the row's text.
+//
+//kept up to date one row at a time with add, update and remove, which is how the in-memory
+//board maintains it. a removed row's place is taken by the last one, so positions are not in
+//any order and query sorts the matches like Questions.query. not thread-safe.
+public final class QuestionColumns {
+    private int size;
+    private int[] ids = new int[16];
+    //the creation time as seconds since the epoch (UTC) and the nanosecond of that second;
+    //nanoseconds alone would overflow a long outside the years 1677 to 2262
+    private long[] createdSeconds = new long[16];
+    private int[] createdNanos = new int[16];
+    private int[] authors = new int[16];
+    private int[] categories = new int[16];
+    private Question[] rows = new Question[16];
+    //the positions of the questions by author and by category number, and of those answered
+    private final Facet byAuthor = new Facet();
+    private final Facet byCategory = new Facet();
+    private final RoaringBitmap answered = new RoaringBitmap();
+    //the position of each question id plus one, 0 for none
+    private int[] positions = new int[16];
+
+    //add a row; its id must not be in the columns yet
+    public void add(Question q) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            createdSeconds = Arrays.copyOf(createdSeconds, capacity);
+            createdNanos = Arrays.copyOf(createdNanos, capacity);
+            authors = Arrays.copyOf(authors, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+        }
+        int id = q.getQuestionId();
+        if (id >= positions.length) positions = Arrays.copyOf(positions, Math.max(positions.length * 2, id + 1));
+        positions[id] = size + 1;
+        ids[size] = id;
+        set(size, q);
+        index(size);
+        size++;
+    }
+
+    //read the columns again from the row with the question's id, after it changed
+    public void update(Question q) {
+        int position = position(q.getQuestionId());
+        if (position < 0) return;
+        unindex(position);
+        set(position, q);
+        index(position);
+    }
+
+    public boolean remove(int questionId) {
+        int position = position(questionId);
+        if (position < 0) return false;
+        positions[questionId] = 0;
+        unindex(position);
+        int last = --size;
+        if (position != last) {
+            unindex(last);
+            ids[position] = ids[last];
+            createdSeconds[position] = createdSeconds[last];
+            createdNanos[position] = createdNanos[last];
+            authors[position] = authors[last];
+            categories[position] = categories[last];
+            rows[position] = rows[last];
+            positions[ids[position]] = position + 1;
+            index(position);
+        }
+        rows[last] = null;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //the number of questions meeting every criterion of the query (sort and page aside)
+    public int count(QuestionQuery query) {
+        Criteria c = new Criteria(query);
+        if (c.none) return 0;
+        if (query.getKeyword() != null || c.timed) {
+            return scan(c, query.getKeyword(), null);
+        }
+        //only bitmap criteria: the answer is a cardinality
+        RoaringBitmap include = c.author != null ? c.author : c.category;
+        if (include == null) {
+            if (c.answeredFilter < 0) return size;
+            int answeredCount = answered.cardinality();
+            return c.answeredFilter == 1 ? answeredCount : size - answeredCount;
+        }
+        if (c.author != null && c.category != null) {
+            if (c.answeredFilter < 0) return c.author.andCardinality(c.category);
+            include = c.author.and(c.category);
+        }
+        if (c.answeredFilter < 0) return include.cardinality();
+        int answeredCount = include.andCardinality(answered);
+        return c.answeredFilter == 1 ? answeredCount : include.cardinality() - answeredCount;
+    }
+
+    //the questions meeting the query, sorted and paged, as Questions.query returns them
+    public Questions query(QuestionQuery query) {
+        List<Question> matches = new ArrayList<>();
+        scan(new Criteria(query), query.getKeyword(), matches);
+        matches.sort(query.getSort().comparator());
+        if (query.getPageSize() > 0) {
+            int from = Math.min(query.getOffset(), matches.size());
+            int to = Math.min(from + query.getPageSize(), matches.size());
+            matches = matches.subList(from, to);
+        }
+        return new Questions(matches);
+    }
+
+    //count the matches, adding them to the list unless it is null. the bitmap criteria pick the
+    //positions to visit; without them every position is
+    private int scan(Criteria c, String keyword, List<Question> matches) {
+        if (c.none) return 0;
+        RoaringBitmap candidates = c.candidates();
+        int[] count = { 0 };
+        IntConsumer visit = i -> {
+            if (c.timed && (compareCreated(i, c.fromSeconds, c.fromNanos) < 0
+                    || compareCreated(i, c.beforeSeconds, c.beforeNanos) >= 0)) {
+                return;
+            }
+            Question q = rows[i];
+            if (keyword != null && !q.getTitle().toLowerCase().contains(keyword)
+                    && !q.getContent().toLowerCase().contains(keyword)) {
+                return;
+            }
+            if (matches != null) matches.add(q);
+            count[0]++;
+        };
+        if (candidates != null) {
+            candidates.forEach(visit);
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (c.answeredFilter < 0 || answered.contains(i) == (c.answeredFilter == 1)) visit.accept(i);
+            }
+        }
+        return count[0];
+    }
+
+    private void set(int position, Question q) {
+        LocalDateTime createdAt = q.getCreatedAt();
+        createdSeconds[position] = seconds(createdAt);
+        createdNanos[position] = createdAt == null ? 0 : createdAt.getNano();
+        authors[position] = q.getAuthorId();
+        categories[position] = q.getCategoryId();
+        rows[position] = q;
+    }
+
+    //add the position to the bitmaps of its author and category, and to answered if it is
+    private void index(int position) {
+        byAuthor.add(authors[position], position);
+        byCategory.add(categories[position], position);
+        if (rows[position].getIsAnswered()) answered.add(position);
+    }
+
+    //take the position out of its bitmaps, answered included
+    private void unindex(int position) {
+        byAuthor.remove(authors[position], position);
+        byCategory.remove(categories[position], position);
+        answered.remove(position);
+    }
+
+    private int position(int questionId) {
+        return questionId >= 0 && questionId < positions.length ? positions[questionId] - 1 : -1;
+    }
+
+    //a question without a creation time sorts before every other
+    private static long seconds(LocalDateTime t) {
+        return t == null ? Long.MIN_VALUE : t.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    //the creation time at the position compared with the given one
+    private int compareCreated(int position, long seconds, int nanos) {
+        int bySeconds = Long.compare(createdSeconds[position], seconds);
+        return bySeconds != 0 ? bySeconds : Integer.compare(createdNanos[position], nanos);
+    }
+
+    //a bitmap of positions for each Symbols number
+    private static final class Facet {
+        private RoaringBitmap[] bySymbol = new RoaringBitmap[16];
+
+        //the positions with the number, or null if there are none
+        RoaringBitmap get(int symbol) {
+            return symbol >= 0 && symbol < bySymbol.length ? bySymbol[symbol] : null;
+        }
+
+        void add(int symbol, int position) {
+            if (symbol >= bySymbol.length) bySymbol = Arrays.copyOf(bySymbol, Math.max(bySymbol.length * 2, symbol + 1));
+            if (bySymbol[symbol] == null) bySymbol[symbol] = new RoaringBitmap();
+            bySymbol[symbol].add(position);
+        }
+
+        void remove(int symbol, int position) {
+            RoaringBitmap positions = get(symbol);
+            if (positions == null) return;
+            positions.remove(position);
+            if (positions.isEmpty()) bySymbol[symbol] = null;
+        }
+    }
+
+    //a query's criteria: the bitmaps of its author and category and the rest as column values;
+    //a criterion the query leaves out matches everything
+    private final class Criteria {
+        final int answeredFilter;   //-1 for either, else 0 or 1
+        final RoaringBitmap author; //null for any
+        final RoaringBitmap category;
+        final boolean timed;        //whether there is a from or before bound at all
+        final long fromSeconds;
+        final int fromNanos;
+        final long beforeSeconds;
+        final int beforeNanos;
+        //an author or category no question has, so nothing can match
+        final boolean none;
+
+        Criteria(QuestionQuery query) {
+            answeredFilter = query.getAnswered() == null ? -1 : query.getAnswered() ? 1 : 0;
+            author = query.getAuthor() == null ? null : byAuthor.get(Symbols.lookup(query.getAuthor()));
+            category = query.getCategory() == null ? null : byCategory.get(Symbols.lookup(query.getCategory()));
+            LocalDateTime createdFrom = query.getCreatedFrom();
+            LocalDateTime createdBefore = query.getCreatedBefore();
+            timed = createdFrom != null || createdBefore != null;
+            fromSeconds = createdFrom == null ? Long.MIN_VALUE : seconds(createdFrom);
+            fromNanos = createdFrom == null ? 0 : createdFrom.getNano();
+            //past any LocalDateTime when there is no bound
+            beforeSeconds = createdBefore == null ? Long.MAX_VALUE : seconds(createdBefore);
+            beforeNanos = createdBefore == null ? 0 : createdBefore.getNano();
+            none = (query.getAuthor() != null && author == null) || (query.getCategory() != null && category == null);
+        }
+
+        //the positions meeting the bitmap criteria, or null when there are none to go by (no
+        //author or category, and answered either or false: checked position by position)
+        RoaringBitmap candidates() {
+            RoaringBitmap include = author != null && category != null ? author.and(category)
+                    : author != null ? author : category;
+            if (include == null) return answeredFilter == 1 ? answered : null;
+            if (answeredFilter < 0) return include;
+            return answeredFilter == 1 ? include.and(answered) : include.andNot(answered);
+        }
+    }
+}
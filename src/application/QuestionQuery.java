@@ -0,0 +1,156 @@
+package application;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+//a combined question query: keyword, author, category, answered status, creation date range,
+//sort order and page. every criterion is optional and they all have to hold. build one with
+//QuestionQuery.builder(); DiscussionBoardDAO.queryQuestions runs it as one SQL statement,
+//Questions.query evaluates it in memory in one pass and QuestionColumns by column, all with the
+//same results.
+public class QuestionQuery {
+
+    //the result order; ties are broken by question id so pages are stable
+    public enum Sort {
+        NEWEST(Comparator.comparing(Question::getCreatedAt).reversed()),
+        OLDEST(Comparator.comparing(Question::getCreatedAt)),
+        RECENTLY_UPDATED(Comparator.comparing(Question::getUpdatedAt).reversed()),
+        TITLE(Comparator.comparing(Question::getTitle, String.CASE_INSENSITIVE_ORDER));
+
+        private final Comparator<Question> comparator;
+
+        Sort(Comparator<Question> comparator) {
+            this.comparator = comparator.thenComparing(Question::getQuestionId);
+        }
+
+        public Comparator<Question> comparator() {
+            return comparator;
+        }
+    }
+
+    private final String keyword;              //lower case, or null
+    private final String author;
+    private final String category;
+    //their Symbols numbers, for matches; added to the table if new, so a query kept while rows
+    //by a new author or in a new category arrive still finds them
+    private final int authorId;
+    private final int categoryId;
+    private final Boolean answered;
+    private final LocalDateTime createdFrom;   //inclusive
+    private final LocalDateTime createdBefore; //exclusive
+    private final Sort sort;
+    private final int pageSize;                //0 for all results
+    private final int page;
+
+    private QuestionQuery(Builder b) {
+        this.keyword = b.keyword == null || b.keyword.isEmpty() ? null : b.keyword.toLowerCase();
+        this.author = b.author;
+        this.category = b.category;
+        this.authorId = Symbols.id(b.author);
+        this.categoryId = Symbols.id(b.category);
+        this.answered = b.answered;
+        this.createdFrom = b.createdFrom;
+        this.createdBefore = b.createdBefore;
+        this.sort = b.sort;
+        this.pageSize = b.pageSize;
+        this.page = b.page;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    //the query for every question, newest first
+    public static QuestionQuery all() {
+        return new Builder().build();
+    }
+
+    public String getKeyword() { return keyword; }
+    public String getAuthor() { return author; }
+    public String getCategory() { return category; }
+    public Boolean getAnswered() { return answered; }
+    public LocalDateTime getCreatedFrom() { return createdFrom; }
+    public LocalDateTime getCreatedBefore() { return createdBefore; }
+    public Sort getSort() { return sort; }
+    public int getPageSize() { return pageSize; }
+    public int getPage() { return page; }
+
+    //the first result of the page, or 0 when the query is not paged
+    public int getOffset() {
+        return pageSize == 0 ? 0 : page * pageSize;
+    }
+
+    //whether the question meets every criterion (sort and page aside); the keyword is matched
+    //against the title or the content, ignoring case, like Questions.search
+    public boolean matches(Question q) {
+        if (answered != null && q.getIsAnswered() != answered) return false;
+        if (author != null && q.getAuthorId() != authorId) return false;
+        if (category != null && q.getCategoryId() != categoryId) return false;
+        if (createdFrom != null && q.getCreatedAt().isBefore(createdFrom)) return false;
+        if (createdBefore != null && !q.getCreatedAt().isBefore(createdBefore)) return false;
+        if (keyword != null) {
+            return q.getTitle().toLowerCase().contains(keyword) || q.getContent().toLowerCase().contains(keyword);
+        }
+        return true;
+    }
+
+    //fluent builder for a QuestionQuery
+    public static class Builder {
+        private String keyword;
+        private String author;
+        private String category;
+        private Boolean answered;
+        private LocalDateTime createdFrom;
+        private LocalDateTime createdBefore;
+        private Sort sort = Sort.NEWEST;
+        private int pageSize;
+        private int page;
+
+        private Builder() {
+        }
+
+        public Builder keyword(String keyword) {
+            this.keyword = keyword;
+            return this;
+        }
+
+        public Builder author(String authorUserName) {
+            this.author = authorUserName;
+            return this;
+        }
+
+        public Builder category(String category) {
+            this.category = category;
+            return this;
+        }
+
+        public Builder answered(Boolean answered) {
+            this.answered = answered;
+            return this;
+        }
+
+        //questions created at or after from and before before; either may be null
+        public Builder createdBetween(LocalDateTime from, LocalDateTime before) {
+            this.createdFrom = from;
+            this.createdBefore = before;
+            return this;
+        }
+
+        public Builder sort(Sort sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        //the page'th page (from 0) of pageSize results
+        public Builder page(int page, int pageSize) {
+            if (page < 0 || pageSize < 1) throw new IllegalArgumentException("Invalid page " + page + " of size " + pageSize);
+            this.page = page;
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public QuestionQuery build() {
+            return new QuestionQuery(this);
+        }
+    }
+}
@@ -68,18 +68,20 @@ public class Questions {
         return new Questions(filtered);
     }
     
-    // category filter
+    // category filter, comparing Symbols numbers
     public Questions filterByCategory(String category) {
+        int categoryId = Symbols.lookup(category);
         List<Question> filtered = questionList.stream()
-            .filter(q -> category.equals(q.getCategory()))
+            .filter(q -> q.getCategoryId() == categoryId)
             .collect(Collectors.toList());
         return new Questions(filtered);
     }
     
-    // author filter
+    // author filter, comparing Symbols numbers
     public Questions filterByAuthor(String authorUserName) {
+        int authorId = Symbols.lookup(authorUserName);
         List<Question> filtered = questionList.stream()
-            .filter(q -> authorUserName.equals(q.getAuthorUserName()))
+            .filter(q -> q.getAuthorId() == authorId)
             .collect(Collectors.toList());
         return new Questions(filtered);
     }
@@ -101,6 +103,21 @@ public class Questions {
         return new Questions(filtered);
     }
     
+    // run a combined query in one pass over the list, then sort and page the matches
+    public Questions query(QuestionQuery query) {
+        List<Question> matches = new ArrayList<>();
+        for (Question q : questionList) {
+            if (query.matches(q)) matches.add(q);
+        }
+        matches.sort(query.getSort().comparator());
+        if (query.getPageSize() > 0) {
+            int from = Math.min(query.getOffset(), matches.size());
+            int to = Math.min(from + query.getPageSize(), matches.size());
+            matches = matches.subList(from, to);
+        }
+        return new Questions(matches);
+    }
+    
     // get count of questions
     public int size() {
         return questionList.size();
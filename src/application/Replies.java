@@ -72,10 +72,11 @@ public class Replies {
         return new Replies(filtered);
     }
     
-    // author filter
+    // author filter, comparing Symbols numbers
     public Replies filterByAuthor(String authorUserName) {
+        int authorId = Symbols.lookup(authorUserName);
         List<Reply> filtered = replyList.stream()
-            .filter(a -> authorUserName.equals(a.getAuthorUserName()))
+            .filter(a -> a.getAuthorId() == authorId)
             .collect(Collectors.toList());
         return new Replies(filtered);
     }
@@ -7,15 +7,18 @@ public class Reply {
 	private int replyId;
     private int answerId;
     private String content;
-    private String authorUserName;
+    //the author's number in Symbols, so rows share one copy of each name; 0 for null
+    private int author;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    //list text for the board, built on first use and cleared by the setters that change it
+    private String displayText;
     
     // constructor getter and setter
     public Reply(int answerId, String content, String authorUserName) {
         this.answerId = answerId;
         this.content = content;
-        this.authorUserName = authorUserName;
+        this.author = Symbols.id(authorUserName);
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
@@ -25,7 +28,7 @@ public class Reply {
         this.replyId = replyId;
         this.answerId = answerId;
         this.content = content;
-        this.authorUserName = authorUserName;
+        this.author = Symbols.id(authorUserName);
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
@@ -41,7 +44,10 @@ public class Reply {
         return content;
     }
     public String getAuthorUserName() {
-        return authorUserName;
+        return Symbols.name(author);
+    }
+    public int getAuthorId() {
+        return author;
     }
     public LocalDateTime getCreatedAt() {
         return createdAt;
@@ -57,24 +63,34 @@ public class Reply {
     }
     public void setContent(String content) {
         this.content = content;
+        this.displayText = null;
         this.updatedAt = LocalDateTime.now(); //update the updatedAt time
     }
     public void setAuthorUserName(String authorUserName) {
-        this.authorUserName = authorUserName;
+        this.author = Symbols.id(authorUserName);
+        this.displayText = null;
     }
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
+        this.displayText = null;
     }
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    //the text of the reply in the board's list
+    String getDisplayText() {
+        if (displayText == null) {
+            displayText = getContent() + "\n - " + getAuthorUserName() + " (" + createdAt.toLocalDate() + ")";
+        }
+        return displayText;
+    }
     @Override
     public String toString() {
         return "Reply{" +
                 "replyId=" + replyId +
                 ", answerId=" + answerId +
-                ", content='" + content + '\'' +
-                ", authorUserName='" + authorUserName + '\'' +
+                ", content='" + getContent() + '\'' +
+                ", authorUserName='" + getAuthorUserName() + '\'' +
                 ", createdAt=" + createdAt +
                 '}';
     }
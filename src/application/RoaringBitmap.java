@@ -0,0 +1,331 @@
+package application;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+//a compressed set of non-negative ints in the style of Roaring bitmaps. values are grouped by
+//their high 16 bits into chunks of 65536; a chunk keeps the low 16 bits of its values as a
+//sorted char array while it holds at most 4096 of them (8 KB at most), and as a 65536-bit
+//bitmap (also 8 KB) once it holds more. a sparse set costs two bytes a value and a dense one a
+//bit a value, and and/or/andNot work chunk by chunk, a word at a time when both sides are
+//bitmaps. the cardinality is kept per chunk, so it never needs a pass over the values.
+//
+//not thread-safe. and, or and andNot leave both operands as they are and return a new set.
+public final class RoaringBitmap {
+    //the most values a chunk keeps as an array
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    //the high 16 bits of each chunk, ascending, and the chunks
+    private char[] keys = new char[4];
+    private Chunk[] chunks = new Chunk[4];
+    private int size;
+
+    //add the value; false if it was already in the set
+    public boolean add(int value) {
+        char key = (char) (value >>> 16);
+        int i = find(key);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, key, new Chunk());
+        }
+        return chunks[i].add((char) value);
+    }
+
+    //remove the value; false if it was not in the set
+    public boolean remove(int value) {
+        int i = find((char) (value >>> 16));
+        if (i < 0 || !chunks[i].remove((char) value)) return false;
+        if (chunks[i].cardinality == 0) delete(i);
+        return true;
+    }
+
+    public boolean contains(int value) {
+        int i = find((char) (value >>> 16));
+        return i >= 0 && chunks[i].contains((char) value);
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) cardinality += chunks[i].cardinality;
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    //the values in both sets
+    public RoaringBitmap and(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (int i = 0, j = 0; i < size && j < other.size; ) {
+            if (keys[i] < other.keys[j]) i++;
+            else if (keys[i] > other.keys[j]) j++;
+            else {
+                Chunk chunk = chunks[i].and(other.chunks[j]);
+                if (chunk.cardinality > 0) result.append(keys[i], chunk);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    //the number of values in both sets, without building the set
+    public int andCardinality(RoaringBitmap other) {
+        int cardinality = 0;
+        for (int i = 0, j = 0; i < size && j < other.size; ) {
+            if (keys[i] < other.keys[j]) i++;
+            else if (keys[i] > other.keys[j]) j++;
+            else cardinality += chunks[i++].andCardinality(other.chunks[j++]);
+        }
+        return cardinality;
+    }
+
+    //the values in either set
+    public RoaringBitmap or(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], chunks[i++].copy());
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.chunks[j++].copy());
+            } else {
+                result.append(keys[i], chunks[i++].or(other.chunks[j++]));
+            }
+        }
+        return result;
+    }
+
+    //the values in this set that are not in the other
+    public RoaringBitmap andNot(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (int i = 0, j = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) j++;
+            Chunk chunk = j < other.size && other.keys[j] == keys[i] ? chunks[i].andNot(other.chunks[j]) : chunks[i].copy();
+            if (chunk.cardinality > 0) result.append(keys[i], chunk);
+        }
+        return result;
+    }
+
+    //pass each value to the action, in ascending order
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) chunks[i].forEach(keys[i] << 16, action);
+    }
+
+    //the values in ascending order
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int[] n = { 0 };
+        forEach(value -> values[n[0]++] = value);
+        return values;
+    }
+
+    private int find(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int i, char key, Chunk chunk) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            chunks = Arrays.copyOf(chunks, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(chunks, i, chunks, i + 1, size - i);
+        keys[i] = key;
+        chunks[i] = chunk;
+        size++;
+    }
+
+    private void delete(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(chunks, i + 1, chunks, i, size - i - 1);
+        chunks[--size] = null;
+    }
+
+    //add a chunk after every chunk already in the set
+    private void append(char key, Chunk chunk) {
+        insert(size, key, chunk);
+    }
+
+    //the values of one chunk: the first cardinality entries of array while words is null,
+    //otherwise the bits of words
+    private static final class Chunk {
+        char[] array = new char[4];
+        long[] words;
+        int cardinality;
+
+        boolean contains(char low) {
+            if (words != null) return (words[low >>> 6] & (1L << low)) != 0;
+            return Arrays.binarySearch(array, 0, cardinality, low) >= 0;
+        }
+
+        boolean add(char low) {
+            if (words == null) {
+                int i = Arrays.binarySearch(array, 0, cardinality, low);
+                if (i >= 0) return false;
+                if (cardinality < ARRAY_MAX) {
+                    i = -i - 1;
+                    if (cardinality == array.length) array = Arrays.copyOf(array, Math.min(cardinality * 2, ARRAY_MAX));
+                    System.arraycopy(array, i, array, i + 1, cardinality - i);
+                    array[i] = low;
+                    cardinality++;
+                    return true;
+                }
+                toWords();
+            }
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) return false;
+            words[low >>> 6] |= bit;
+            cardinality++;
+            return true;
+        }
+
+        boolean remove(char low) {
+            if (words == null) {
+                int i = Arrays.binarySearch(array, 0, cardinality, low);
+                if (i < 0) return false;
+                System.arraycopy(array, i + 1, array, i, cardinality - i - 1);
+                cardinality--;
+                return true;
+            }
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) return false;
+            words[low >>> 6] &= ~bit;
+            if (--cardinality <= ARRAY_MAX) toArray();
+            return true;
+        }
+
+        Chunk and(Chunk other) {
+            if (words != null && other.words != null) {
+                long[] result = new long[WORDS];
+                for (int w = 0; w < WORDS; w++) result[w] = words[w] & other.words[w];
+                return ofWords(result);
+            }
+            //filter the array side by the other
+            Chunk small = words == null ? this : other;
+            Chunk large = small == this ? other : this;
+            Chunk result = new Chunk();
+            result.array = new char[Math.max(1, small.cardinality)];
+            for (int i = 0; i < small.cardinality; i++) {
+                if (large.contains(small.array[i])) result.array[result.cardinality++] = small.array[i];
+            }
+            return result;
+        }
+
+        int andCardinality(Chunk other) {
+            if (words != null && other.words != null) {
+                int cardinality = 0;
+                for (int w = 0; w < WORDS; w++) cardinality += Long.bitCount(words[w] & other.words[w]);
+                return cardinality;
+            }
+            Chunk small = words == null ? this : other;
+            Chunk large = small == this ? other : this;
+            int cardinality = 0;
+            for (int i = 0; i < small.cardinality; i++) {
+                if (large.contains(small.array[i])) cardinality++;
+            }
+            return cardinality;
+        }
+
+        Chunk or(Chunk other) {
+            if (words == null && other.words == null && cardinality + other.cardinality <= ARRAY_MAX) {
+                //merge the two sorted arrays
+                Chunk result = new Chunk();
+                result.array = new char[Math.max(1, cardinality + other.cardinality)];
+                int i = 0;
+                int j = 0;
+                while (i < cardinality || j < other.cardinality) {
+                    char next;
+                    if (j == other.cardinality || (i < cardinality && array[i] < other.array[j])) next = array[i++];
+                    else if (i == cardinality || array[i] > other.array[j]) next = other.array[j++];
+                    else {
+                        next = array[i++];
+                        j++;
+                    }
+                    result.array[result.cardinality++] = next;
+                }
+                return result;
+            }
+            long[] result = new long[WORDS];
+            setWords(result, this);
+            setWords(result, other);
+            return ofWords(result);
+        }
+
+        Chunk andNot(Chunk other) {
+            if (words != null) {
+                long[] result = words.clone();
+                if (other.words != null) {
+                    for (int w = 0; w < WORDS; w++) result[w] &= ~other.words[w];
+                } else {
+                    for (int i = 0; i < other.cardinality; i++) result[other.array[i] >>> 6] &= ~(1L << other.array[i]);
+                }
+                return ofWords(result);
+            }
+            Chunk result = new Chunk();
+            result.array = new char[Math.max(1, cardinality)];
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(array[i])) result.array[result.cardinality++] = array[i];
+            }
+            return result;
+        }
+
+        Chunk copy() {
+            Chunk result = new Chunk();
+            result.cardinality = cardinality;
+            if (words != null) result.words = words.clone();
+            else result.array = Arrays.copyOf(array, Math.max(1, cardinality));
+            return result;
+        }
+
+        void forEach(int base, IntConsumer action) {
+            if (words == null) {
+                for (int i = 0; i < cardinality; i++) action.accept(base | array[i]);
+                return;
+            }
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+
+        //a chunk for the bits, kept as an array if they are few
+        private static Chunk ofWords(long[] bits) {
+            Chunk result = new Chunk();
+            result.words = bits;
+            for (long word : bits) result.cardinality += Long.bitCount(word);
+            if (result.cardinality <= ARRAY_MAX) result.toArray();
+            return result;
+        }
+
+        private static void setWords(long[] bits, Chunk chunk) {
+            if (chunk.words != null) {
+                for (int w = 0; w < WORDS; w++) bits[w] |= chunk.words[w];
+            } else {
+                for (int i = 0; i < chunk.cardinality; i++) bits[chunk.array[i] >>> 6] |= 1L << chunk.array[i];
+            }
+        }
+
+        private void toWords() {
+            words = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) words[array[i] >>> 6] |= 1L << array[i];
+            array = null;
+        }
+
+        private void toArray() {
+            char[] values = new char[Math.max(1, cardinality)];
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                }
+            }
+            array = values;
+            words = null;
+        }
+    }
+}
@@ -2,9 +2,15 @@ package application;
 
 import javafx.application.Application;
 import javafx.stage.Stage;
+
+import java.io.IOException;
 import java.sql.SQLException;
 
 import databasePart1.DatabaseHelper;
+import databasePart1.DatabaseMetrics;
+import databasePart1.DiscussionBoardRepository;
+import databasePart1.QuestionSnapshot;
+import textSearch.SearchIndex;
 
 
 public class StartCSE360 extends Application {
@@ -18,19 +24,28 @@ public class StartCSE360 extends Application {
 	
 	@Override
     public void start(Stage primaryStage) {
-        try {
-            databaseHelper.connectToDatabase(); // Connect to the database
-            if (databaseHelper.isDatabaseEmpty()) {
-            	
-            	new FirstPage(databaseHelper).show(primaryStage);
-            } else {
-            	new SetupLoginSelectionPage(databaseHelper).show(primaryStage);
-                
-            }
-        } catch (SQLException e) {
-        	System.out.println(e.getMessage());
-        }
+        // Print the database metrics every minute (0 turns it off); they are also on JMX.
+        DatabaseMetrics.startPeriodicDump(Long.getLong("board.metrics.dumpSeconds", 60));
+        // Show a splash and open the database, board and search index in the background.
+        new StartupPipeline(primaryStage, databaseHelper).run();
     }
+
+	@Override
+	public void stop() {
+		// Save the question list so the next start can show it at once (see QuestionSnapshot).
+		DiscussionBoardRepository board = databaseHelper.openedDiscussionBoard();
+		if (board != null) {
+			try {
+				QuestionSnapshot.save(board.getAllQuestions().getAllQuestions());
+			} catch (IOException | SQLException e) {
+				System.out.println("Could not save the question snapshot: " + e.getMessage());
+			}
+		}
+		// Let the search index finish the writes it was handed, so no edit is missing from it.
+		SearchIndex.flushShared();
+		// Close the database connections, including the shared discussion board DAO.
+		databaseHelper.closeConnection();
+	}
 	
 
 }
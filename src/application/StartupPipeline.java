@@ -0,0 +1,148 @@
+package application;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import databasePart1.DatabaseHelper;
+import databasePart1.DatabaseMetrics;
+import databasePart1.DiscussionBoardRepository;
+import databasePart1.QuestionSnapshot;
+import textSearch.SearchIndex;
+
+//the staged application startup. a splash is shown at once, then on background threads:
+//  connect      - load the driver, connect and create the user tables (DatabaseHelper)
+//  checkUsers   - whether anyone has registered yet, which picks the first page
+//  boardSchema  - open the shared discussion board, creating and migrating its tables
+//  loadIndex    - read the search index segments from disk
+//  attachIndex  - bring the search index up to date with the board
+//  warmup       - run the board's default query once, so the first visit is fast, and save
+//                 its result as the question snapshot for the next start
+//  loadSnapshot - map the question snapshot the last run saved, which the board shows if it
+//                 is opened before boardSchema is done
+//connect and boardSchema run in parallel with loadIndex; the first page replaces the splash
+//as soon as checkUsers is done and the rest carry on behind it.
+//each stage is timed as startup.<stage> in DatabaseMetrics (so also on JMX), as is
+//startup.firstPage from start() to the first page, and all of them are printed once done.
+class StartupPipeline {
+    private final Stage stage;
+    private final DatabaseHelper databaseHelper;
+    private final long startNanos = System.nanoTime();
+    //stage timings in the order they finished
+    private final Map<String, Long> timings = new LinkedHashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(3, r -> {
+        Thread t = new Thread(r, "startup");
+        t.setDaemon(true);
+        return t;
+    });
+
+    StartupPipeline(Stage stage, DatabaseHelper databaseHelper) {
+        this.stage = stage;
+        this.databaseHelper = databaseHelper;
+    }
+
+    //show the splash and start the stages; returns at once
+    void run() {
+        showSplash();
+        CompletableFuture<Boolean> empty = stage("connect", () -> {
+            databaseHelper.connectToDatabase();
+            return null;
+        }).thenApplyAsync(v -> timed("checkUsers", databaseHelper::isDatabaseEmpty), executor);
+        CompletableFuture<DiscussionBoardRepository> board = stage("boardSchema", databaseHelper::getDiscussionBoard);
+        CompletableFuture<QuestionSnapshot> snapshot = stage("loadSnapshot", QuestionSnapshot::shared);
+        CompletableFuture<SearchIndex> index = stage("loadIndex", SearchIndex::shared);
+        CompletableFuture<Void> attached = board.thenAcceptBothAsync(index, (dao, searchIndex) -> timed("attachIndex", () -> {
+            searchIndex.attach(dao);
+            return null;
+        }), executor);
+        //after loadSnapshot, so the save knows which file not to write
+        CompletableFuture<Void> warm = board.thenCombine(snapshot, (dao, mapped) -> dao).thenAcceptAsync(dao ->
+                timed("warmup", () -> {
+                    Questions questions = dao.queryQuestions(QuestionQuery.all());
+                    QuestionSnapshot.save(questions.getAllQuestions());
+                    return null;
+                }), executor);
+
+        empty.whenComplete((isEmpty, error) -> Platform.runLater(() -> showFirstPage(isEmpty, error)));
+        CompletableFuture.allOf(empty, attached, warm).whenComplete((v, error) -> {
+            if (error != null) {
+                System.out.println("Startup: " + error.getCause().getMessage());
+            }
+            report();
+            executor.shutdown();
+        });
+    }
+
+    private void showSplash() {
+        VBox layout = new VBox(15, new Label("Starting..."), new ProgressIndicator());
+        layout.setAlignment(Pos.CENTER);
+        stage.setScene(new Scene(layout, 800, 400));
+        stage.setTitle("CSE360");
+        stage.show();
+    }
+
+    //replace the splash with the first page, on the FX thread
+    private void showFirstPage(Boolean isEmpty, Throwable error) {
+        if (error != null) {
+            //the database could not be opened; say so where the splash was
+            String message = error.getCause() != null ? error.getCause().getMessage() : error.getMessage();
+            System.out.println(message);
+            VBox layout = new VBox(new Label("Could not open the database: " + message));
+            layout.setAlignment(Pos.CENTER);
+            stage.setScene(new Scene(layout, 800, 400));
+            return;
+        }
+        if (isEmpty) {
+            new FirstPage(databaseHelper).show(stage);
+        } else {
+            new SetupLoginSelectionPage(databaseHelper).show(stage);
+        }
+        record("firstPage", System.nanoTime() - startNanos);
+    }
+
+    private <T> CompletableFuture<T> stage(String name, Callable<T> work) {
+        return CompletableFuture.supplyAsync(() -> timed(name, work), executor);
+    }
+
+    //run one stage, recording its time whether or not it succeeds
+    private <T> T timed(String name, Callable<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.call();
+        } catch (Exception e) {
+            throw new CompletionException(name + " failed: " + e.getMessage(), e);
+        } finally {
+            record(name, System.nanoTime() - start);
+        }
+    }
+
+    private void record(String name, long nanos) {
+        DatabaseMetrics.operation("startup." + name).record(nanos);
+        synchronized (timings) {
+            timings.put(name, nanos);
+        }
+    }
+
+    private void report() {
+        StringBuilder line = new StringBuilder("Startup timings:");
+        synchronized (timings) {
+            timings.forEach((name, nanos) -> line.append(' ').append(name).append('=')
+                    .append(TimeUnit.NANOSECONDS.toMillis(nanos)).append("ms"));
+        }
+        line.append(" all=").append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)).append("ms");
+        System.out.println(line);
+    }
+}
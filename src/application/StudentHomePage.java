@@ -10,10 +10,12 @@ import javafx.geometry.Pos;
 public class StudentHomePage {
     private Stage stage;
     private String userName;
+    private Navigator navigator;
 
-    public StudentHomePage(Stage stage, String userName) {
+    public StudentHomePage(Stage stage, String userName, Navigator navigator) {
         this.stage = stage;
         this.userName = userName;
+        this.navigator = navigator;
     }
 
     public Scene createScene() {
@@ -30,9 +32,7 @@ public class StudentHomePage {
     Button discussionBoardBtn = new Button("Discussion Board");
     discussionBoardBtn.setPrefWidth(200);
     discussionBoardBtn.setOnAction(e -> {
-        DiscussionBoardPage dbPage = new DiscussionBoardPage(stage, userName, "Student");
-        stage.setScene(dbPage.createScene());
-
+        navigator.showDiscussionBoard();
     });
 
     layout.getChildren().addAll(welcomeLabel, discussionBoardBtn);
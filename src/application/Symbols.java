@@ -0,0 +1,59 @@
+package application;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+//the symbol table the board's rows share for the names that repeat across them: authors and
+//categories. each distinct name gets a small int once, the rows keep the int, and a name is
+//stored once however many rows use it. comparing two ints is also what the author and category
+//filters do instead of String.equals.
+//
+//0 stands for null. numbers are never reused or removed; the table only grows with the
+//distinct names a run sees, which for users and categories stays small. safe to use from
+//any thread.
+public final class Symbols {
+    //the number of a name that is not in the table
+    public static final int NONE = -1;
+
+    private static final ConcurrentHashMap<String, Integer> numbers = new ConcurrentHashMap<>();
+    //by number; written under the class lock and published by the volatile write of the array
+    private static volatile String[] names = new String[64];
+    private static int count = 1;
+
+    private Symbols() {
+    }
+
+    //the number of the name, adding it to the table if it is new
+    public static int id(String name) {
+        if (name == null) return 0;
+        Integer number = numbers.get(name);
+        return number != null ? number : add(name);
+    }
+
+    //the number of the name, or NONE when no row has used it, so a filter for it matches nothing
+    public static int lookup(String name) {
+        if (name == null) return 0;
+        Integer number = numbers.get(name);
+        return number != null ? number : NONE;
+    }
+
+    public static String name(int id) {
+        return names[id];
+    }
+
+    //the distinct names in the table
+    public static int size() {
+        return numbers.size();
+    }
+
+    private static synchronized int add(String name) {
+        Integer number = numbers.get(name);
+        if (number != null) return number;
+        String[] table = names;
+        if (count == table.length) table = Arrays.copyOf(table, count * 2);
+        table[count] = name;
+        names = table;
+        numbers.put(name, count);
+        return count++;
+    }
+}
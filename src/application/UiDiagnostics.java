@@ -0,0 +1,222 @@
+package application;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
+
+import databasePart1.DatabaseMetrics;
+import databasePart1.LatencyHistogram;
+
+//FX-thread latency diagnostics for a page: the time of every action handler and list-cell
+//render, the layout time of every pulse, and the stalls where the FX thread missed a frame.
+//all methods run on the FX thread.
+//
+//Ctrl+Shift+D shows or hides the overlay, Ctrl+Shift+E exports the report to a file.
+//with -Dboard.diagnostics=true the frame-gap monitor runs even while the overlay is hidden.
+public class UiDiagnostics {
+    //one frame at 60 fps; work on the FX thread longer than this delays a frame
+    static final long FRAME_BUDGET_NANOS = 16_000_000L;
+    private static final int KEPT_STALLS = 50;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+    //the timings of one handler, renderer or pulse phase
+    private static class Timing {
+        final LatencyHistogram latency = new LatencyHistogram();
+        long overBudget;
+    }
+
+    private final String pageName;
+    private final Map<String, Timing> timings = new TreeMap<>();
+    private final Deque<String> stalls = new ArrayDeque<>();
+    private long stallCount;
+    //time spent in modal dialogs, which is left out of the handler that opened them
+    private long excludedNanos;
+
+    private final Label overlay = new Label();
+    private Timeline overlayRefresh;
+    private AnimationTimer frameMonitor;
+    private boolean frameMonitorRunning;
+    private long lastFrame;
+    private long layoutStart;
+    private String lastExport = "";
+
+    public UiDiagnostics(String pageName) {
+        this.pageName = pageName;
+    }
+
+    //build the page scene with the hidden overlay, shortcuts and pulse listeners attached
+    public Scene createScene(Parent content, double width, double height) {
+        overlay.setVisible(false);
+        overlay.setMouseTransparent(true);
+        overlay.setPadding(new Insets(8));
+        overlay.setStyle("-fx-background-color: rgba(0, 0, 0, 0.75); -fx-text-fill: #e0ffe0;"
+                + " -fx-font-family: monospace; -fx-font-size: 11px;");
+        StackPane.setAlignment(overlay, Pos.TOP_RIGHT);
+        StackPane root = new StackPane(content, overlay);
+        Scene scene = new Scene(root, width, height);
+
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.D, KeyCombination.SHORTCUT_DOWN,
+                KeyCombination.SHIFT_DOWN), this::toggleOverlay);
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.E, KeyCombination.SHORTCUT_DOWN,
+                KeyCombination.SHIFT_DOWN), this::exportReport);
+        scene.addPreLayoutPulseListener(() -> layoutStart = System.nanoTime());
+        scene.addPostLayoutPulseListener(() -> record("pulse.layout", layoutStart));
+
+        frameMonitor = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (lastFrame > 0) {
+                    long gap = now - lastFrame;
+                    //a gap of more than two frames means at least one frame was missed
+                    if (gap > 2 * FRAME_BUDGET_NANOS) stall("frame gap", gap);
+                    timing("pulse.interval").latency.record(gap);
+                }
+                lastFrame = now;
+            }
+        };
+        overlayRefresh = new Timeline(new KeyFrame(Duration.millis(500), e -> overlay.setText(report(false))));
+        overlayRefresh.setCycleCount(Timeline.INDEFINITE);
+        if (Boolean.getBoolean("board.diagnostics")) startFrameMonitor();
+        return scene;
+    }
+
+    //run an action handler and record its time on the FX thread
+    public void time(String name, Runnable handler) {
+        long excludedBefore = excludedNanos;
+        long start = System.nanoTime();
+        try {
+            handler.run();
+        } finally {
+            long elapsed = System.nanoTime() - start - (excludedNanos - excludedBefore);
+            recordElapsed("handler." + name, elapsed);
+        }
+    }
+
+    //show a modal dialog; the time the user spends in it is not charged to the handler
+    public <T> T excluding(Supplier<T> modal) {
+        long start = System.nanoTime();
+        try {
+            return modal.get();
+        } finally {
+            excludedNanos += System.nanoTime() - start;
+        }
+    }
+
+    //record the time since startNanos, e.g. for one cell render
+    public void record(String name, long startNanos) {
+        recordElapsed(name, System.nanoTime() - startNanos);
+    }
+
+    private void recordElapsed(String name, long elapsed) {
+        Timing timing = timing(name);
+        timing.latency.record(elapsed);
+        if (elapsed > FRAME_BUDGET_NANOS) {
+            timing.overBudget++;
+            stall(name, elapsed);
+        }
+    }
+
+    private Timing timing(String name) {
+        return timings.computeIfAbsent(name, n -> new Timing());
+    }
+
+    private void stall(String source, long nanos) {
+        stallCount++;
+        stalls.addFirst(String.format(Locale.ROOT, "%s %-32s %9.3f ms",
+                LocalDateTime.now().format(STAMP), source, nanos / 1e6));
+        if (stalls.size() > KEPT_STALLS) stalls.removeLast();
+    }
+
+    private void toggleOverlay() {
+        boolean show = !overlay.isVisible();
+        overlay.setVisible(show);
+        if (show) {
+            overlay.setText(report(false));
+            overlayRefresh.play();
+            startFrameMonitor();
+        } else {
+            overlayRefresh.stop();
+            //the frame monitor forces a pulse every frame, so only keep it when asked to
+            if (!Boolean.getBoolean("board.diagnostics")) {
+                frameMonitor.stop();
+                frameMonitorRunning = false;
+            }
+        }
+    }
+
+    //stop the overlay refresh and the frame monitor, once the page is gone for good
+    public void stop() {
+        overlayRefresh.stop();
+        frameMonitor.stop();
+        frameMonitorRunning = false;
+    }
+
+    private void startFrameMonitor() {
+        if (frameMonitorRunning) return;
+        lastFrame = 0;
+        frameMonitor.start();
+        frameMonitorRunning = true;
+    }
+
+    //the timing table and the recent stalls; the export also includes the database metrics
+    String report(boolean full) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(pageName).append(" diagnostics (Ctrl+Shift+E to export)").append(lastExport).append('\n');
+        sb.append(String.format(Locale.ROOT, "%-32s %8s %9s %9s %9s %9s %6s%n",
+                "timing", "count", "mean ms", "p50 ms", "p99 ms", "max ms", ">16ms"));
+        for (Map.Entry<String, Timing> e : timings.entrySet()) {
+            LatencyHistogram h = e.getValue().latency;
+            sb.append(String.format(Locale.ROOT, "%-32s %8d %9.3f %9.3f %9.3f %9.3f %6d%n",
+                    e.getKey(), h.getCount(), h.getMeanNanos() / 1e6, h.valueAtPercentile(0.50) / 1e6,
+                    h.valueAtPercentile(0.99) / 1e6, h.getMaxNanos() / 1e6, e.getValue().overBudget));
+        }
+        sb.append("stalls: ").append(stallCount).append(frameMonitorRunning ? "" : " (frame monitor off)").append('\n');
+        int shown = 0;
+        for (String stall : stalls) {
+            if (!full && shown++ == 10) break;
+            sb.append("  ").append(stall).append('\n');
+        }
+        if (full) sb.append('\n').append(DatabaseMetrics.dump());
+        return sb.toString();
+    }
+
+    //write the full report to ~/board-diagnostics-<time>.txt
+    private void exportReport() {
+        Path file = Paths.get(System.getProperty("user.home"), "board-diagnostics-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".txt");
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("Exported " + LocalDateTime.now() + "\n");
+            out.write(report(true));
+            lastExport = " - exported " + file;
+        } catch (IOException e) {
+            lastExport = " - export failed: " + e.getMessage();
+        }
+        System.out.println("UI diagnostics" + lastExport.substring(2));
+        if (overlay.isVisible()) overlay.setText(report(false));
+    }
+}
@@ -14,11 +14,13 @@ import javafx.geometry.Pos;
 public class UserHomePage {
     private Stage stage;
     private String userName;
+    private Navigator navigator;
     
     //constructor
-    public UserHomePage(Stage stage, String userName) {
+    public UserHomePage(Stage stage, String userName, Navigator navigator) {
         this.stage = stage;
         this.userName = userName;
+        this.navigator = navigator;
     }
     
     //create the scene
@@ -35,8 +37,7 @@ public class UserHomePage {
         Button discussionBoardBtn = new Button("Discussion Board");
         discussionBoardBtn.setPrefWidth(200);
         discussionBoardBtn.setOnAction(e -> {
-            DiscussionBoardPage dbPage = new DiscussionBoardPage(stage, userName, "User");
-            stage.setScene(dbPage.createScene());
+            navigator.showDiscussionBoard();
         });
         
         layout.getChildren().addAll(userLabel, discussionBoardBtn);
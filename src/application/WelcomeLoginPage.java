@@ -32,22 +32,15 @@ public class WelcomeLoginPage {
 	    	String role =user.getRole();
 	    	System.out.println(role);
 
-			if(role.equals("admin")) {
-				AdminHomePage adminHomePage = new AdminHomePage(primaryStage, user.getUserName());
-				primaryStage.setScene(adminHomePage.createScene());
-			} else if(role.equals("student")) {
-				StudentHomePage studentHomePage = new StudentHomePage(primaryStage, user.getUserName());
-				primaryStage.setScene(studentHomePage.createScene());
-			} else {
-				UserHomePage userHomePage = new UserHomePage(primaryStage, user.getUserName());
-				primaryStage.setScene(userHomePage.createScene());
-			}
+			// The navigator keeps this user's pages for the rest of the session, and ends the
+			// previous session so its board page stops its threads
+			Navigator.startSession(primaryStage, user.getUserName(), role, databaseHelper).showHome();
 	    });
 	    
 	    // Button to quit the application
 	    Button quitButton = new Button("Quit");
 	    quitButton.setOnAction(a -> {
-	    	databaseHelper.closeConnection();
+	    	// StartCSE360.stop() saves the question snapshot and then closes the connections
 	    	Platform.exit(); // Exit the JavaFX application
 	    });
 	    
@@ -0,0 +1,238 @@
+package databasePart1;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import application.Answer;
+import application.Question;
+import application.Reply;
+
+//the binary form of board rows, shared by the write-ahead log and the snapshots. a record is a
+//type byte and then the fields: ids and lengths as unsigned varints, strings as their UTF-8
+//length plus one (0 for null) and the bytes, times as the nanosecond plus one (0 for null) and
+//the zigzagged UTC epoch second. a saved row carries all its fields, so replaying a record
+//twice leaves the board as replaying it once.
+final class BoardRecords {
+    static final byte QUESTION = 1;
+    static final byte ANSWER = 2;
+    static final byte REPLY = 3;
+    static final byte QUESTION_DELETED = 4;
+    static final byte ANSWER_DELETED = 5;
+    static final byte REPLY_DELETED = 6;
+    //the last ids handed out, so ids of deleted rows are not given out again after a restart
+    static final byte LAST_IDS = 7;
+
+    private BoardRecords() {
+    }
+
+    //question: the SimHash fingerprint as 8 bytes, then the row
+    static void question(Out out, Question q, long fingerprint) {
+        out.putByte(QUESTION);
+        out.putLong(fingerprint);
+        out.putVarInt(q.getQuestionId());
+        out.putString(q.getTitle());
+        out.putString(q.getContent());
+        out.putString(q.getAuthorUserName());
+        out.putString(q.getCategory());
+        out.putTime(q.getCreatedAt());
+        out.putTime(q.getUpdatedAt());
+        out.putByte(q.getIsAnswered() ? 1 : 0);
+    }
+
+    //the row of a question record, read after its type byte and fingerprint
+    static Question readQuestion(In in) {
+        int id = in.getVarInt();
+        String title = in.getString();
+        String content = in.getString();
+        String author = in.getString();
+        String category = in.getString();
+        LocalDateTime createdAt = in.getTime();
+        LocalDateTime updatedAt = in.getTime();
+        return new Question(id, title, content, author, category, createdAt, updatedAt, in.getByte() != 0);
+    }
+
+    static void answer(Out out, Answer a) {
+        out.putByte(ANSWER);
+        out.putVarInt(a.getAnswerId());
+        out.putVarInt(a.getQuestionId());
+        out.putString(a.getContent());
+        out.putString(a.getAuthorUserName());
+        out.putTime(a.getCreatedAt());
+        out.putTime(a.getUpdatedAt());
+        out.putByte((a.getIsAccepted() ? 1 : 0) | (a.isCorrect() ? 2 : 0));
+    }
+
+    static Answer readAnswer(In in) {
+        int id = in.getVarInt();
+        int questionId = in.getVarInt();
+        String content = in.getString();
+        String author = in.getString();
+        LocalDateTime createdAt = in.getTime();
+        LocalDateTime updatedAt = in.getTime();
+        int flags = in.getByte();
+        return new Answer(id, questionId, content, author, createdAt, updatedAt, (flags & 1) != 0, (flags & 2) != 0);
+    }
+
+    static void reply(Out out, Reply r) {
+        out.putByte(REPLY);
+        out.putVarInt(r.getReplyId());
+        out.putVarInt(r.getAnswerId());
+        out.putString(r.getContent());
+        out.putString(r.getAuthorUserName());
+        out.putTime(r.getCreatedAt());
+        out.putTime(r.getUpdatedAt());
+    }
+
+    static Reply readReply(In in) {
+        return new Reply(in.getVarInt(), in.getVarInt(), in.getString(), in.getString(), in.getTime(), in.getTime());
+    }
+
+    //a delete record: one of the *_DELETED types and the id
+    static void deleted(Out out, byte type, int id) {
+        out.putByte(type);
+        out.putVarInt(id);
+    }
+
+    static void lastIds(Out out, int question, int answer, int reply) {
+        out.putByte(LAST_IDS);
+        out.putVarInt(question);
+        out.putVarInt(answer);
+        out.putVarInt(reply);
+    }
+
+    //a growable buffer a record is encoded into; reset it before each record
+    static final class Out {
+        private byte[] buf = new byte[256];
+        private int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        int length() {
+            return length;
+        }
+
+        void putByte(int b) {
+            ensure(1);
+            buf[length++] = (byte) b;
+        }
+
+        void putInt(int v) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) buf[length++] = (byte) (v >>> shift);
+        }
+
+        void putLong(long v) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) buf[length++] = (byte) (v >>> shift);
+        }
+
+        void putVarInt(int v) {
+            ensure(5);
+            while ((v & ~0x7F) != 0) {
+                buf[length++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[length++] = (byte) v;
+        }
+
+        void putVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[length++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[length++] = (byte) v;
+        }
+
+        void putString(String s) {
+            if (s == null) {
+                putVarInt(0);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            putVarInt(bytes.length + 1);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, length, bytes.length);
+            length += bytes.length;
+        }
+
+        void putTime(LocalDateTime t) {
+            if (t == null) {
+                putVarInt(0);
+                return;
+            }
+            putVarInt(t.getNano() + 1);
+            long second = t.toEpochSecond(ZoneOffset.UTC);
+            putVarLong((second << 1) ^ (second >> 63));
+        }
+
+        private void ensure(int more) {
+            if (length + more > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, length + more));
+        }
+    }
+
+    //reads the fields of one record from its payload
+    static final class In {
+        private final ByteBuffer buf;
+
+        In(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        int getByte() {
+            return buf.get() & 0xFF;
+        }
+
+        long getLong() {
+            return buf.getLong();
+        }
+
+        int getVarInt() {
+            int v = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buf.get();
+                v |= (b & 0x7F) << shift;
+                if (b >= 0) return v;
+            }
+        }
+
+        long getVarLong() {
+            long v = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buf.get();
+                v |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return v;
+            }
+        }
+
+        String getString() {
+            int length = getVarInt() - 1;
+            if (length < 0) return null;
+            String s;
+            if (buf.hasArray()) {
+                s = new String(buf.array(), buf.arrayOffset() + buf.position(), length, StandardCharsets.UTF_8);
+                buf.position(buf.position() + length);
+            } else {
+                byte[] bytes = new byte[length];
+                buf.get(bytes);
+                s = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return s;
+        }
+
+        LocalDateTime getTime() {
+            int nano = getVarInt() - 1;
+            if (nano < 0) return null;
+            long zigzag = getVarLong();
+            return LocalDateTime.ofEpochSecond((zigzag >>> 1) ^ -(zigzag & 1), nano, ZoneOffset.UTC);
+        }
+    }
+}
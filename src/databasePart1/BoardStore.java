@@ -0,0 +1,204 @@
+package databasePart1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+//the files that keep an InMemoryDiscussionBoard across restarts, all in one directory:
+//  snapshot-<n>   every row as it was when log n was started
+//  wal-<n>        the writes made after that, in order
+//opening the store loads the newest snapshot and replays its log and any later ones, so the
+//board comes back without H2. a checkpoint starts the next log, writes the next snapshot to a
+//.tmp file that is forced and renamed into place, and only then deletes the files it replaces,
+//so a crash at any point leaves a snapshot and the logs that follow it.
+final class BoardStore implements Closeable {
+    //start a checkpoint once the current log has grown this large
+    static final long CHECKPOINT_BYTES = 64L << 20;
+
+    //the first frame of a snapshot: "BSNP", the format version, then the generation
+    private static final long MAGIC_AND_VERSION = (0x42534E50L << 32) | 1;
+    private static final String SNAPSHOT = "snapshot-";
+    private static final String LOG = "wal-";
+
+    private final Path dir;
+    private final WriteAheadLog log;
+    private long generation;
+
+    //recover the board into the handler, which is given the payload of every saved record in
+    //order, then open the last log for appending
+    BoardStore(Path dir, Consumer<ByteBuffer> handler) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        long base = -1;
+        List<Long> logs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.delete(file); //a checkpoint that did not finish
+                } else if (name.startsWith(SNAPSHOT)) {
+                    base = Math.max(base, generation(name, SNAPSHOT));
+                } else if (name.startsWith(LOG)) {
+                    logs.add(generation(name, LOG));
+                }
+            }
+        }
+        if (base >= 0) readSnapshot(snapshotFile(base), base, handler);
+        logs.sort(null);
+        long last = Math.max(base, 0);
+        long lastValid = 0;
+        for (int i = 0; i < logs.size(); i++) {
+            long n = logs.get(i);
+            if (n < base) continue;
+            Path file = logFile(n);
+            long valid = WriteAheadLog.read(file, handler);
+            //only the log being written when the board stopped may end in a torn record
+            if (i < logs.size() - 1 && valid != Files.size(file)) {
+                throw new IOException("The board log " + file + " is damaged at byte " + valid);
+            }
+            last = n;
+            lastValid = valid;
+        }
+        generation = last;
+        log = new WriteAheadLog(logFile(last), lastValid);
+        deleteBefore(base);
+    }
+
+    //add a record to the log; see WriteAheadLog.append
+    long append(byte[] payload, int length) {
+        return log.append(payload, length);
+    }
+
+    //see WriteAheadLog.sync
+    int sync(long sequence) throws IOException {
+        return log.sync(sequence);
+    }
+
+    boolean needsCheckpoint() {
+        return log.size() >= CHECKPOINT_BYTES;
+    }
+
+    //the first step of a checkpoint, taken while writers are kept out: continue in a new log,
+    //returning the generation of the snapshot the caller must now write
+    long roll() throws IOException {
+        log.roll(logFile(generation + 1));
+        return ++generation;
+    }
+
+    //the second step: write the snapshot from the records the caller passes to the writer,
+    //then drop the files it replaces
+    void writeSnapshot(long n, SnapshotBody body) throws IOException {
+        Path tmp = dir.resolve(SNAPSHOT + n + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            SnapshotWriter writer = new SnapshotWriter(out);
+            BoardRecords.Out header = new BoardRecords.Out();
+            header.putLong(MAGIC_AND_VERSION);
+            header.putLong(n);
+            writer.add(header);
+            body.writeTo(writer);
+            writer.flush();
+            out.force(true);
+        }
+        try {
+            Files.move(tmp, snapshotFile(n), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, snapshotFile(n), StandardCopyOption.REPLACE_EXISTING);
+        }
+        deleteBefore(n);
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    private void readSnapshot(Path file, long n, Consumer<ByteBuffer> handler) throws IOException {
+        //0 before the header frame, 1 after a good one, -1 after a bad one
+        int[] header = { 0 };
+        long valid = WriteAheadLog.read(file, payload -> {
+            if (header[0] == 0) {
+                boolean good = payload.remaining() == 16 && payload.getLong() == MAGIC_AND_VERSION && payload.getLong() == n;
+                header[0] = good ? 1 : -1;
+            } else if (header[0] == 1) {
+                handler.accept(payload);
+            }
+        });
+        //the snapshot was forced before it was renamed, so any shortfall is damage
+        if (header[0] != 1 || valid != Files.size(file)) {
+            throw new IOException("The board snapshot " + file + " is damaged at byte " + valid);
+        }
+    }
+
+    //delete the snapshots and logs older than generation n
+    private void deleteBefore(long n) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) continue;
+                if ((name.startsWith(SNAPSHOT) && generation(name, SNAPSHOT) < n)
+                        || (name.startsWith(LOG) && generation(name, LOG) < n)) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private Path snapshotFile(long n) {
+        return dir.resolve(SNAPSHOT + n);
+    }
+
+    private Path logFile(long n) {
+        return dir.resolve(LOG + n);
+    }
+
+    private static long generation(String name, String prefix) throws IOException {
+        try {
+            return Long.parseLong(name.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException("Unexpected file " + name + " in the board directory");
+        }
+    }
+
+    //what the board writes into a snapshot
+    interface SnapshotBody {
+        void writeTo(SnapshotWriter writer) throws IOException;
+    }
+
+    //buffers the frames of a snapshot and writes them a megabyte at a time
+    static final class SnapshotWriter {
+        private final FileChannel out;
+        private final CRC32C crc = new CRC32C();
+        private ByteBuffer buf = ByteBuffer.allocate(1 << 20);
+
+        private SnapshotWriter(FileChannel out) {
+            this.out = out;
+        }
+
+        void add(BoardRecords.Out record) throws IOException {
+            int frame = WriteAheadLog.FRAME_HEADER + record.length();
+            if (buf.remaining() < frame) {
+                flush();
+                if (buf.capacity() < frame) buf = ByteBuffer.allocate(frame);
+            }
+            WriteAheadLog.frame(buf, crc, record.array(), record.length());
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) out.write(buf);
+            buf.clear();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package databasePart1;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//post bodies kept off the heap, in memory-mapped segment files that are only ever appended to.
+//a body is stored once and referred to by a handle that packs its segment, offset and length
+//into a long, so a board row costs 8 bytes for its body instead of a String. each entry is the
+//owner (the row the body belongs to), the length and the UTF-8 bytes.
+//
+//replacing or freeing a body leaves dead bytes behind. once a full segment is less than half
+//live, compaction copies its live entries to the end of the current segment, tells the owners
+//their new handles, and deletes the file.
+//
+//the files are a cache of bodies the board also keeps elsewhere (the log and snapshots), so
+//they are cleared when the store is opened. not thread-safe: the board's lock guards it, with
+//any number of gets at once or one put, free or compaction.
+final class ContentStore {
+    static final int SEGMENT_BYTES = 64 << 20;
+    //the handle layout: segment (16 bits), offset (28 bits), length (20 bits)
+    static final int MAX_BYTES = (1 << 20) - 1;
+    private static final int MAX_SEGMENTS = 1 << 16;
+    private static final int ENTRY_HEADER = 12;
+    private static final String PREFIX = "content-";
+
+    //who owns each entry, so compaction can move the live ones
+    interface Owners {
+        //the handle the owner holds now, or -1 if it holds none
+        long handleOf(long owner);
+
+        void moved(long owner, long handle);
+    }
+
+    private final Path dir;
+    //by segment number; null once a segment has been compacted away
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private long[] liveBytes = new long[16];
+    private MappedByteBuffer current;
+    private int currentNumber = -1;
+    private int used;
+
+    ContentStore(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*")) {
+            for (Path file : files) Files.delete(file);
+        }
+        startSegment();
+    }
+
+    //store the body, returning its handle
+    long put(long owner, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_BYTES) throw new IllegalArgumentException("content of " + bytes.length + " bytes is too long");
+        return append(owner, bytes, 0, bytes.length);
+    }
+
+    String get(long handle) {
+        MappedByteBuffer segment = segments.get(segment(handle));
+        byte[] bytes = new byte[length(handle)];
+        segment.get(offset(handle) + ENTRY_HEADER, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    //the body, or null when its segment has been compacted away since the handle was given out
+    String getIfPresent(long handle) {
+        return segments.get(segment(handle)) == null ? null : get(handle);
+    }
+
+    //the body is no longer referred to; true when that leaves a full segment less than half
+    //live, so compact is worth calling
+    boolean free(long handle) {
+        int n = segment(handle);
+        liveBytes[n] -= ENTRY_HEADER + length(handle);
+        return n != currentNumber && liveBytes[n] * 2 < SEGMENT_BYTES;
+    }
+
+    //compact every full segment that is less than half live
+    void compact(Owners owners) throws IOException {
+        for (int n = 0; n < segments.size(); n++) {
+            MappedByteBuffer segment = segments.get(n);
+            if (segment == null || n == currentNumber || liveBytes[n] * 2 >= SEGMENT_BYTES) continue;
+            long live = liveBytes[n];
+            for (int offset = 0; live > 0 && offset + ENTRY_HEADER <= SEGMENT_BYTES; ) {
+                long owner = segment.getLong(offset);
+                int length = segment.getInt(offset + 8);
+                if (length < 0) break; //the unused end of the segment
+                long handle = handle(n, offset, length);
+                if (owners.handleOf(owner) == handle) {
+                    byte[] bytes = new byte[length];
+                    segment.get(offset + ENTRY_HEADER, bytes);
+                    owners.moved(owner, append(owner, bytes, 0, length));
+                    live -= ENTRY_HEADER + length;
+                }
+                offset += ENTRY_HEADER + length;
+            }
+            segments.set(n, null);
+            liveBytes[n] = 0;
+            Path file = file(n);
+            try {
+                Files.delete(file);
+            } catch (IOException e) {
+                //still mapped on platforms that lock mapped files; it goes when the mapping does
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    //the live bytes in the store, entry headers included
+    long liveBytes() {
+        return Arrays.stream(liveBytes).sum();
+    }
+
+    private long append(long owner, byte[] bytes, int from, int length) throws IOException {
+        if (used + ENTRY_HEADER + length > SEGMENT_BYTES) startSegment();
+        int offset = used;
+        current.putLong(offset, owner);
+        current.putInt(offset + 8, length);
+        current.put(offset + ENTRY_HEADER, bytes, from, length);
+        used += ENTRY_HEADER + length;
+        liveBytes[currentNumber] += ENTRY_HEADER + length;
+        return handle(currentNumber, offset, length);
+    }
+
+    private void startSegment() throws IOException {
+        if (current != null && used + ENTRY_HEADER <= SEGMENT_BYTES) {
+            current.putInt(used + 8, -1); //marks the end for compaction
+        }
+        int n = segments.size();
+        if (n == MAX_SEGMENTS) throw new IOException("the content store is out of segment numbers");
+        try (FileChannel channel = FileChannel.open(file(n), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            current = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+        }
+        segments.add(current);
+        if (n == liveBytes.length) liveBytes = Arrays.copyOf(liveBytes, n * 2);
+        currentNumber = n;
+        used = 0;
+    }
+
+    private Path file(int n) {
+        return dir.resolve(PREFIX + n);
+    }
+
+    private static long handle(int segment, int offset, int length) {
+        return ((long) segment << 48) | ((long) offset << 20) | length;
+    }
+
+    private static int segment(long handle) {
+        return (int) (handle >>> 48);
+    }
+
+    private static int offset(long handle) {
+        return (int) (handle >>> 20) & ((1 << 28) - 1);
+    }
+
+    private static int length(long handle) {
+        return (int) handle & MAX_BYTES;
+    }
+}
@@ -0,0 +1,43 @@
+package databasePart1;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+//where the application keeps its data, in one place for DatabaseHelper and DiscussionBoardDAO.
+//  -Dboard.db.url=...        another H2 database, e.g. jdbc:h2:mem:board;DB_CLOSE_DELAY=-1
+//  -Dboard.storage=memory    keep the discussion board in an InMemoryDiscussionBoard (lost on exit)
+//  -Dboard.data.dir=DIR      with board.storage=memory, keep that board's log and snapshots in DIR
+//                            so it survives a restart
+//  -Dboard.snapshot=FILE     where the question list is saved for the next start (QuestionSnapshot)
+public final class DatabaseConfig {
+    public static final String JDBC_DRIVER = "org.h2.Driver";
+    public static final String DEFAULT_URL = "jdbc:h2:~/FoundationDatabase";
+    public static final String USER = "sa";
+    public static final String PASS = "";
+
+    private DatabaseConfig() {
+    }
+
+    //the JDBC URL of the application database
+    public static String url() {
+        return System.getProperty("board.db.url", DEFAULT_URL);
+    }
+
+    //whether the discussion board is kept in memory instead of the database
+    public static boolean inMemoryBoard() {
+        return "memory".equalsIgnoreCase(System.getProperty("board.storage", "h2"));
+    }
+
+    //the directory an in-memory board is kept in, or null when it is not kept
+    public static Path boardDataDir() {
+        String dir = System.getProperty("board.data.dir");
+        return dir == null || dir.isBlank() ? null : Paths.get(dir);
+    }
+
+    //the file the question list is saved in for the next start
+    public static Path questionSnapshotPath() {
+        String file = System.getProperty("board.snapshot");
+        return file == null || file.isBlank() ? Paths.get(System.getProperty("user.home"), "FoundationDatabase.questions")
+                : Paths.get(file);
+    }
+}
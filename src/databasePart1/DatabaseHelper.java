@@ -15,23 +15,36 @@ import application.User;
  */
 public class DatabaseHelper {
 
-	// JDBC driver name and database URL
-	static final String JDBC_DRIVER = "org.h2.Driver";
-	static final String DB_URL = "jdbc:h2:~/FoundationDatabase";
-
-	//  Database credentials
-	static final String USER = "sa";
-	static final String PASS = "";
-
+	// Per-method metrics, shared by every helper instance (see DatabaseMetrics).
+	private static final OperationMetrics IS_DATABASE_EMPTY = DatabaseMetrics.operation("helper.isDatabaseEmpty");
+	private static final OperationMetrics REGISTER = DatabaseMetrics.operation("helper.register");
+	private static final OperationMetrics LOGIN = DatabaseMetrics.operation("helper.login");
+	private static final OperationMetrics DOES_USER_EXIST = DatabaseMetrics.operation("helper.doesUserExist");
+	private static final OperationMetrics GET_USER_ROLE = DatabaseMetrics.operation("helper.getUserRole");
+	private static final OperationMetrics GENERATE_INVITATION_CODE = DatabaseMetrics.operation("helper.generateInvitationCode");
+	private static final OperationMetrics VALIDATE_INVITATION_CODE = DatabaseMetrics.operation("helper.validateInvitationCode");
+	private static final OperationMetrics MARK_INVITATION_CODE_AS_USED = DatabaseMetrics.operation("helper.markInvitationCodeAsUsed");
+
+	private final String dbUrl;
 	private Connection connection = null;
 	private Statement statement = null;
+	private volatile DiscussionBoardRepository discussionBoard = null;
 	//	PreparedStatement pstmt
 
+	public DatabaseHelper() {
+		this(DatabaseConfig.url());
+	}
+
+	// Uses another database, e.g. an in-memory one for load tests.
+	public DatabaseHelper(String dbUrl) {
+		this.dbUrl = dbUrl;
+	}
+
 	public void connectToDatabase() throws SQLException {
 		try {
-			Class.forName(JDBC_DRIVER); // Load the JDBC driver
+			Class.forName(DatabaseConfig.JDBC_DRIVER); // Load the JDBC driver
 			System.out.println("Connecting to database...");
-			connection = DriverManager.getConnection(DB_URL, USER, PASS);
+			connection = DriverManager.getConnection(dbUrl, DatabaseConfig.USER, DatabaseConfig.PASS);
 			statement = connection.createStatement();
 			// You can use this command to clear the database and restart from fresh.
 			// statement.execute("DROP ALL OBJECTS");
@@ -60,50 +73,60 @@ public class DatabaseHelper {
 
 	// Check if the database is empty
 	public boolean isDatabaseEmpty() throws SQLException {
-		String query = "SELECT COUNT(*) AS count FROM cse360users";
-		ResultSet resultSet = statement.executeQuery(query);
-		if (resultSet.next()) {
-			return resultSet.getInt("count") == 0;
-		}
-		return true;
+		return IS_DATABASE_EMPTY.time(() -> {
+			String query = "SELECT COUNT(*) AS count FROM cse360users";
+			ResultSet resultSet = statement.executeQuery(query);
+			if (resultSet.next()) {
+				return resultSet.getInt("count") == 0;
+			}
+			return true;
+		}, empty -> 1);
 	}
 
 	// Registers a new user in the database.
 	public void register(User user) throws SQLException {
-		String insertUser = "INSERT INTO cse360users (userName, password, role) VALUES (?, ?, ?)";
-		try (PreparedStatement pstmt = connection.prepareStatement(insertUser)) {
-			pstmt.setString(1, user.getUserName());
-			pstmt.setString(2, user.getPassword());
-			pstmt.setString(3, user.getRole());
-			pstmt.executeUpdate();
-		}
+		REGISTER.time(() -> {
+			String insertUser = "INSERT INTO cse360users (userName, password, role) VALUES (?, ?, ?)";
+			try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, insertUser)) {
+				pstmt.setString(1, user.getUserName());
+				pstmt.setString(2, user.getPassword());
+				pstmt.setString(3, user.getRole());
+				return pstmt.executeUpdate();
+			}
+		}, inserted -> inserted);
 	}
 
 	// Validates a user's login credentials.
 	public boolean login(User user) throws SQLException {
-		String query = "SELECT * FROM cse360users WHERE userName = ? AND password = ? AND role = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, user.getUserName());
-			pstmt.setString(2, user.getPassword());
-			pstmt.setString(3, user.getRole());
-			try (ResultSet rs = pstmt.executeQuery()) {
-				return rs.next();
+		return LOGIN.time(() -> {
+			String query = "SELECT * FROM cse360users WHERE userName = ? AND password = ? AND role = ?";
+			try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, query)) {
+				pstmt.setString(1, user.getUserName());
+				pstmt.setString(2, user.getPassword());
+				pstmt.setString(3, user.getRole());
+				try (ResultSet rs = pstmt.executeQuery()) {
+					return rs.next();
+				}
 			}
-		}
+		}, found -> found ? 1 : 0);
 	}
 
 	// Checks if a user already exists in the database based on their userName.
 	public boolean doesUserExist(String userName) {
 	    String query = "SELECT COUNT(*) FROM cse360users WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-
-	        pstmt.setString(1, userName);
-	        ResultSet rs = pstmt.executeQuery();
-
-	        if (rs.next()) {
-	            // If the count is greater than 0, the user exists
-	            return rs.getInt(1) > 0;
-	        }
+	    try {
+	        return DOES_USER_EXIST.time(() -> {
+	            try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, query)) {
+	                pstmt.setString(1, userName);
+	                ResultSet rs = pstmt.executeQuery();
+
+	                if (rs.next()) {
+	                    // If the count is greater than 0, the user exists
+	                    return rs.getInt(1) > 0;
+	                }
+	            }
+	            return false;
+	        }, exists -> exists ? 1 : 0);
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -113,13 +136,18 @@ public class DatabaseHelper {
 	// Retrieves the role of a user from the database using their UserName.
 	public String getUserRole(String userName) {
 	    String query = "SELECT role FROM cse360users WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-	        pstmt.setString(1, userName);
-	        ResultSet rs = pstmt.executeQuery();
-
-	        if (rs.next()) {
-	            return rs.getString("role"); // Return the role if user exists
-	        }
+	    try {
+	        return GET_USER_ROLE.time(() -> {
+	            try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, query)) {
+	                pstmt.setString(1, userName);
+	                ResultSet rs = pstmt.executeQuery();
+
+	                if (rs.next()) {
+	                    return rs.getString("role"); // Return the role if user exists
+	                }
+	            }
+	            return null;
+	        }, role -> role == null ? 0 : 1);
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -131,9 +159,13 @@ public class DatabaseHelper {
 	    String code = UUID.randomUUID().toString().substring(0, 4); // Generate a random 4-character code
 	    String query = "INSERT INTO InvitationCodes (code) VALUES (?)";
 
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-	        pstmt.setString(1, code);
-	        pstmt.executeUpdate();
+	    try {
+	        GENERATE_INVITATION_CODE.time(() -> {
+	            try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, query)) {
+	                pstmt.setString(1, code);
+	                return pstmt.executeUpdate();
+	            }
+	        }, inserted -> inserted);
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
@@ -144,33 +176,68 @@ public class DatabaseHelper {
 	// Validates an invitation code to check if it is unused.
 	public boolean validateInvitationCode(String code) {
 	    String query = "SELECT * FROM InvitationCodes WHERE code = ? AND isUsed = FALSE";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-	        pstmt.setString(1, code);
-	        ResultSet rs = pstmt.executeQuery();
-	        if (rs.next()) {
-	            // Mark the code as used
-	            markInvitationCodeAsUsed(code);
-	            return true;
-	        }
+	    boolean valid = false;
+	    try {
+	        valid = VALIDATE_INVITATION_CODE.time(() -> {
+	            try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, query)) {
+	                pstmt.setString(1, code);
+	                ResultSet rs = pstmt.executeQuery();
+	                return rs.next();
+	            }
+	        }, found -> found ? 1 : 0);
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
-	    return false;
+	    if (valid) {
+	        // Mark the code as used
+	        markInvitationCodeAsUsed(code);
+	    }
+	    return valid;
 	}
 
 	// Marks the invitation code as used in the database.
 	private void markInvitationCodeAsUsed(String code) {
 	    String query = "UPDATE InvitationCodes SET isUsed = TRUE WHERE code = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-	        pstmt.setString(1, code);
-	        pstmt.executeUpdate();
+	    try {
+	        MARK_INVITATION_CODE_AS_USED.time(() -> {
+	            try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, query)) {
+	                pstmt.setString(1, code);
+	                return pstmt.executeUpdate();
+	            }
+	        }, updated -> updated);
 	    } catch (SQLException e) {
 	        e.printStackTrace();
 	    }
 	}
 
+	// The discussion board storage: a DAO on the same database, or an in-memory board when
+	// board.storage=memory, kept in board.data.dir if that is set (see DatabaseConfig).  It is
+	// opened on first use and then shared by every page, so visiting the board does not open
+	// another connection.
+	public synchronized DiscussionBoardRepository getDiscussionBoard() throws SQLException {
+		if (discussionBoard == null) {
+			if (!DatabaseConfig.inMemoryBoard()) {
+				discussionBoard = new DiscussionBoardDAO(dbUrl);
+			} else if (DatabaseConfig.boardDataDir() != null) {
+				discussionBoard = InMemoryDiscussionBoard.open(DatabaseConfig.boardDataDir());
+			} else {
+				discussionBoard = new InMemoryDiscussionBoard();
+			}
+		}
+		return discussionBoard;
+	}
+
+	// The discussion board if it is open already, without waiting for it; otherwise null.
+	public DiscussionBoardRepository openedDiscussionBoard() {
+		return discussionBoard;
+	}
+
 	// Closes the database connection and statement.
 	public void closeConnection() {
+		synchronized (this) {
+			if (discussionBoard != null) discussionBoard.closeConnection();
+			discussionBoard = null;
+		}
 		try{
 			if(statement!=null) statement.close();
 		} catch(SQLException se2) {
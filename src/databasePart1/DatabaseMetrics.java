@@ -0,0 +1,95 @@
+package databasePart1;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+//the registry of OperationMetrics for the database layer. every operation is registered as a
+//JMX MBean under FoundationCode:type=DatabaseMetrics,name=<operation>, and the whole table can
+//be printed on demand or on a schedule.
+public class DatabaseMetrics {
+    private static final Map<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService dumper;
+
+    private DatabaseMetrics() {
+    }
+
+    //the metrics for the named operation, created and registered on first use
+    public static OperationMetrics operation(String name) {
+        return OPERATIONS.computeIfAbsent(name, n -> {
+            OperationMetrics metrics = new OperationMetrics(n);
+            register(metrics);
+            return metrics;
+        });
+    }
+
+    public static List<OperationMetrics> getOperations() {
+        List<OperationMetrics> list = new ArrayList<>(OPERATIONS.values());
+        list.sort(Comparator.comparing(OperationMetrics::getName));
+        return list;
+    }
+
+    public static void resetAll() {
+        for (OperationMetrics metrics : OPERATIONS.values()) metrics.reset();
+    }
+
+    //the metrics table, one line per operation that has been called
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-36s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "calls", "errors", "rows", "mean ms", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (OperationMetrics m : getOperations()) {
+            if (m.getCalls() == 0) continue;
+            sb.append(String.format("%-36s %9d %7d %10d %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                    m.getName(), m.getCalls(), m.getErrors(), m.getRows(), m.getMeanMillis(),
+                    m.getP50Millis(), m.getP99Millis(), m.getP999Millis(), m.getMaxMillis()));
+        }
+        return sb.toString();
+    }
+
+    //print the table every intervalSeconds on a daemon thread, skipping intervals with no calls
+    public static synchronized void startPeriodicDump(long intervalSeconds) {
+        if (dumper != null || intervalSeconds <= 0) return;
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "database-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        long[] lastCalls = { 0 };
+        dumper.scheduleAtFixedRate(() -> {
+            long calls = 0;
+            for (OperationMetrics m : OPERATIONS.values()) calls += m.getCalls();
+            if (calls == lastCalls[0]) return;
+            lastCalls[0] = calls;
+            System.out.print("Database metrics:" + System.lineSeparator() + dump());
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stopPeriodicDump() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    private static void register(OperationMetrics metrics) {
+        try {
+            ObjectName objectName = new ObjectName("FoundationCode:type=DatabaseMetrics,name="
+                    + ObjectName.quote(metrics.getName()));
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName))
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+        } catch (JMException e) {
+            //metrics still work without JMX
+            System.err.println("Could not register " + metrics.getName() + " with JMX: " + e.getMessage());
+        }
+    }
+}
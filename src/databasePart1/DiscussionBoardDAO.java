@@ -3,44 +3,91 @@ package databasePart1;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import application.Question;
+import application.QuestionQuery;
 import application.Answer;
 import application.Questions;
 import application.Answers;
 import application.Reply;
 import application.Replies;
+import textSearch.SimHash;
+
+//data access object for the discussion board, kept in H2
+public class DiscussionBoardDAO implements DiscussionBoardRepository {
+    //per-method metrics, shared by every DAO instance (see DatabaseMetrics)
+    private static final OperationMetrics CREATE_QUESTION = DatabaseMetrics.operation("dao.createQuestion");
+    private static final OperationMetrics GET_ALL_QUESTIONS = DatabaseMetrics.operation("dao.getAllQuestions");
+    private static final OperationMetrics QUERY_QUESTIONS = DatabaseMetrics.operation("dao.queryQuestions");
+    private static final OperationMetrics GET_QUESTION_BY_ID = DatabaseMetrics.operation("dao.getQuestionById");
+    private static final OperationMetrics UPDATE_QUESTION = DatabaseMetrics.operation("dao.updateQuestion");
+    private static final OperationMetrics DELETE_QUESTION = DatabaseMetrics.operation("dao.deleteQuestion");
+    private static final OperationMetrics CREATE_ANSWER = DatabaseMetrics.operation("dao.createAnswer");
+    private static final OperationMetrics GET_ANSWERS_FOR_QUESTION = DatabaseMetrics.operation("dao.getAnswersForQuestion");
+    private static final OperationMetrics GET_ALL_ANSWERS = DatabaseMetrics.operation("dao.getAllAnswers");
+    private static final OperationMetrics UPDATE_ANSWER = DatabaseMetrics.operation("dao.updateAnswer");
+    private static final OperationMetrics DELETE_ANSWER = DatabaseMetrics.operation("dao.deleteAnswer");
+    private static final OperationMetrics GET_ANSWER_BY_ID = DatabaseMetrics.operation("dao.getAnswerById");
+    private static final OperationMetrics CREATE_REPLY = DatabaseMetrics.operation("dao.createReply");
+    private static final OperationMetrics GET_REPLIES_FOR_ANSWER = DatabaseMetrics.operation("dao.getRepliesForAnswer");
+    private static final OperationMetrics GET_ALL_REPLIES = DatabaseMetrics.operation("dao.getAllReplies");
+    private static final OperationMetrics UPDATE_REPLY = DatabaseMetrics.operation("dao.updateReply");
+    private static final OperationMetrics DELETE_REPLY = DatabaseMetrics.operation("dao.deleteReply");
+    private static final OperationMetrics FIND_NEAR_DUPLICATES = DatabaseMetrics.operation("dao.findNearDuplicates");
+    private static final OperationMetrics COUNT_QUESTIONS = DatabaseMetrics.operation("dao.countQuestions");
+    private static final OperationMetrics COUNT_BOARD_ROWS = DatabaseMetrics.operation("dao.countBoardRows");
 
-//data access object for the discussion board
-public class DiscussionBoardDAO {
     private Connection connection;
     private Statement statement;
-
-    //db credentials (from DatabaseHelper)
-
-    // JDBC driver name and database URL 
-	static final String JDBC_DRIVER = "org.h2.Driver";   
-	static final String DB_URL = "jdbc:h2:~/FoundationDatabase";  
-
-	//  Database credentials 
-	static final String USER = "sa"; 
-	static final String PASS = ""; 
+    //told about each successful write (see DiscussionBoardListener)
+    private final CopyOnWriteArrayList<DiscussionBoardListener> listeners = new CopyOnWriteArrayList<>();
+    //counts the successful writes, so a page can tell whether what it loaded is still current
+    private final AtomicLong writeVersion = new AtomicLong();
 
     //constructor
     public DiscussionBoardDAO() throws SQLException {
-        connectToDatabase();
+        this(DatabaseConfig.url());
+    }
+    //constructor for another database, e.g. an in-memory one for benchmarks
+    public DiscussionBoardDAO(String dbUrl) throws SQLException {
+        connectToDatabase(dbUrl);
     }
     //connect to db 
-    private void connectToDatabase() throws SQLException {
+    private void connectToDatabase(String dbUrl) throws SQLException {
         try {
-            Class.forName(JDBC_DRIVER);
-            connection = DriverManager.getConnection(DB_URL, USER, PASS);
+            Class.forName(DatabaseConfig.JDBC_DRIVER);
+            connection = DriverManager.getConnection(dbUrl, DatabaseConfig.USER, DatabaseConfig.PASS);
             statement = connection.createStatement();
             createTables();
         } catch (ClassNotFoundException e) {
             throw new SQLException("Failed to connect to the database", e);
         }
     }
+    //register a listener for the writes made through this DAO (once, however often it is added)
+    public void addListener(DiscussionBoardListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+    public void removeListener(DiscussionBoardListener listener) {
+        listeners.remove(listener);
+    }
+    //the number of writes made through this DAO so far
+    public long getWriteVersion() {
+        return writeVersion.get();
+    }
+    //count a write that went through and tell every listener about it
+    private void fire(Consumer<DiscussionBoardListener> event) {
+        writeVersion.incrementAndGet();
+        for (DiscussionBoardListener listener : listeners) {
+            event.accept(listener);
+        }
+    }
     //create the tables
     private void createTables() throws SQLException {
         //questions table.
@@ -80,268 +127,491 @@ public class DiscussionBoardDAO {
     "FOREIGN KEY (answerId) REFERENCES answers(answerId))";
 
     statement.execute(repliesTable);
+
+    //indexes for the question filters and for the default newest-first order
+    statement.execute("CREATE INDEX IF NOT EXISTS idx_questions_created ON questions(createdAt)");
+    statement.execute("CREATE INDEX IF NOT EXISTS idx_questions_author ON questions(authorUserName, createdAt)");
+    statement.execute("CREATE INDEX IF NOT EXISTS idx_questions_answered ON questions(isAnswered, createdAt)");
+    statement.execute("CREATE INDEX IF NOT EXISTS idx_questions_category ON questions(category, createdAt)");
+
+    //near-duplicate fingerprint of each question and its bands, one index per band (see SimHash);
+    //the questions already stored are fingerprinted once, when the columns are added
+    boolean fingerprinted = hasColumn("QUESTIONS", "SIMHASH");
+    statement.execute("ALTER TABLE questions ADD COLUMN IF NOT EXISTS simHash BIGINT");
+    for (int band = 0; band < SimHash.BANDS; band++) {
+        statement.execute("ALTER TABLE questions ADD COLUMN IF NOT EXISTS simBand" + band + " INT");
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_questions_simband" + band + " ON questions(simBand" + band + ")");
+    }
+    if (!fingerprinted) fingerprintOldQuestions();
+    }
+    private boolean hasColumn(String table, String column) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getColumns(null, null, table, column)) {
+            return rs.next();
+        }
+    }
+    //the band columns of the fingerprint, one per band: each band's text (with %d for the band
+    //number) joined by the separator
+    private static String eachBand(String format, String separator) {
+        StringJoiner joined = new StringJoiner(separator);
+        for (int band = 0; band < SimHash.BANDS; band++) {
+            joined.add(String.format(format, band));
+        }
+        return joined.toString();
+    }
+    //fingerprint the questions stored before the fingerprint columns existed
+    private void fingerprintOldQuestions() throws SQLException {
+        String select = "SELECT questionId, title, content FROM questions WHERE simHash IS NULL";
+        String update = "UPDATE questions SET simHash = ?, " + eachBand("simBand%d = ?", ", ") + " WHERE questionId = ?";
+        try (PreparedStatement query = SlowQueryLog.prepare(connection, select);
+             PreparedStatement pstmt = SlowQueryLog.prepare(connection, update);
+             ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                setFingerprint(pstmt, 1, rs.getString("title"), rs.getString("content"));
+                pstmt.setInt(2 + SimHash.BANDS, rs.getInt("questionId"));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+    //bind the fingerprint and its bands to the parameters from index on
+    private static void setFingerprint(PreparedStatement pstmt, int index, String title, String content) throws SQLException {
+        long fingerprint = SimHash.of(title, content);
+        pstmt.setLong(index, fingerprint);
+        for (int band = 0; band < SimHash.BANDS; band++) {
+            pstmt.setInt(index + 1 + band, SimHash.band(fingerprint, band));
+        }
     }
     //insert a question 
     public int createQuestion(Question question) throws SQLException {
-        String sql = "INSERT INTO questions (title, content, authorUserName, category) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, question.getTitle());
-            pstmt.setString(2, question.getContent());
-            pstmt.setString(3, question.getAuthorUserName());
-            pstmt.setString(4, question.getCategory());
-            pstmt.executeUpdate();
-            //return the question id
-            ResultSet rs = pstmt.getGeneratedKeys();
-            if (rs.next()) {
-                int generatedId = rs.getInt(1);
-                question.setQuestionId(generatedId);
-                return generatedId;
+        int newId = CREATE_QUESTION.time(() -> {
+            String sql = "INSERT INTO questions (title, content, authorUserName, category, simHash, "
+                    + eachBand("simBand%d", ", ") + ") VALUES (?, ?, ?, ?, ?, " + eachBand("?", ", ") + ")";
+            try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, question.getTitle());
+                pstmt.setString(2, question.getContent());
+                pstmt.setString(3, question.getAuthorUserName());
+                pstmt.setString(4, question.getCategory());
+                setFingerprint(pstmt, 5, question.getTitle(), question.getContent());
+                pstmt.executeUpdate();
+                //return the question id
+                ResultSet rs = pstmt.getGeneratedKeys();
+                if (rs.next()) {
+                    int generatedId = rs.getInt(1);
+                    question.setQuestionId(generatedId);
+                    return generatedId;
+                }
             }
-        }
             return -1;
+        }, id -> id > 0 ? 1 : 0);
+        if (newId > 0) fire(l -> l.questionSaved(question));
+        return newId;
         }
         //get all questions
         public Questions getAllQuestions() throws SQLException {
-            Questions questions = new Questions();
-            String sql = "SELECT * FROM questions ORDER BY createdAt DESC";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql);
-                 ResultSet rs = pstmt.executeQuery()) {
+            return GET_ALL_QUESTIONS.time(() -> {
+                Questions questions = new Questions();
+                String sql = "SELECT * FROM questions ORDER BY createdAt DESC";
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql);
+                     ResultSet rs = pstmt.executeQuery()) {
                 
-                while (rs.next()) {
-                    Question q = extractQuestionFromResultSet(rs);
-                    questions.addQuestion(q);
+                    while (rs.next()) {
+                        Question q = extractQuestionFromResultSet(rs);
+                        questions.addQuestion(q);
+                    }
+                }
+                return questions;
+            }, Questions::size);
+        }
+        //run a combined query as one parameterized statement
+        public Questions queryQuestions(QuestionQuery query) throws SQLException {
+            return QUERY_QUESTIONS.time(() -> {
+                StringBuilder sql = new StringBuilder("SELECT * FROM questions");
+                List<Object> params = new ArrayList<>();
+                appendCriteria(query, sql, params);
+                switch (query.getSort()) {
+                    case OLDEST: sql.append(" ORDER BY createdAt ASC, questionId ASC"); break;
+                    case RECENTLY_UPDATED: sql.append(" ORDER BY updatedAt DESC, questionId ASC"); break;
+                    case TITLE: sql.append(" ORDER BY LOWER(title) ASC, questionId ASC"); break;
+                    default: sql.append(" ORDER BY createdAt DESC, questionId ASC"); break;
                 }
+                if (query.getPageSize() > 0) {
+                    sql.append(" LIMIT ? OFFSET ?");
+                    params.add(query.getPageSize());
+                    params.add(query.getOffset());
+                }
+
+                Questions questions = new Questions();
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql.toString())) {
+                    for (int i = 0; i < params.size(); i++) pstmt.setObject(i + 1, params.get(i));
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            questions.addQuestion(extractQuestionFromResultSet(rs));
+                        }
+                    }
+                }
+                return questions;
+            }, Questions::size);
+        }
+        //the number of questions a combined query matches, sort and page aside
+        public int countQuestions(QuestionQuery query) throws SQLException {
+            return COUNT_QUESTIONS.time(() -> {
+                StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM questions");
+                List<Object> params = new ArrayList<>();
+                appendCriteria(query, sql, params);
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql.toString())) {
+                    for (int i = 0; i < params.size(); i++) pstmt.setObject(i + 1, params.get(i));
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        rs.next();
+                        return rs.getInt(1);
+                    }
+                }
+            }, count -> 1);
+        }
+        //the WHERE clause of a combined query, with its parameters
+        private static void appendCriteria(QuestionQuery query, StringBuilder sql, List<Object> params) {
+            sql.append(" WHERE TRUE");
+            if (query.getAnswered() != null) {
+                sql.append(" AND isAnswered = ?");
+                params.add(query.getAnswered());
+            }
+            if (query.getAuthor() != null) {
+                sql.append(" AND authorUserName = ?");
+                params.add(query.getAuthor());
+            }
+            if (query.getCategory() != null) {
+                sql.append(" AND category = ?");
+                params.add(query.getCategory());
+            }
+            if (query.getCreatedFrom() != null) {
+                sql.append(" AND createdAt >= ?");
+                params.add(Timestamp.valueOf(query.getCreatedFrom()));
+            }
+            if (query.getCreatedBefore() != null) {
+                sql.append(" AND createdAt < ?");
+                params.add(Timestamp.valueOf(query.getCreatedBefore()));
+            }
+            if (query.getKeyword() != null) {
+                //the keyword is already lower case; escape the LIKE wildcards in it
+                String pattern = "%" + query.getKeyword().replace("\\", "\\\\")
+                        .replace("%", "\\%").replace("_", "\\_") + "%";
+                sql.append(" AND (LOWER(title) LIKE ? ESCAPE '\\' OR LOWER(content) LIKE ? ESCAPE '\\')");
+                params.add(pattern);
+                params.add(pattern);
             }
-            return questions;
+        }
+        //questions whose fingerprint is within SimHash.MAX_DISTANCE bits of the draft's, closest first;
+        //only the questions sharing a band are read, so the cost does not grow with the board. a
+        //draft with no terms (stop words only) has nothing to compare, so it has no duplicates
+        public Questions findNearDuplicates(String title, String content) throws SQLException {
+            return FIND_NEAR_DUPLICATES.time(() -> {
+                if (!SimHash.hasTerms(title, content)) return new Questions();
+                long fingerprint = SimHash.of(title, content);
+                String sql = "SELECT * FROM questions WHERE questionId IN ("
+                        + eachBand("SELECT questionId FROM questions WHERE simBand%d = ?", " UNION ") + ")";
+                List<Question> matches = new ArrayList<>();
+                Map<Question, Integer> distances = new HashMap<>();
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql)) {
+                    for (int band = 0; band < SimHash.BANDS; band++) {
+                        pstmt.setInt(band + 1, SimHash.band(fingerprint, band));
+                    }
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        int distance = SimHash.distance(fingerprint, rs.getLong("simHash"));
+                        if (distance <= SimHash.MAX_DISTANCE) {
+                            Question q = extractQuestionFromResultSet(rs);
+                            matches.add(q);
+                            distances.put(q, distance);
+                        }
+                    }
+                }
+                matches.sort(Comparator.comparingInt(distances::get));
+                return new Questions(matches);
+            }, Questions::size);
         }
         //get question by id
         public Question getQuestionById(int questionId) throws SQLException {
-            String sql = "SELECT * FROM questions WHERE questionId = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setInt(1, questionId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    return extractQuestionFromResultSet(rs);
+            return GET_QUESTION_BY_ID.time(() -> {
+                String sql = "SELECT * FROM questions WHERE questionId = ?";
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql)) {
+                    pstmt.setInt(1, questionId);
+                    ResultSet rs = pstmt.executeQuery();
+                    if (rs.next()) {
+                        return extractQuestionFromResultSet(rs);
+                    }
                 }
-            }
-            return null;
+                return null;
+            }, q -> q == null ? 0 : 1);
         }
         //update a question
         public boolean updateQuestion(Question question) throws SQLException {
-            String sql = "UPDATE questions SET title = ?, content = ?, updatedAt = ?, "
-                    + "isAnswered = ?, category = ? WHERE questionId = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setString(1, question.getTitle());
-                pstmt.setString(2, question.getContent());
-                pstmt.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
-                pstmt.setBoolean(4, question.getIsAnswered());
-                pstmt.setString(5, question.getCategory());
-                pstmt.setInt(6, question.getQuestionId());
-                return pstmt.executeUpdate() > 0;
-            }
+            boolean changed = UPDATE_QUESTION.time(() -> {
+                String sql = "UPDATE questions SET title = ?, content = ?, updatedAt = ?, "
+                        + "isAnswered = ?, category = ?, simHash = ?, " + eachBand("simBand%d = ?", ", ")
+                        + " WHERE questionId = ?";
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql)) {
+                    pstmt.setString(1, question.getTitle());
+                    pstmt.setString(2, question.getContent());
+                    pstmt.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                    pstmt.setBoolean(4, question.getIsAnswered());
+                    pstmt.setString(5, question.getCategory());
+                    setFingerprint(pstmt, 6, question.getTitle(), question.getContent());
+                    pstmt.setInt(7 + SimHash.BANDS, question.getQuestionId());
+                    return pstmt.executeUpdate() > 0;
+                }
+            }, updated -> updated ? 1 : 0);
+            if (changed) fire(l -> l.questionSaved(question));
+            return changed;
         }
         //delete a question
         public boolean deleteQuestion(int questionId) throws SQLException {
-            String sql = "DELETE FROM questions WHERE questionId = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setInt(1, questionId);
-                return pstmt.executeUpdate() > 0;
-            }
+            boolean removed = DELETE_QUESTION.time(() -> {
+                String sql = "DELETE FROM questions WHERE questionId = ?";
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql)) {
+                    pstmt.setInt(1, questionId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            }, deleted -> deleted ? 1 : 0);
+            if (removed) fire(l -> l.questionDeleted(questionId));
+            return removed;
         }
 
         //ANSWER CRUD OPERATIONS
 
         //insert an answer
         public int createAnswer(Answer answer) throws SQLException {
-            String sql = "INSERT INTO answers (questionId, content, authorUserName, createdAt, updatedAt, isAccepted) "
-                    + "VALUES (?, ?, ?, ?, ?, ?)";
+            int newId = CREATE_ANSWER.time(() -> {
+                String sql = "INSERT INTO answers (questionId, content, authorUserName, createdAt, updatedAt, isAccepted) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)";
             
-            try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                pstmt.setInt(1, answer.getQuestionId());
-                pstmt.setString(2, answer.getContent());
-                pstmt.setString(3, answer.getAuthorUserName()); 
-                pstmt.setTimestamp(4, Timestamp.valueOf(answer.getCreatedAt()));
-                pstmt.setTimestamp(5, Timestamp.valueOf(answer.getUpdatedAt()));
-                pstmt.setBoolean(6, answer.getIsAccepted());
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, answer.getQuestionId());
+                    pstmt.setString(2, answer.getContent());
+                    pstmt.setString(3, answer.getAuthorUserName()); 
+                    pstmt.setTimestamp(4, Timestamp.valueOf(answer.getCreatedAt()));
+                    pstmt.setTimestamp(5, Timestamp.valueOf(answer.getUpdatedAt()));
+                    pstmt.setBoolean(6, answer.getIsAccepted());
                 
-                pstmt.executeUpdate();
+                    pstmt.executeUpdate();
                 
-                // generate answerId
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    int generatedId = rs.getInt(1);
-                    answer.setAnswerId(generatedId);
-                    return generatedId;
+                    // generate answerId
+                    ResultSet rs = pstmt.getGeneratedKeys();
+                    if (rs.next()) {
+                        int generatedId = rs.getInt(1);
+                        answer.setAnswerId(generatedId);
+                        return generatedId;
+                    }
                 }
-            }
-            return -1;
+                return -1;
+            }, id -> id > 0 ? 1 : 0);
+            if (newId > 0) fire(l -> l.answerSaved(answer));
+            return newId;
         }
         //get all answers for a question
         public Answers getAnswersForQuestion(int questionId) throws SQLException {
-            Answers answers = new Answers();
-            String sql = "SELECT * FROM answers WHERE questionId = ? ORDER BY isAccepted DESC, createdAt ASC";
+            return GET_ANSWERS_FOR_QUESTION.time(() -> {
+                Answers answers = new Answers();
+                String sql = "SELECT * FROM answers WHERE questionId = ? ORDER BY isAccepted DESC, createdAt ASC";
             
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setInt(1, questionId);
-                ResultSet rs = pstmt.executeQuery();
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql)) {
+                    pstmt.setInt(1, questionId);
+                    ResultSet rs = pstmt.executeQuery();
                 
-                while (rs.next()) {
-                    Answer a = extractAnswerFromResultSet(rs);
-                    answers.addAnswer(a);
+                    while (rs.next()) {
+                        Answer a = extractAnswerFromResultSet(rs);
+                        answers.addAnswer(a);
+                    }
                 }
-            }
-            return answers;
+                return answers;
+            }, Answers::size);
         }
         //get all answers
         public Answers getAllAnswers() throws SQLException {
-            Answers answers = new Answers();
-            String sql = "SELECT * FROM answers ORDER BY createdAt DESC";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql);
-                 ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Answer a = extractAnswerFromResultSet(rs);
-                    answers.addAnswer(a);
+            return GET_ALL_ANSWERS.time(() -> {
+                Answers answers = new Answers();
+                String sql = "SELECT * FROM answers ORDER BY createdAt DESC";
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql);
+                     ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Answer a = extractAnswerFromResultSet(rs);
+                        answers.addAnswer(a);
+                    }
                 }
-            }
-            return answers;
+                return answers;
+            }, Answers::size);
         }
         //update an answer
         public boolean updateAnswer(Answer answer) throws SQLException {
-            String sql = "UPDATE answers SET content = ?, updatedAt = ?, isAccepted = ?, isCorrect = ? WHERE answerId = ?";
+            boolean changed = UPDATE_ANSWER.time(() -> {
+                String sql = "UPDATE answers SET content = ?, updatedAt = ?, isAccepted = ?, isCorrect = ? WHERE answerId = ?";
             
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setString(1, answer.getContent());
-                pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
-                pstmt.setBoolean(3, answer.getIsAccepted());
-                pstmt.setBoolean(4, answer.isCorrect());
-                pstmt.setInt(5, answer.getAnswerId());
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql)) {
+                    pstmt.setString(1, answer.getContent());
+                    pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                    pstmt.setBoolean(3, answer.getIsAccepted());
+                    pstmt.setBoolean(4, answer.isCorrect());
+                    pstmt.setInt(5, answer.getAnswerId());
                 
-                return pstmt.executeUpdate() > 0;
-            }
+                    return pstmt.executeUpdate() > 0;
+                }
+            }, updated -> updated ? 1 : 0);
+            if (changed) fire(l -> l.answerSaved(answer));
+            return changed;
         }
         //delete an answer
         public boolean deleteAnswer(int answerId) throws SQLException {
-            String sql = "DELETE FROM answers WHERE answerId = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setInt(1, answerId);
-                return pstmt.executeUpdate() > 0;
-            }
+            boolean removed = DELETE_ANSWER.time(() -> {
+                String sql = "DELETE FROM answers WHERE answerId = ?";
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql)) {
+                    pstmt.setInt(1, answerId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            }, deleted -> deleted ? 1 : 0);
+            if (removed) fire(l -> l.answerDeleted(answerId));
+            return removed;
         }
         //get answer by id
         public Answer getAnswerById(int answerId) throws SQLException {
-            String sql = "SELECT * FROM answers WHERE answerId = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setInt(1, answerId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    return extractAnswerFromResultSet(rs);
+            return GET_ANSWER_BY_ID.time(() -> {
+                String sql = "SELECT * FROM answers WHERE answerId = ?";
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql)) {
+                    pstmt.setInt(1, answerId);
+                    ResultSet rs = pstmt.executeQuery();
+                    if (rs.next()) {
+                        return extractAnswerFromResultSet(rs);
+                    }
                 }
-            }
-            return null;
+                return null;
+            }, a -> a == null ? 0 : 1);
         }
         
         //REPLY CRUD OPERATIONS
 
         //insert a reply
         public int createReply(Reply reply) throws SQLException {
-            String sql = "INSERT INTO replies (answerId, content, authorUserName, createdAt, updatedAt) "
-                    + "VALUES (?, ?, ?, ?, ?)";
+            int newId = CREATE_REPLY.time(() -> {
+                String sql = "INSERT INTO replies (answerId, content, authorUserName, createdAt, updatedAt) "
+                        + "VALUES (?, ?, ?, ?, ?)";
             
-            try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-                pstmt.setInt(1, reply.getAnswerId());
-                pstmt.setString(2, reply.getContent());
-                pstmt.setString(3, reply.getAuthorUserName()); 
-                pstmt.setTimestamp(4, Timestamp.valueOf(reply.getCreatedAt()));
-                pstmt.setTimestamp(5, Timestamp.valueOf(reply.getUpdatedAt()));
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, reply.getAnswerId());
+                    pstmt.setString(2, reply.getContent());
+                    pstmt.setString(3, reply.getAuthorUserName()); 
+                    pstmt.setTimestamp(4, Timestamp.valueOf(reply.getCreatedAt()));
+                    pstmt.setTimestamp(5, Timestamp.valueOf(reply.getUpdatedAt()));
                 
-                pstmt.executeUpdate();
+                    pstmt.executeUpdate();
                 
-                // generate replyId
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    int generatedId = rs.getInt(1);
-                    reply.setReplyId(generatedId);
-                    return generatedId;
+                    // generate replyId
+                    ResultSet rs = pstmt.getGeneratedKeys();
+                    if (rs.next()) {
+                        int generatedId = rs.getInt(1);
+                        reply.setReplyId(generatedId);
+                        return generatedId;
+                    }
                 }
-            }
-            return -1;
+                return -1;
+            }, id -> id > 0 ? 1 : 0);
+            if (newId > 0) fire(l -> l.replySaved(reply));
+            return newId;
         }
         //get all replies for an answer
         public Replies getRepliesForAnswer(int answerId) throws SQLException {
-            Replies replies = new Replies();
-            String sql = "SELECT * FROM replies WHERE answerId = ? ORDER BY createdAt ASC";
+            return GET_REPLIES_FOR_ANSWER.time(() -> {
+                Replies replies = new Replies();
+                String sql = "SELECT * FROM replies WHERE answerId = ? ORDER BY createdAt ASC";
             
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setInt(1, answerId);
-                ResultSet rs = pstmt.executeQuery();
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql)) {
+                    pstmt.setInt(1, answerId);
+                    ResultSet rs = pstmt.executeQuery();
                 
-                while (rs.next()) {
-                    Reply r = extractReplyFromResultSet(rs);
-                    replies.addReply(r);
+                    while (rs.next()) {
+                        Reply r = extractReplyFromResultSet(rs);
+                        replies.addReply(r);
+                    }
                 }
-            }
-            return replies;
+                return replies;
+            }, r -> r.getAllReplies().size());
         }
         //get all replies
         public Replies getAllReplies() throws SQLException {
-            Replies replies = new Replies();
-            String sql = "SELECT * FROM answers ORDER BY createdAt DESC";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql);
-                 ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Reply r = extractReplyFromResultSet(rs);
-                    replies.addReply(r);
+            return GET_ALL_REPLIES.time(() -> {
+                Replies replies = new Replies();
+                String sql = "SELECT * FROM replies ORDER BY createdAt DESC";
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql);
+                     ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Reply r = extractReplyFromResultSet(rs);
+                        replies.addReply(r);
+                    }
                 }
-            }
-            return replies;
+                return replies;
+            }, r -> r.getAllReplies().size());
         }
         //update a reply
         public boolean updateReply(Reply reply) throws SQLException {
-            String sql = "UPDATE replies SET content = ?, updatedAt = ? WHERE replyId = ?";
+            boolean changed = UPDATE_REPLY.time(() -> {
+                String sql = "UPDATE replies SET content = ?, updatedAt = ? WHERE replyId = ?";
             
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setString(1, reply.getContent());
-                pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
-                pstmt.setInt(3, reply.getReplyId());
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql)) {
+                    pstmt.setString(1, reply.getContent());
+                    pstmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                    pstmt.setInt(3, reply.getReplyId());
                 
-                return pstmt.executeUpdate() > 0;
-            }
+                    return pstmt.executeUpdate() > 0;
+                }
+            }, updated -> updated ? 1 : 0);
+            if (changed) fire(l -> l.replySaved(reply));
+            return changed;
         }
         //delete a reply
         public boolean deleteReply(int replyId) throws SQLException {
-            String sql = "DELETE FROM replies WHERE replyId = ?";
-            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-                pstmt.setInt(1, replyId);
-                return pstmt.executeUpdate() > 0;
-            }
+            boolean removed = DELETE_REPLY.time(() -> {
+                String sql = "DELETE FROM replies WHERE replyId = ?";
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql)) {
+                    pstmt.setInt(1, replyId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            }, deleted -> deleted ? 1 : 0);
+            if (removed) fire(l -> l.replyDeleted(replyId));
+            return removed;
+        }
+        //the number of questions, answers and replies, in that order
+        public int[] countBoardRows() throws SQLException {
+            return COUNT_BOARD_ROWS.time(() -> {
+                String sql = "SELECT (SELECT COUNT(*) FROM questions), (SELECT COUNT(*) FROM answers), "
+                        + "(SELECT COUNT(*) FROM replies)";
+                try (PreparedStatement pstmt = SlowQueryLog.prepare(connection, sql);
+                     ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    return new int[] { rs.getInt(1), rs.getInt(2), rs.getInt(3) };
+                }
+            }, counts -> 1);
         }
         //helper methods for all operations
         private Question extractQuestionFromResultSet(ResultSet rs) throws SQLException {
-            Question q = new Question(
+            return new Question(
+                rs.getInt("questionId"),
                 rs.getString("title"),
                 rs.getString("content"),
-                rs.getString("authorUserName")
+                rs.getString("authorUserName"),
+                rs.getString("category"),
+                rs.getTimestamp("createdAt").toLocalDateTime(),
+                rs.getTimestamp("updatedAt").toLocalDateTime(),
+                rs.getBoolean("isAnswered")
             );
-            q.setQuestionId(rs.getInt("questionId"));
-            q.setCreatedAt(rs.getTimestamp("createdAt").toLocalDateTime());
-            q.setUpdatedAt(rs.getTimestamp("updatedAt").toLocalDateTime());
-            q.setIsAnswered(rs.getBoolean("isAnswered"));
-            q.setCategory(rs.getString("category"));
-            return q;
         }
         // extract an answer from the result set
         private Answer extractAnswerFromResultSet(ResultSet rs) throws SQLException {
-            Answer a = new Answer(
+            return new Answer(
                 rs.getInt("answerId"),
                 rs.getInt("questionId"),
                 rs.getString("content"),
                 rs.getString("authorUserName"),
                 rs.getTimestamp("createdAt").toLocalDateTime(),
                 rs.getTimestamp("updatedAt").toLocalDateTime(),
-                rs.getBoolean("isAccepted")
+                rs.getBoolean("isAccepted"),
+                rs.getBoolean("isCorrect")
             );
-            a.setCorrect(rs.getBoolean("isCorrect"));
-            return a;
         }
         // extract a reply from the result set
         private Reply extractReplyFromResultSet(ResultSet rs) throws SQLException {
@@ -0,0 +1,16 @@
+package databasePart1;
+
+import application.Answer;
+import application.Question;
+import application.Reply;
+
+//told about every successful discussion board write, after the database has it
+//(e.g. so the search index can follow the board without reloading it)
+public interface DiscussionBoardListener {
+    default void questionSaved(Question question) {}
+    default void questionDeleted(int questionId) {}
+    default void answerSaved(Answer answer) {}
+    default void answerDeleted(int answerId) {}
+    default void replySaved(Reply reply) {}
+    default void replyDeleted(int replyId) {}
+}
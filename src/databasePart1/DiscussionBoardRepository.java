@@ -0,0 +1,56 @@
+package databasePart1;
+
+import java.sql.SQLException;
+import application.Answer;
+import application.Answers;
+import application.Question;
+import application.QuestionQuery;
+import application.Questions;
+import application.Replies;
+import application.Reply;
+
+//storage for the discussion board. DiscussionBoardDAO keeps it in H2 and InMemoryDiscussionBoard
+//in memory; DatabaseHelper.getDiscussionBoard picks one with the board.storage property.
+//
+//both behave the same way: reads return objects the caller may change freely, creates set the
+//generated id on the object passed in, an answer needs its question and a reply its answer,
+//and a question with answers (or an answer with replies) cannot be deleted.
+public interface DiscussionBoardRepository {
+    //questions
+    int createQuestion(Question question) throws SQLException;
+    Questions getAllQuestions() throws SQLException;
+    Questions queryQuestions(QuestionQuery query) throws SQLException;
+    //the number of questions queryQuestions would return without paging
+    int countQuestions(QuestionQuery query) throws SQLException;
+    Question getQuestionById(int questionId) throws SQLException;
+    boolean updateQuestion(Question question) throws SQLException;
+    boolean deleteQuestion(int questionId) throws SQLException;
+    Questions findNearDuplicates(String title, String content) throws SQLException;
+
+    //answers
+    int createAnswer(Answer answer) throws SQLException;
+    Answers getAnswersForQuestion(int questionId) throws SQLException;
+    Answers getAllAnswers() throws SQLException;
+    Answer getAnswerById(int answerId) throws SQLException;
+    boolean updateAnswer(Answer answer) throws SQLException;
+    boolean deleteAnswer(int answerId) throws SQLException;
+
+    //replies
+    int createReply(Reply reply) throws SQLException;
+    Replies getRepliesForAnswer(int answerId) throws SQLException;
+    Replies getAllReplies() throws SQLException;
+    boolean updateReply(Reply reply) throws SQLException;
+    boolean deleteReply(int replyId) throws SQLException;
+
+    //the number of questions, answers and replies, in that order
+    int[] countBoardRows() throws SQLException;
+
+    //the number of writes made so far, so a page can tell whether what it loaded is current
+    long getWriteVersion();
+
+    //listeners told about each successful write (once, however often one is added)
+    void addListener(DiscussionBoardListener listener);
+    void removeListener(DiscussionBoardListener listener);
+
+    void closeConnection();
+}
@@ -0,0 +1,1057 @@
+package databasePart1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import application.Answer;
+import application.Answers;
+import application.Question;
+import application.QuestionColumns;
+import application.QuestionQuery;
+import application.Questions;
+import application.Replies;
+import application.Reply;
+import textSearch.SimHash;
+
+//the discussion board kept in memory. rows live in Questions/Answers/Replies lists in creation
+//order, with IntMap indexes by id, answers by question, replies by answer and questions by
+//SimHash band. reads share a read lock and writes take the write lock; the stored objects never
+//leave the engine, callers get copies as they would get fresh rows from H2.
+//
+//new InMemoryDiscussionBoard() is lost on exit, for benchmarks and tests. open(dir) keeps it in
+//a BoardStore: each write appends a record to the write-ahead log under the write lock and is
+//forced to disk (with the writes of other threads) before the call returns, and a checkpoint
+//writes a snapshot whenever the log grows past BoardStore.CHECKPOINT_BYTES. such a board also
+//keeps the post bodies off the heap in a ContentStore under dir/content: its rows are
+//StoredQuestion/StoredAnswer/StoredReply objects holding a handle instead of the text, and the
+//copies callers get hold the handle too and read the body only when it is asked for.
+public class InMemoryDiscussionBoard implements DiscussionBoardRepository {
+    //per-method metrics, next to the dao.* ones so the two engines can be compared
+    private static final OperationMetrics CREATE_QUESTION = DatabaseMetrics.operation("memory.createQuestion");
+    private static final OperationMetrics GET_ALL_QUESTIONS = DatabaseMetrics.operation("memory.getAllQuestions");
+    private static final OperationMetrics QUERY_QUESTIONS = DatabaseMetrics.operation("memory.queryQuestions");
+    private static final OperationMetrics COUNT_QUESTIONS = DatabaseMetrics.operation("memory.countQuestions");
+    private static final OperationMetrics GET_QUESTION_BY_ID = DatabaseMetrics.operation("memory.getQuestionById");
+    private static final OperationMetrics UPDATE_QUESTION = DatabaseMetrics.operation("memory.updateQuestion");
+    private static final OperationMetrics DELETE_QUESTION = DatabaseMetrics.operation("memory.deleteQuestion");
+    private static final OperationMetrics FIND_NEAR_DUPLICATES = DatabaseMetrics.operation("memory.findNearDuplicates");
+    private static final OperationMetrics CREATE_ANSWER = DatabaseMetrics.operation("memory.createAnswer");
+    private static final OperationMetrics GET_ANSWERS_FOR_QUESTION = DatabaseMetrics.operation("memory.getAnswersForQuestion");
+    private static final OperationMetrics GET_ALL_ANSWERS = DatabaseMetrics.operation("memory.getAllAnswers");
+    private static final OperationMetrics GET_ANSWER_BY_ID = DatabaseMetrics.operation("memory.getAnswerById");
+    private static final OperationMetrics UPDATE_ANSWER = DatabaseMetrics.operation("memory.updateAnswer");
+    private static final OperationMetrics DELETE_ANSWER = DatabaseMetrics.operation("memory.deleteAnswer");
+    private static final OperationMetrics CREATE_REPLY = DatabaseMetrics.operation("memory.createReply");
+    private static final OperationMetrics GET_REPLIES_FOR_ANSWER = DatabaseMetrics.operation("memory.getRepliesForAnswer");
+    private static final OperationMetrics GET_ALL_REPLIES = DatabaseMetrics.operation("memory.getAllReplies");
+    private static final OperationMetrics UPDATE_REPLY = DatabaseMetrics.operation("memory.updateReply");
+    private static final OperationMetrics DELETE_REPLY = DatabaseMetrics.operation("memory.deleteReply");
+    //one call per force of the log, so writes made / its calls is the group commit batch size
+    private static final OperationMetrics LOG_FORCE = DatabaseMetrics.operation("memory.logForce");
+    private static final OperationMetrics CHECKPOINT = DatabaseMetrics.operation("memory.checkpoint");
+    private static final OperationMetrics RECOVER = DatabaseMetrics.operation("memory.recover");
+
+    //the orders the DAO's statements return rows in, with the id to break ties
+    private static final Comparator<Question> NEWEST_QUESTIONS = Comparator.comparing(Question::getCreatedAt)
+            .thenComparingInt(Question::getQuestionId).reversed();
+    private static final Comparator<Answer> NEWEST_ANSWERS = Comparator.comparing(Answer::getCreatedAt)
+            .thenComparingInt(Answer::getAnswerId).reversed();
+    private static final Comparator<Answer> ACCEPTED_THEN_OLDEST = Comparator.comparing((Answer a) -> !a.getIsAccepted())
+            .thenComparing(Answer::getCreatedAt).thenComparingInt(Answer::getAnswerId);
+    private static final Comparator<Reply> OLDEST_REPLIES = Comparator.comparing(Reply::getCreatedAt)
+            .thenComparingInt(Reply::getReplyId);
+    private static final Comparator<Reply> NEWEST_REPLIES = OLDEST_REPLIES.reversed();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    //the rows, in creation order
+    private final Questions questions = new Questions();
+    private final Answers answers = new Answers();
+    private final Replies replies = new Replies();
+
+    //indexes; queries and counts scan the question columns
+    private final QuestionColumns questionColumns = new QuestionColumns();
+    private final IntMap<Question> questionById = new IntMap<>();
+    private final IntMap<Long> fingerprintById = new IntMap<>();
+    private final List<IntMap<List<Question>>> questionsByBand = new ArrayList<>();
+    private final IntMap<Answer> answerById = new IntMap<>();
+    private final IntMap<List<Answer>> answersByQuestion = new IntMap<>();
+    private final IntMap<Reply> replyById = new IntMap<>();
+    private final IntMap<List<Reply>> repliesByAnswer = new IntMap<>();
+
+    private int lastQuestionId;
+    private int lastAnswerId;
+    private int lastReplyId;
+
+    private final CopyOnWriteArrayList<DiscussionBoardListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    //persistence, when opened on a directory: the record being encoded and the sequence number
+    //of the last one appended (both guarded by the write lock)
+    private final BoardStore store;
+    private final BoardRecords.Out record = new BoardRecords.Out();
+    private long logged;
+    private final Object checkpointLock = new Object();
+    private final AtomicBoolean checkpointRunning = new AtomicBoolean();
+    //while a checkpoint writes its snapshot: the images writes kept of the rows it lists, by
+    //owner key (guarded by the lock); null otherwise. bodies are not compacted meanwhile
+    private Map<Long, Image> images;
+    //rows a checkpoint copies per hold of the read lock
+    private static final int CHECKPOINT_BATCH = 1024;
+
+    //post bodies, when opened on a directory; compactDue is set (under the write lock) when a
+    //freed body leaves a segment worth compacting
+    private final ContentStore contents;
+    private boolean compactDue;
+    //the owner keys of the bodies in the content store: row type in the high half, id in the low
+    private static final long QUESTION_OWNER = 1L << 32;
+    private static final long ANSWER_OWNER = 2L << 32;
+    private static final long REPLY_OWNER = 3L << 32;
+
+    //a board that lives only as long as this object
+    public InMemoryDiscussionBoard() {
+        for (int band = 0; band < SimHash.BANDS; band++) {
+            questionsByBand.add(new IntMap<>());
+        }
+        store = null;
+        contents = null;
+    }
+
+    private InMemoryDiscussionBoard(Path dir) throws IOException {
+        for (int band = 0; band < SimHash.BANDS; band++) {
+            questionsByBand.add(new IntMap<>());
+        }
+        contents = new ContentStore(dir.resolve("content"));
+        store = new BoardStore(dir, this::replay);
+        if (compactDue) compactContents();
+    }
+
+    //a board kept in the directory: the snapshot there is loaded and the log replayed onto it
+    public static InMemoryDiscussionBoard open(Path dir) throws SQLException {
+        return RECOVER.time(() -> {
+            try {
+                return new InMemoryDiscussionBoard(dir);
+            } catch (IOException e) {
+                throw new SQLException("Could not open the discussion board in " + dir, e);
+            }
+        }, board -> {
+            int[] counts = board.countBoardRows();
+            return counts[0] + counts[1] + counts[2];
+        });
+    }
+
+    //QUESTIONS
+
+    public int createQuestion(Question question) throws SQLException {
+        int newId = CREATE_QUESTION.time(() -> write(() -> {
+            //stored as the INSERT would: not answered, stamped now
+            LocalDateTime now = LocalDateTime.now();
+            checkContent(question.getContent());
+            Question stored = new Question(lastQuestionId + 1, question.getTitle(), question.getContent(),
+                    question.getAuthorUserName(), question.getCategory(), now, now, false);
+            long fingerprint = SimHash.of(stored.getTitle(), stored.getContent());
+            stored = keep(stored);
+            addQuestion(stored, fingerprint);
+            logQuestion(stored, fingerprint);
+            return stored.getQuestionId();
+        }), id -> 1);
+        question.setQuestionId(newId);
+        fire(l -> l.questionSaved(question));
+        return newId;
+    }
+
+    public Questions getAllQuestions() throws SQLException {
+        return GET_ALL_QUESTIONS.time(() -> read(() -> {
+            List<Question> all = copyQuestions(questions.getAllQuestions());
+            all.sort(NEWEST_QUESTIONS);
+            return new Questions(all);
+        }), Questions::size);
+    }
+
+    public Questions queryQuestions(QuestionQuery query) throws SQLException {
+        return QUERY_QUESTIONS.time(() -> read(() ->
+                new Questions(copyQuestions(questionColumns.query(query).getAllQuestions()))), Questions::size);
+    }
+
+    public int countQuestions(QuestionQuery query) throws SQLException {
+        return COUNT_QUESTIONS.time(() -> read(() -> questionColumns.count(query)), count -> 1);
+    }
+
+    public Question getQuestionById(int questionId) throws SQLException {
+        return GET_QUESTION_BY_ID.time(() -> read(() -> {
+            Question stored = questionById.get(questionId);
+            return stored == null ? null : copy(stored);
+        }), q -> q == null ? 0 : 1);
+    }
+
+    public boolean updateQuestion(Question question) throws SQLException {
+        boolean changed = UPDATE_QUESTION.time(() -> write(() -> {
+            Question stored = questionById.get(question.getQuestionId());
+            if (stored == null) return false;
+            checkContent(question.getContent());
+            preserve(stored);
+            unindexFingerprint(stored);
+            stored.setTitle(question.getTitle());
+            stored.setContent(question.getContent());
+            stored.setIsAnswered(question.getIsAnswered());
+            stored.setCategory(question.getCategory());
+            stored.setUpdatedAt(LocalDateTime.now());
+            questionColumns.update(stored);
+            long fingerprint = SimHash.of(question.getTitle(), question.getContent());
+            indexFingerprint(stored, fingerprint);
+            logQuestion(stored, fingerprint);
+            return true;
+        }), updated -> updated ? 1 : 0);
+        if (changed) fire(l -> l.questionSaved(question));
+        return changed;
+    }
+
+    public boolean deleteQuestion(int questionId) throws SQLException {
+        boolean removed = DELETE_QUESTION.time(() -> write(() -> {
+            Question stored = questionById.get(questionId);
+            if (stored == null) return false;
+            List<Answer> children = answersByQuestion.get(questionId);
+            if (children != null && !children.isEmpty()) {
+                throw new SQLException("Question " + questionId + " still has answers");
+            }
+            removeQuestion(stored);
+            logDeleted(BoardRecords.QUESTION_DELETED, questionId);
+            return true;
+        }), deleted -> deleted ? 1 : 0);
+        if (removed) fire(l -> l.questionDeleted(questionId));
+        return removed;
+    }
+
+    //the same bands and distance as the DAO's query, closest first; none for a draft with no terms
+    public Questions findNearDuplicates(String title, String content) throws SQLException {
+        return FIND_NEAR_DUPLICATES.time(() -> read(() -> {
+            if (!SimHash.hasTerms(title, content)) return new Questions();
+            long fingerprint = SimHash.of(title, content);
+            IntMap<Question> seen = new IntMap<>();
+            List<Question> matches = new ArrayList<>();
+            for (int band = 0; band < SimHash.BANDS; band++) {
+                List<Question> bucket = questionsByBand.get(band).get(SimHash.band(fingerprint, band));
+                if (bucket == null) continue;
+                for (Question q : bucket) {
+                    if (seen.put(q.getQuestionId(), q) != null) continue;
+                    if (SimHash.distance(fingerprint, fingerprintById.get(q.getQuestionId())) <= SimHash.MAX_DISTANCE) {
+                        matches.add(q);
+                    }
+                }
+            }
+            matches.sort(Comparator.comparingInt(q -> SimHash.distance(fingerprint, fingerprintById.get(q.getQuestionId()))));
+            return new Questions(copyQuestions(matches));
+        }), Questions::size);
+    }
+
+    private void addQuestion(Question stored, long fingerprint) {
+        questions.addQuestion(stored);
+        questionColumns.add(stored);
+        questionById.put(stored.getQuestionId(), stored);
+        indexFingerprint(stored, fingerprint);
+        lastQuestionId = Math.max(lastQuestionId, stored.getQuestionId());
+    }
+
+    private void removeQuestion(Question stored) {
+        preserve(stored);
+        release(stored);
+        unindexFingerprint(stored);
+        questionById.remove(stored.getQuestionId());
+        answersByQuestion.remove(stored.getQuestionId());
+        questions.deleteQuestion(stored.getQuestionId());
+        questionColumns.remove(stored.getQuestionId());
+    }
+
+    private void indexFingerprint(Question q, long fingerprint) {
+        fingerprintById.put(q.getQuestionId(), fingerprint);
+        for (int band = 0; band < SimHash.BANDS; band++) {
+            IntMap<List<Question>> buckets = questionsByBand.get(band);
+            int value = SimHash.band(fingerprint, band);
+            List<Question> bucket = buckets.get(value);
+            if (bucket == null) {
+                bucket = new ArrayList<>(2);
+                buckets.put(value, bucket);
+            }
+            bucket.add(q);
+        }
+    }
+
+    private void unindexFingerprint(Question q) {
+        Long fingerprint = fingerprintById.remove(q.getQuestionId());
+        if (fingerprint == null) return;
+        for (int band = 0; band < SimHash.BANDS; band++) {
+            IntMap<List<Question>> buckets = questionsByBand.get(band);
+            int value = SimHash.band(fingerprint, band);
+            List<Question> bucket = buckets.get(value);
+            bucket.remove(q);
+            if (bucket.isEmpty()) buckets.remove(value);
+        }
+    }
+
+    //ANSWERS
+
+    public int createAnswer(Answer answer) throws SQLException {
+        int newId = CREATE_ANSWER.time(() -> write(() -> {
+            if (questionById.get(answer.getQuestionId()) == null) {
+                throw new SQLException("No question " + answer.getQuestionId() + " for the answer");
+            }
+            checkContent(answer.getContent());
+            Answer stored = keep(new Answer(lastAnswerId + 1, answer.getQuestionId(), answer.getContent(),
+                    answer.getAuthorUserName(), answer.getCreatedAt(), answer.getUpdatedAt(), answer.getIsAccepted()));
+            addAnswer(stored);
+            logAnswer(stored);
+            return stored.getAnswerId();
+        }), id -> 1);
+        answer.setAnswerId(newId);
+        fire(l -> l.answerSaved(answer));
+        return newId;
+    }
+
+    public Answers getAnswersForQuestion(int questionId) throws SQLException {
+        return GET_ANSWERS_FOR_QUESTION.time(() -> read(() -> {
+            List<Answer> stored = answersByQuestion.get(questionId);
+            List<Answer> result = stored == null ? new ArrayList<>() : copyAnswers(stored);
+            result.sort(ACCEPTED_THEN_OLDEST);
+            return new Answers(result);
+        }), Answers::size);
+    }
+
+    public Answers getAllAnswers() throws SQLException {
+        return GET_ALL_ANSWERS.time(() -> read(() -> {
+            List<Answer> all = copyAnswers(answers.getAllAnswers());
+            all.sort(NEWEST_ANSWERS);
+            return new Answers(all);
+        }), Answers::size);
+    }
+
+    public Answer getAnswerById(int answerId) throws SQLException {
+        return GET_ANSWER_BY_ID.time(() -> read(() -> {
+            Answer stored = answerById.get(answerId);
+            return stored == null ? null : copy(stored);
+        }), a -> a == null ? 0 : 1);
+    }
+
+    public boolean updateAnswer(Answer answer) throws SQLException {
+        boolean changed = UPDATE_ANSWER.time(() -> write(() -> {
+            Answer stored = answerById.get(answer.getAnswerId());
+            if (stored == null) return false;
+            checkContent(answer.getContent());
+            preserve(stored);
+            stored.setContent(answer.getContent());
+            if (answer.getIsAccepted()) stored.markAsAccepted();
+            else stored.markAsNotAccepted();
+            stored.setCorrect(answer.isCorrect());
+            stored.setUpdatedAt(LocalDateTime.now());
+            logAnswer(stored);
+            return true;
+        }), updated -> updated ? 1 : 0);
+        if (changed) fire(l -> l.answerSaved(answer));
+        return changed;
+    }
+
+    public boolean deleteAnswer(int answerId) throws SQLException {
+        boolean removed = DELETE_ANSWER.time(() -> write(() -> {
+            Answer stored = answerById.get(answerId);
+            if (stored == null) return false;
+            List<Reply> children = repliesByAnswer.get(answerId);
+            if (children != null && !children.isEmpty()) {
+                throw new SQLException("Answer " + answerId + " still has replies");
+            }
+            removeAnswer(stored);
+            logDeleted(BoardRecords.ANSWER_DELETED, answerId);
+            return true;
+        }), deleted -> deleted ? 1 : 0);
+        if (removed) fire(l -> l.answerDeleted(answerId));
+        return removed;
+    }
+
+    private void addAnswer(Answer stored) {
+        answers.addAnswer(stored);
+        answerById.put(stored.getAnswerId(), stored);
+        List<Answer> siblings = answersByQuestion.get(stored.getQuestionId());
+        if (siblings == null) {
+            siblings = new ArrayList<>(4);
+            answersByQuestion.put(stored.getQuestionId(), siblings);
+        }
+        siblings.add(stored);
+        lastAnswerId = Math.max(lastAnswerId, stored.getAnswerId());
+    }
+
+    private void removeAnswer(Answer stored) {
+        preserve(stored);
+        release(stored);
+        answerById.remove(stored.getAnswerId());
+        repliesByAnswer.remove(stored.getAnswerId());
+        List<Answer> siblings = answersByQuestion.get(stored.getQuestionId());
+        if (siblings != null) siblings.remove(stored);
+        answers.deleteAnswer(stored.getAnswerId());
+    }
+
+    //REPLIES
+
+    public int createReply(Reply reply) throws SQLException {
+        int newId = CREATE_REPLY.time(() -> write(() -> {
+            if (answerById.get(reply.getAnswerId()) == null) {
+                throw new SQLException("No answer " + reply.getAnswerId() + " for the reply");
+            }
+            checkContent(reply.getContent());
+            Reply stored = keep(new Reply(lastReplyId + 1, reply.getAnswerId(), reply.getContent(),
+                    reply.getAuthorUserName(), reply.getCreatedAt(), reply.getUpdatedAt()));
+            addReply(stored);
+            logReply(stored);
+            return stored.getReplyId();
+        }), id -> 1);
+        reply.setReplyId(newId);
+        fire(l -> l.replySaved(reply));
+        return newId;
+    }
+
+    public Replies getRepliesForAnswer(int answerId) throws SQLException {
+        return GET_REPLIES_FOR_ANSWER.time(() -> read(() -> {
+            List<Reply> stored = repliesByAnswer.get(answerId);
+            List<Reply> result = stored == null ? new ArrayList<>() : copyReplies(stored);
+            result.sort(OLDEST_REPLIES);
+            return new Replies(result);
+        }), r -> r.getAllReplies().size());
+    }
+
+    public Replies getAllReplies() throws SQLException {
+        return GET_ALL_REPLIES.time(() -> read(() -> {
+            List<Reply> all = copyReplies(replies.getAllReplies());
+            all.sort(NEWEST_REPLIES);
+            return new Replies(all);
+        }), r -> r.getAllReplies().size());
+    }
+
+    public boolean updateReply(Reply reply) throws SQLException {
+        boolean changed = UPDATE_REPLY.time(() -> write(() -> {
+            Reply stored = replyById.get(reply.getReplyId());
+            if (stored == null) return false;
+            checkContent(reply.getContent());
+            preserve(stored);
+            stored.setContent(reply.getContent());
+            stored.setUpdatedAt(LocalDateTime.now());
+            logReply(stored);
+            return true;
+        }), updated -> updated ? 1 : 0);
+        if (changed) fire(l -> l.replySaved(reply));
+        return changed;
+    }
+
+    public boolean deleteReply(int replyId) throws SQLException {
+        boolean removed = DELETE_REPLY.time(() -> write(() -> {
+            Reply stored = replyById.get(replyId);
+            if (stored == null) return false;
+            removeReply(stored);
+            logDeleted(BoardRecords.REPLY_DELETED, replyId);
+            return true;
+        }), deleted -> deleted ? 1 : 0);
+        if (removed) fire(l -> l.replyDeleted(replyId));
+        return removed;
+    }
+
+    private void addReply(Reply stored) {
+        replies.addReply(stored);
+        replyById.put(stored.getReplyId(), stored);
+        List<Reply> siblings = repliesByAnswer.get(stored.getAnswerId());
+        if (siblings == null) {
+            siblings = new ArrayList<>(4);
+            repliesByAnswer.put(stored.getAnswerId(), siblings);
+        }
+        siblings.add(stored);
+        lastReplyId = Math.max(lastReplyId, stored.getReplyId());
+    }
+
+    private void removeReply(Reply stored) {
+        preserve(stored);
+        release(stored);
+        replyById.remove(stored.getReplyId());
+        List<Reply> siblings = repliesByAnswer.get(stored.getAnswerId());
+        if (siblings != null) siblings.remove(stored);
+        replies.deleteReply(stored.getReplyId());
+    }
+
+    //BOARD
+
+    public int[] countBoardRows() {
+        lock.readLock().lock();
+        try {
+            return new int[] { questionById.size(), answerById.size(), replyById.size() };
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getWriteVersion() {
+        return writeVersion.get();
+    }
+
+    public void addListener(DiscussionBoardListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(DiscussionBoardListener listener) {
+        listeners.remove(listener);
+    }
+
+    //close the log once everything written is on disk; a board without one has nothing to close
+    public void closeConnection() {
+        if (store == null) return;
+        try {
+            store.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    //PERSISTENCE
+
+    //write a snapshot of the board and start a new log, so a restart replays only the writes
+    //made after it. runs by itself on a background thread once the log is large enough.
+    //
+    //only the log switch and a list of the rows it covers (by reference) happen under the read
+    //lock. from then until the snapshot is written, a write keeps an image of a listed row before
+    //changing or removing it, so the snapshot holds the rows as they were at the switch while
+    //writers carry on; the rows are copied a batch at a time under the read lock.
+    public void checkpoint() throws SQLException {
+        if (store == null) return;
+        CHECKPOINT.time(() -> {
+            synchronized (checkpointLock) {
+                long generation;
+                Object[] savedQuestions;
+                Object[] savedAnswers;
+                Object[] savedReplies;
+                int[] lastIds;
+                lock.readLock().lock();
+                try {
+                    generation = store.roll();
+                    savedQuestions = questions.getAllQuestions().toArray();
+                    savedAnswers = answers.getAllAnswers().toArray();
+                    savedReplies = replies.getAllReplies().toArray();
+                    lastIds = new int[] { lastQuestionId, lastAnswerId, lastReplyId };
+                    images = new HashMap<>();
+                } catch (IOException e) {
+                    throw new SQLException("Could not start a new board log", e);
+                } finally {
+                    lock.readLock().unlock();
+                }
+                try {
+                    store.writeSnapshot(generation, writer -> {
+                        BoardRecords.Out out = new BoardRecords.Out();
+                        BoardRecords.lastIds(out, lastIds[0], lastIds[1], lastIds[2]);
+                        writer.add(out);
+                        for (Object[] saved : new Object[][] { savedQuestions, savedAnswers, savedReplies }) {
+                            for (int from = 0; from < saved.length; from += CHECKPOINT_BATCH) {
+                                for (Image image : frozen(saved, from, Math.min(from + CHECKPOINT_BATCH, saved.length))) {
+                                    out.reset();
+                                    if (image.row instanceof Question q) BoardRecords.question(out, q, image.fingerprint);
+                                    else if (image.row instanceof Answer a) BoardRecords.answer(out, a);
+                                    else BoardRecords.reply(out, (Reply) image.row);
+                                    writer.add(out);
+                                }
+                            }
+                        }
+                    });
+                } catch (IOException e) {
+                    throw new SQLException("Could not write the board snapshot", e);
+                } finally {
+                    //the images' bodies may now be compacted away
+                    lock.writeLock().lock();
+                    try {
+                        images = null;
+                        if (compactDue) compactContents();
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+                return savedQuestions.length + savedAnswers.length + savedReplies.length;
+            }
+        }, rows -> rows);
+    }
+
+    //a row as the running checkpoint saves it: a lazy copy, with the fingerprint of a question
+    private static final class Image {
+        final Object row;
+        final long fingerprint;
+
+        Image(Object row, long fingerprint) {
+            this.row = row;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    //with the lock held: the image of a stored row as it is now
+    private Image image(Object stored) {
+        if (stored instanceof Question q) return new Image(copy(q), fingerprintById.get(q.getQuestionId()));
+        if (stored instanceof Answer a) return new Image(copy(a), 0);
+        return new Image(copy((Reply) stored), 0);
+    }
+
+    //the listed rows from..to as they were when the checkpoint started: the image a write kept
+    //of a row it changed, or else a copy of the row, which no write has touched since
+    private List<Image> frozen(Object[] saved, int from, int to) {
+        List<Image> batch = new ArrayList<>(to - from);
+        lock.readLock().lock();
+        try {
+            for (int i = from; i < to; i++) {
+                Image image = images.get(ownerOf(saved[i]));
+                batch.add(image != null ? image : image(saved[i]));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return batch;
+    }
+
+    //with the write lock held, before a write changes or removes a stored row: keep its image
+    //for the running checkpoint, if there is one and it has none yet
+    private void preserve(Object stored) {
+        if (images == null) return;
+        long owner = ownerOf(stored);
+        if (!images.containsKey(owner)) images.put(owner, image(stored));
+    }
+
+    //apply one saved record while the store is being opened. rows are copied onto stored ones
+    //with the same id, so the log may repeat what the snapshot already holds.
+    private void replay(ByteBuffer payload) {
+        BoardRecords.In in = new BoardRecords.In(payload);
+        int type = in.getByte();
+        switch (type) {
+            case BoardRecords.QUESTION: {
+                long fingerprint = in.getLong();
+                Question q = BoardRecords.readQuestion(in);
+                Question stored = questionById.get(q.getQuestionId());
+                if (stored == null) {
+                    addQuestion(keep(q), fingerprint);
+                } else {
+                    unindexFingerprint(stored);
+                    stored.setTitle(q.getTitle());
+                    stored.setContent(q.getContent());
+                    stored.setIsAnswered(q.getIsAnswered());
+                    stored.setCategory(q.getCategory());
+                    stored.setCreatedAt(q.getCreatedAt());
+                    stored.setUpdatedAt(q.getUpdatedAt());
+                    questionColumns.update(stored);
+                    indexFingerprint(stored, fingerprint);
+                }
+                break;
+            }
+            case BoardRecords.ANSWER: {
+                Answer a = BoardRecords.readAnswer(in);
+                Answer stored = answerById.get(a.getAnswerId());
+                if (stored == null) {
+                    addAnswer(keep(a));
+                } else {
+                    stored.setContent(a.getContent());
+                    if (a.getIsAccepted()) stored.markAsAccepted();
+                    else stored.markAsNotAccepted();
+                    stored.setCorrect(a.isCorrect());
+                    stored.setUpdatedAt(a.getUpdatedAt());
+                }
+                break;
+            }
+            case BoardRecords.REPLY: {
+                Reply r = BoardRecords.readReply(in);
+                Reply stored = replyById.get(r.getReplyId());
+                if (stored == null) {
+                    addReply(keep(r));
+                } else {
+                    stored.setContent(r.getContent());
+                    stored.setUpdatedAt(r.getUpdatedAt());
+                }
+                break;
+            }
+            case BoardRecords.QUESTION_DELETED: {
+                Question stored = questionById.get(in.getVarInt());
+                if (stored != null) removeQuestion(stored);
+                break;
+            }
+            case BoardRecords.ANSWER_DELETED: {
+                Answer stored = answerById.get(in.getVarInt());
+                if (stored != null) removeAnswer(stored);
+                break;
+            }
+            case BoardRecords.REPLY_DELETED: {
+                Reply stored = replyById.get(in.getVarInt());
+                if (stored != null) removeReply(stored);
+                break;
+            }
+            case BoardRecords.LAST_IDS:
+                lastQuestionId = Math.max(lastQuestionId, in.getVarInt());
+                lastAnswerId = Math.max(lastAnswerId, in.getVarInt());
+                lastReplyId = Math.max(lastReplyId, in.getVarInt());
+                break;
+            default:
+                throw new IllegalStateException("Unknown board record type " + type);
+        }
+    }
+
+    //with the write lock held: append the stored row to the log. write() makes it durable once
+    //the lock is released.
+    private void logQuestion(Question stored, long fingerprint) {
+        if (store == null) return;
+        record.reset();
+        BoardRecords.question(record, stored, fingerprint);
+        logged = store.append(record.array(), record.length());
+    }
+
+    private void logAnswer(Answer stored) {
+        if (store == null) return;
+        record.reset();
+        BoardRecords.answer(record, stored);
+        logged = store.append(record.array(), record.length());
+    }
+
+    private void logReply(Reply stored) {
+        if (store == null) return;
+        record.reset();
+        BoardRecords.reply(record, stored);
+        logged = store.append(record.array(), record.length());
+    }
+
+    private void logDeleted(byte type, int id) {
+        if (store == null) return;
+        record.reset();
+        BoardRecords.deleted(record, type, id);
+        logged = store.append(record.array(), record.length());
+    }
+
+    //wait until the log holds the given record, then start a checkpoint if it has grown enough
+    private void sync(long sequence) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (store.sync(sequence) > 0) LOG_FORCE.record(System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new SQLException("Could not write the board log", e);
+        }
+        if (store.needsCheckpoint() && checkpointRunning.compareAndSet(false, true)) {
+            Thread checkpointer = new Thread(() -> {
+                try {
+                    checkpoint();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                } finally {
+                    checkpointRunning.set(false);
+                }
+            }, "board-checkpoint");
+            checkpointer.setDaemon(true);
+            checkpointer.start();
+        }
+    }
+
+    //listeners run after the lock is released, so one may read the board again
+    private void fire(Consumer<DiscussionBoardListener> event) {
+        writeVersion.incrementAndGet();
+        for (DiscussionBoardListener listener : listeners) {
+            event.accept(listener);
+        }
+    }
+
+    private <T> T read(SqlCall<T> call) throws SQLException {
+        lock.readLock().lock();
+        try {
+            return call.call();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //run a write under the write lock, then wait for what it logged to reach the disk
+    private <T> T write(SqlCall<T> call) throws SQLException {
+        T result;
+        long sequence;
+        lock.writeLock().lock();
+        try {
+            result = call.call();
+            sequence = logged;
+            if (compactDue && images == null) compactContents();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (store != null) sync(sequence);
+        return result;
+    }
+
+    //CONTENT STORE
+
+    //rows whose body is in the content store. getContent reads it back and setContent replaces
+    //it, so the rest of the engine treats them like any other row; they never leave the engine.
+    private final class StoredQuestion extends Question {
+        private long content;
+
+        StoredQuestion(Question q) {
+            super(q.getQuestionId(), q.getTitle(), null, q.getAuthorUserName(), q.getCategory(), q.getCreatedAt(),
+                    q.getUpdatedAt(), q.getIsAnswered());
+            content = putContent(QUESTION_OWNER | q.getQuestionId(), q.getContent());
+        }
+
+        @Override
+        public String getContent() {
+            return contents.get(content);
+        }
+
+        @Override
+        public void setContent(String text) {
+            content = replaceContent(QUESTION_OWNER | getQuestionId(), content, text);
+        }
+    }
+
+    private final class StoredAnswer extends Answer {
+        private long content;
+
+        StoredAnswer(Answer a) {
+            super(a.getAnswerId(), a.getQuestionId(), null, a.getAuthorUserName(), a.getCreatedAt(), a.getUpdatedAt(),
+                    a.getIsAccepted(), a.isCorrect());
+            content = putContent(ANSWER_OWNER | a.getAnswerId(), a.getContent());
+        }
+
+        @Override
+        public String getContent() {
+            return contents.get(content);
+        }
+
+        @Override
+        public void setContent(String text) {
+            content = replaceContent(ANSWER_OWNER | getAnswerId(), content, text);
+        }
+    }
+
+    private final class StoredReply extends Reply {
+        private long content;
+
+        StoredReply(Reply r) {
+            super(r.getReplyId(), r.getAnswerId(), null, r.getAuthorUserName(), r.getCreatedAt(), r.getUpdatedAt());
+            content = putContent(REPLY_OWNER | r.getReplyId(), r.getContent());
+        }
+
+        @Override
+        public String getContent() {
+            return contents.get(content);
+        }
+
+        @Override
+        public void setContent(String text) {
+            content = replaceContent(REPLY_OWNER | getReplyId(), content, text);
+        }
+    }
+
+    //the object to keep for a new row: the row itself, or a copy with its body in the store
+    private Question keep(Question q) {
+        return contents == null ? q : new StoredQuestion(q);
+    }
+
+    private Answer keep(Answer a) {
+        return contents == null ? a : new StoredAnswer(a);
+    }
+
+    private Reply keep(Reply r) {
+        return contents == null ? r : new StoredReply(r);
+    }
+
+    //a body the content store cannot hold is refused before anything changes
+    private void checkContent(String text) throws SQLException {
+        if (contents != null && text.length() > ContentStore.MAX_BYTES / 3
+                && text.getBytes(java.nio.charset.StandardCharsets.UTF_8).length > ContentStore.MAX_BYTES) {
+            throw new SQLException("Content is longer than " + ContentStore.MAX_BYTES + " bytes");
+        }
+    }
+
+    private long putContent(long owner, String text) {
+        try {
+            return contents.put(owner, text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long replaceContent(long owner, long handle, String text) {
+        long replacement = putContent(owner, text);
+        if (contents.free(handle)) compactDue = true;
+        return replacement;
+    }
+
+    //a deleted row's body is no longer needed
+    private void release(Object stored) {
+        long handle = handleOf(stored);
+        if (handle != -1 && contents.free(handle)) compactDue = true;
+    }
+
+    //the handle of a stored row's body, or -1 for a row that keeps its body itself
+    private static long handleOf(Object stored) {
+        if (stored instanceof StoredQuestion q) return q.content;
+        if (stored instanceof StoredAnswer a) return a.content;
+        if (stored instanceof StoredReply r) return r.content;
+        return -1;
+    }
+
+    //the body a copy was made with, read under the read lock. once compaction has moved it out
+    //of its segment, the row's body as it is now, or an empty one if the row has been deleted.
+    private String body(long owner, long handle) {
+        lock.readLock().lock();
+        try {
+            String text = contents.getIfPresent(handle);
+            if (text != null) return text;
+            long current = handleOf(row(owner));
+            return current == -1 ? "" : contents.get(current);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //with the write lock held: move the live bodies out of mostly dead segments
+    private void compactContents() {
+        compactDue = false;
+        try {
+            contents.compact(new ContentStore.Owners() {
+                public long handleOf(long owner) {
+                    return InMemoryDiscussionBoard.handleOf(row(owner));
+                }
+
+                public void moved(long owner, long handle) {
+                    Object stored = row(owner);
+                    if (stored instanceof StoredQuestion q) q.content = handle;
+                    else if (stored instanceof StoredAnswer a) a.content = handle;
+                    else if (stored instanceof StoredReply r) r.content = handle;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long ownerOf(Object stored) {
+        if (stored instanceof Question q) return QUESTION_OWNER | q.getQuestionId();
+        if (stored instanceof Answer a) return ANSWER_OWNER | a.getAnswerId();
+        return REPLY_OWNER | ((Reply) stored).getReplyId();
+    }
+
+    private Object row(long owner) {
+        int id = (int) owner;
+        switch ((int) (owner >>> 32)) {
+            case 1: return questionById.get(id);
+            case 2: return answerById.get(id);
+            case 3: return replyById.get(id);
+            default: return null;
+        }
+    }
+
+    //copies of rows whose body is in the content store. the copy keeps the handle and reads the
+    //body when getContent is called, so a list of copies costs no more heap than the stored rows
+    //do; the board page, the incremental search and the search index all hold such lists.
+    //setContent keeps the new text on the copy, for the update that follows.
+    private final class CopiedQuestion extends Question {
+        private final long handle;
+        private boolean edited;
+
+        CopiedQuestion(StoredQuestion q) {
+            super(q.getQuestionId(), q.getTitle(), null, q.getAuthorUserName(), q.getCategory(), q.getCreatedAt(),
+                    q.getUpdatedAt(), q.getIsAnswered());
+            handle = q.content;
+        }
+
+        @Override
+        public String getContent() {
+            return edited ? super.getContent() : body(QUESTION_OWNER | getQuestionId(), handle);
+        }
+
+        @Override
+        public void setContent(String text) {
+            super.setContent(text);
+            edited = true;
+        }
+    }
+
+    private final class CopiedAnswer extends Answer {
+        private final long handle;
+        private boolean edited;
+
+        CopiedAnswer(StoredAnswer a) {
+            super(a.getAnswerId(), a.getQuestionId(), null, a.getAuthorUserName(), a.getCreatedAt(), a.getUpdatedAt(),
+                    a.getIsAccepted(), a.isCorrect());
+            handle = a.content;
+        }
+
+        @Override
+        public String getContent() {
+            return edited ? super.getContent() : body(ANSWER_OWNER | getAnswerId(), handle);
+        }
+
+        @Override
+        public void setContent(String text) {
+            super.setContent(text);
+            edited = true;
+        }
+    }
+
+    private final class CopiedReply extends Reply {
+        private final long handle;
+        private boolean edited;
+
+        CopiedReply(StoredReply r) {
+            super(r.getReplyId(), r.getAnswerId(), null, r.getAuthorUserName(), r.getCreatedAt(), r.getUpdatedAt());
+            handle = r.content;
+        }
+
+        @Override
+        public String getContent() {
+            return edited ? super.getContent() : body(REPLY_OWNER | getReplyId(), handle);
+        }
+
+        @Override
+        public void setContent(String text) {
+            super.setContent(text);
+            edited = true;
+        }
+    }
+
+    //copies, so callers cannot change the stored rows
+
+    private Question copy(Question q) {
+        if (q instanceof StoredQuestion stored) return new CopiedQuestion(stored);
+        return new Question(q.getQuestionId(), q.getTitle(), q.getContent(), q.getAuthorUserName(), q.getCategory(),
+                q.getCreatedAt(), q.getUpdatedAt(), q.getIsAnswered());
+    }
+
+    private Answer copy(Answer a) {
+        if (a instanceof StoredAnswer stored) return new CopiedAnswer(stored);
+        return new Answer(a.getAnswerId(), a.getQuestionId(), a.getContent(), a.getAuthorUserName(),
+                a.getCreatedAt(), a.getUpdatedAt(), a.getIsAccepted(), a.isCorrect());
+    }
+
+    private Reply copy(Reply r) {
+        if (r instanceof StoredReply stored) return new CopiedReply(stored);
+        return new Reply(r.getReplyId(), r.getAnswerId(), r.getContent(), r.getAuthorUserName(),
+                r.getCreatedAt(), r.getUpdatedAt());
+    }
+
+    private List<Question> copyQuestions(List<Question> stored) {
+        List<Question> copies = new ArrayList<>(stored.size());
+        for (Question q : stored) copies.add(copy(q));
+        return copies;
+    }
+
+    private List<Answer> copyAnswers(List<Answer> stored) {
+        List<Answer> copies = new ArrayList<>(stored.size());
+        for (Answer a : stored) copies.add(copy(a));
+        return copies;
+    }
+
+    private List<Reply> copyReplies(List<Reply> stored) {
+        List<Reply> copies = new ArrayList<>(stored.size());
+        for (Reply r : stored) copies.add(copy(r));
+        return copies;
+    }
+}
@@ -0,0 +1,90 @@
+package databasePart1;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+//call, error and row counts plus a latency histogram for one DAO or DatabaseHelper method.
+//instances come from DatabaseMetrics.operation(name) and are shared by every connection.
+public class OperationMetrics implements OperationMetricsMXBean {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    //run the call, recording its latency, the rows it touched, and whether it failed
+    <T> T time(SqlCall<T> call, ToLongFunction<? super T> rowCount) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            latency.record(System.nanoTime() - start);
+            rows.add(rowCount.applyAsLong(result));
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            latency.record(System.nanoTime() - start);
+            errors.increment();
+            throw e;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCalls() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanNanos() / 1e6;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.valueAtPercentile(0.50) / 1e6;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.valueAtPercentile(0.99) / 1e6;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latency.valueAtPercentile(0.999) / 1e6;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxNanos() / 1e6;
+    }
+
+    //record a latency measured elsewhere, e.g. a startup stage
+    public void record(long nanos) {
+        latency.record(nanos);
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        errors.reset();
+        rows.reset();
+    }
+}
@@ -0,0 +1,15 @@
+package databasePart1;
+
+//the JMX view of one database operation; times are in milliseconds
+public interface OperationMetricsMXBean {
+    String getName();
+    long getCalls();
+    long getErrors();
+    long getRows();
+    double getMeanMillis();
+    double getP50Millis();
+    double getP99Millis();
+    double getP999Millis();
+    double getMaxMillis();
+    void reset();
+}
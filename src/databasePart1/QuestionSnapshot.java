@@ -0,0 +1,233 @@
+package databasePart1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import application.Question;
+
+//the board's question list saved in a compact binary file, so the next start can show it
+//before the database is open. the file is memory-mapped and a row is only decoded when the
+//list asks for it, so opening a snapshot costs about the same for ten questions as for a
+//hundred thousand.
+//
+//layout (big-endian): magic "BQSN", version, when it was saved (epoch milliseconds), the file
+//length, the row count, then the file offset of each row as an int; the author and category
+//dictionaries (a varint count, then each name as a varint length and UTF-8); then the rows:
+//varint id, author number, category number plus one (0 for none), created as zigzagged epoch
+//milliseconds, updated as the zigzagged difference from created, an answered byte, then the
+//title and content as length-prefixed UTF-8.
+//
+//the list is a picture of the board when it was saved: read-only and possibly out of date,
+//to be replaced by the storage's own rows once it is open.
+//
+//the snapshot is saved in two files, <path>.0 and <path>.1, and the newer complete one is
+//used. a save writes the one that is not mapped, since a mapped file cannot be replaced on
+//every platform, and a save cut short leaves the other one to fall back on.
+public final class QuestionSnapshot {
+    private static final int MAGIC = 0x42515342;    //"BQSB"
+    private static final int VERSION = 1;
+    private static final int HEADER = 24;
+
+    //the snapshot this run mapped, and which of the two files it is
+    private static QuestionSnapshot shared;
+    private static int sharedSlot = -1;
+    private static boolean sharedLoaded;
+    //the file the last save wrote
+    private static int savedSlot = 1;
+
+    private final MappedByteBuffer map;
+    private final long savedAt;
+    private final int count;
+    private final String[] authors;
+    private final String[] categories;
+    //rows decoded so far, so the list hands out the same object for the same row
+    private final Question[] decoded;
+
+    private QuestionSnapshot(MappedByteBuffer map) throws IOException {
+        this.map = map;
+        if (map.limit() < HEADER || map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            throw new IOException("not a question snapshot");
+        }
+        savedAt = map.getLong(8);
+        count = map.getInt(20);
+        if (map.getInt(16) != map.limit() || count < 0 || (long) HEADER + 4L * count > map.limit()) {
+            throw new IOException("question snapshot is cut short");
+        }
+        BoardRecords.In in = new BoardRecords.In(map.duplicate().position(HEADER + 4 * count));
+        authors = readNames(in);
+        categories = readNames(in);
+        decoded = new Question[count];
+    }
+
+    //the newest snapshot at DatabaseConfig.questionSnapshotPath(), mapped on first use; null when
+    //there is none yet
+    public static synchronized QuestionSnapshot shared() {
+        if (!sharedLoaded) {
+            sharedLoaded = true;
+            for (int slot = 0; slot < 2; slot++) {
+                Path file = slot(DatabaseConfig.questionSnapshotPath(), slot);
+                try {
+                    if (!Files.exists(file)) continue;
+                    QuestionSnapshot snapshot = open(file);
+                    if (shared == null || snapshot.savedAt > shared.savedAt) {
+                        shared = snapshot;
+                        sharedSlot = slot;
+                    }
+                } catch (IOException e) {
+                    System.out.println("Ignoring the question snapshot " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        return shared;
+    }
+
+    //map a snapshot file
+    public static QuestionSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new QuestionSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    //save the questions, in list order, for the next start: into the file shared() did not map,
+    //or when it mapped neither, the one the last save did not write
+    public static synchronized void save(List<Question> questions) throws IOException {
+        shared();
+        savedSlot = sharedSlot >= 0 ? 1 - sharedSlot : 1 - savedSlot;
+        write(slot(DatabaseConfig.questionSnapshotPath(), savedSlot), questions);
+    }
+
+    private static Path slot(Path base, int slot) {
+        return base.resolveSibling(base.getFileName() + "." + slot);
+    }
+
+    //write the questions, in list order, to the file
+    public static void write(Path file, List<Question> questions) throws IOException {
+        Map<String, Integer> authorNumbers = new HashMap<>();
+        Map<String, Integer> categoryNumbers = new HashMap<>();
+        BoardRecords.Out names = new BoardRecords.Out();
+        BoardRecords.Out rows = new BoardRecords.Out();
+        int[] offsets = new int[questions.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            Question q = questions.get(i);
+            offsets[i] = rows.length();
+            long created = millis(q.getCreatedAt());
+            long updated = millis(q.getUpdatedAt()) - created;
+            rows.putVarInt(q.getQuestionId());
+            rows.putVarInt(number(authorNumbers, q.getAuthorUserName()));
+            rows.putVarInt(q.getCategory() == null ? 0 : number(categoryNumbers, q.getCategory()) + 1);
+            rows.putVarLong((created << 1) ^ (created >> 63));
+            rows.putVarLong((updated << 1) ^ (updated >> 63));
+            rows.putByte(q.getIsAnswered() ? 1 : 0);
+            rows.putString(q.getTitle());
+            rows.putString(q.getContent());
+        }
+        putNames(names, authorNumbers);
+        putNames(names, categoryNumbers);
+
+        long rowStart = HEADER + 4L * offsets.length + names.length();
+        if (rowStart + rows.length() > Integer.MAX_VALUE) {
+            throw new IOException("too many questions for a snapshot");
+        }
+        BoardRecords.Out header = new BoardRecords.Out();
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(System.currentTimeMillis());
+        header.putInt((int) rowStart + rows.length());
+        header.putInt(offsets.length);
+        for (int offset : offsets) header.putInt((int) rowStart + offset);
+
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer[] parts = {
+                ByteBuffer.wrap(header.array(), 0, header.length()),
+                ByteBuffer.wrap(names.array(), 0, names.length()),
+                ByteBuffer.wrap(rows.array(), 0, rows.length()),
+            };
+            while (parts[2].hasRemaining()) out.write(parts);
+            out.force(true);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    //the question at the index, decoded on first use
+    public synchronized Question get(int index) {
+        Question q = decoded[index];
+        if (q == null) {
+            q = decode(map.getInt(HEADER + 4 * index));
+            decoded[index] = q;
+        }
+        return q;
+    }
+
+    //the questions as a read-only list that decodes rows as they are read
+    public List<Question> questions() {
+        return new AbstractList<>() {
+            @Override
+            public Question get(int index) {
+                return QuestionSnapshot.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    private Question decode(int offset) {
+        BoardRecords.In in = new BoardRecords.In(map.duplicate().position(offset));
+        int id = in.getVarInt();
+        String author = authors[in.getVarInt()];
+        int category = in.getVarInt();
+        long created = unzigzag(in.getVarLong());
+        long updated = created + unzigzag(in.getVarLong());
+        boolean answered = in.getByte() != 0;
+        String title = in.getString();
+        String content = in.getString();
+        return new Question(id, title, content, author, category == 0 ? null : categories[category - 1],
+                time(created), time(updated), answered);
+    }
+
+    private static int number(Map<String, Integer> numbers, String name) {
+        return numbers.computeIfAbsent(name == null ? "" : name, n -> numbers.size());
+    }
+
+    //the names in the order of their numbers
+    private static void putNames(BoardRecords.Out out, Map<String, Integer> numbers) {
+        String[] names = new String[numbers.size()];
+        numbers.forEach((name, n) -> names[n] = name);
+        out.putVarInt(names.length);
+        for (String name : names) out.putString(name);
+    }
+
+    private static String[] readNames(BoardRecords.In in) {
+        String[] names = new String[in.getVarInt()];
+        for (int i = 0; i < names.length; i++) names[i] = in.getString();
+        return names;
+    }
+
+    private static long millis(LocalDateTime t) {
+        return t == null ? 0 : t.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime time(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
@@ -0,0 +1,312 @@
+package databasePart1;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//a slow-query detector for the prepared statements of the DAO and DatabaseHelper.
+//statements from prepare() record their bound parameters and time each execution; a query is
+//timed until its result set (or the statement) is closed, so row mapping is included. when an
+//execution takes longer than the threshold, the SQL, the parameters (password columns are
+//redacted), the time, the row count and the H2 plan are appended to a rolling log file.
+//the plan and the file are written by a background thread, which captures the plan on a
+//connection of its own, so the slow query is not run again on the caller's thread.
+//
+//settings (system properties):
+//  board.slowQuery.thresholdMillis  default 100, a negative value turns the log off
+//  board.slowQuery.file             default ~/FoundationDatabase-slow-queries.log
+public class SlowQueryLog {
+    private static final long MAX_FILE_BYTES = 1024 * 1024;
+    private static final int KEPT_FILES = 3;
+    //a plan is captured at most once a minute for the same SQL
+    private static final long PLAN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final Pattern INSERT_COLUMNS =
+            Pattern.compile("(?i)insert\\s+into\\s+\\w+\\s*\\(([^)]*)\\)\\s*values\\s*\\(");
+    private static final Pattern COMPARED_COLUMN =
+            Pattern.compile("(?i)(\\w+)\\s*(=|<>|!=|<=|>=|<|>|like)\\s*$");
+
+    private static volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("board.slowQuery.thresholdMillis", 100));
+    private static volatile Path logFile = Paths.get(System.getProperty("board.slowQuery.file",
+            System.getProperty("user.home") + "/FoundationDatabase-slow-queries.log"));
+
+    private static final Map<String, boolean[]> REDACTIONS = new ConcurrentHashMap<>();
+    private static final Map<String, Long> LAST_PLAN = new ConcurrentHashMap<>();
+    //explains the slow queries and writes the entries, in the order they were logged
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "slow-query-log");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private SlowQueryLog() {
+    }
+
+    public static void setThresholdMillis(long millis) {
+        thresholdNanos = millis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public static void setLogFile(Path file) {
+        logFile = file;
+    }
+
+    public static Path getLogFile() {
+        return logFile;
+    }
+
+    //prepare a statement whose executions are checked against the threshold
+    public static PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        return trace(connection, sql, connection.prepareStatement(sql));
+    }
+
+    public static PreparedStatement prepare(Connection connection, String sql, int autoGeneratedKeys)
+            throws SQLException {
+        return trace(connection, sql, connection.prepareStatement(sql, autoGeneratedKeys));
+    }
+
+    private static PreparedStatement trace(Connection connection, String sql, PreparedStatement statement) {
+        if (thresholdNanos < 0) return statement;
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, new TracedStatement(connection, sql, statement));
+    }
+
+    //records the parameters of one statement and times its executions
+    private static final class TracedStatement implements InvocationHandler {
+        private final Connection connection;
+        private final String sql;
+        private final PreparedStatement target;
+        private Object[] parameters = new Object[8];
+
+        //the query whose result set is still open, if any
+        private long queryStart;
+        private long queryExecuteNanos;
+        private long queryRows;
+        private boolean queryOpen;
+
+        TracedStatement(Connection connection, String sql, PreparedStatement target) {
+            this.connection = connection;
+            this.sql = sql;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("executeQuery") && (args == null || args.length == 0)) {
+                finishQuery();
+                queryStart = System.nanoTime();
+                ResultSet rs = (ResultSet) call(target, method, args);
+                queryExecuteNanos = System.nanoTime() - queryStart;
+                queryRows = 0;
+                queryOpen = true;
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                        new TracedResultSet(this, rs));
+            }
+            if ((name.equals("executeUpdate") || name.equals("execute")) && (args == null || args.length == 0)) {
+                long start = System.nanoTime();
+                Object result = call(target, method, args);
+                long elapsed = System.nanoTime() - start;
+                long rows = result instanceof Integer ? (Integer) result : target.getUpdateCount();
+                check(connection, sql, parameters, elapsed, elapsed, rows);
+                return result;
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0];
+                if (index >= parameters.length) parameters = Arrays.copyOf(parameters, index * 2);
+                parameters[index] = args[1];
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, null);
+            } else if (name.equals("close")) {
+                finishQuery();
+            }
+            return call(target, method, args);
+        }
+
+        void finishQuery() {
+            if (!queryOpen) return;
+            queryOpen = false;
+            check(connection, sql, parameters, System.nanoTime() - queryStart, queryExecuteNanos, queryRows);
+        }
+    }
+
+    //counts the rows of a traced query and ends its timing when closed
+    private static final class TracedResultSet implements InvocationHandler {
+        private final TracedStatement statement;
+        private final ResultSet target;
+
+        TracedResultSet(TracedStatement statement, ResultSet target) {
+            this.statement = statement;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = call(target, method, args);
+            String name = method.getName();
+            if (name.equals("next")) {
+                if ((Boolean) result) statement.queryRows++;
+            } else if (name.equals("close")) {
+                statement.finishQuery();
+            }
+            return result;
+        }
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    //log the execution if it was slow
+    private static void check(Connection connection, String sql, Object[] parameters, long elapsedNanos,
+            long executeNanos, long rows) {
+        long threshold = thresholdNanos;
+        if (threshold < 0 || elapsedNanos < threshold) return;
+
+        StringBuilder entry = new StringBuilder();
+        entry.append(String.format(Locale.ROOT, "%s slow query %.3f ms (execute %.3f ms), %d rows%n",
+                LocalDateTime.now(), elapsedNanos / 1e6, executeNanos / 1e6, rows));
+        entry.append("  SQL: ").append(sql).append(System.lineSeparator());
+        entry.append("  Parameters: ").append(describeParameters(sql, parameters)).append(System.lineSeparator());
+
+        long now = System.nanoTime();
+        Long last = LAST_PLAN.get(sql);
+        String url = null;
+        if (last == null || now - last > PLAN_INTERVAL_NANOS) {
+            LAST_PLAN.put(sql, now);
+            try {
+                url = connection.getMetaData().getURL();
+            } catch (SQLException e) {
+                entry.append("  Plan: (no plan: ").append(e.getMessage()).append(')').append(System.lineSeparator());
+            }
+        }
+        //the statement keeps binding new parameters, so the plan gets a copy of these
+        String database = url;
+        Object[] bound = parameters.clone();
+        WRITER.execute(() -> {
+            if (database != null) {
+                entry.append("  Plan:").append(System.lineSeparator());
+                for (String line : explain(database, sql, bound).split("\\R"))
+                    entry.append("    ").append(line).append(System.lineSeparator());
+            }
+            write(entry.toString());
+        });
+    }
+
+    //EXPLAIN ANALYZE runs the statement again, so it is only used for queries; it runs on a new
+    //connection to the database, which is closed afterwards
+    private static String explain(String url, String sql, Object[] parameters) {
+        boolean query = sql.trim().regionMatches(true, 0, "SELECT", 0, 6);
+        try (Connection connection = DriverManager.getConnection(url, DatabaseConfig.USER, DatabaseConfig.PASS);
+             PreparedStatement explain = connection.prepareStatement((query ? "EXPLAIN ANALYZE " : "EXPLAIN ") + sql)) {
+            for (int i = 1; i < parameters.length; i++) {
+                if (parameters[i] != null) explain.setObject(i, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) plan.append(rs.getString(1)).append(System.lineSeparator());
+            }
+            return plan.toString().trim();
+        } catch (SQLException e) {
+            return "(no plan: " + e.getMessage() + ")";
+        }
+    }
+
+    private static String describeParameters(String sql, Object[] parameters) {
+        boolean[] redacted = REDACTIONS.computeIfAbsent(sql, SlowQueryLog::redactedParameters);
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 1; i < parameters.length; i++) {
+            if (parameters[i] == null) continue;
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(i).append('=');
+            if (i < redacted.length && redacted[i]) sb.append("<redacted>");
+            else if (parameters[i] instanceof String) sb.append('\'').append(parameters[i]).append('\'');
+            else sb.append(parameters[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    //which parameters (1-based) bind to a password column, from the insert column list or the
+    //column compared with the ?
+    static boolean[] redactedParameters(String sql) {
+        List<String> insertColumns = new ArrayList<>();
+        int valuesStart = -1;
+        Matcher insert = INSERT_COLUMNS.matcher(sql);
+        if (insert.find()) {
+            for (String column : insert.group(1).split(",")) insertColumns.add(column.trim());
+            valuesStart = insert.end();
+        }
+
+        List<Boolean> redacted = new ArrayList<>();
+        redacted.add(false);
+        boolean quoted = false;
+        int insertIndex = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') quoted = !quoted;
+            if (quoted || c != '?') continue;
+            String column = null;
+            if (valuesStart >= 0 && i >= valuesStart && insertIndex < insertColumns.size()) {
+                column = insertColumns.get(insertIndex++);
+            } else {
+                Matcher compared = COMPARED_COLUMN.matcher(sql.substring(0, i));
+                if (compared.find()) column = compared.group(1);
+            }
+            redacted.add(column != null && column.equalsIgnoreCase("password"));
+        }
+        boolean[] result = new boolean[redacted.size()];
+        for (int i = 0; i < result.length; i++) result[i] = redacted.get(i);
+        return result;
+    }
+
+    //append to the log, rolling it to .1, .2, ... when it grows past the limit
+    private static synchronized void write(String entry) {
+        Path file = logFile;
+        try {
+            if (Files.exists(file) && Files.size(file) > MAX_FILE_BYTES) {
+                for (int i = KEPT_FILES - 1; i >= 1; i--) {
+                    Path older = Paths.get(file + "." + i);
+                    if (Files.exists(older))
+                        Files.move(older, Paths.get(file + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.move(file, Paths.get(file + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(entry);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write the slow-query log " + file + ": " + e.getMessage());
+        }
+    }
+}
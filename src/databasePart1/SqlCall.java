@@ -0,0 +1,9 @@
+package databasePart1;
+
+import java.sql.SQLException;
+
+//a unit of database work that returns a value, so it can be timed by OperationMetrics
+@FunctionalInterface
+interface SqlCall<T> {
+    T call() throws SQLException;
+}
@@ -0,0 +1,186 @@
+package databasePart1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+//an append-only file of checksummed frames: the payload length and its CRC32C as big-endian
+//ints, then the payload. the snapshots use the same frames.
+//
+//writers append to a buffer in memory (under the board's write lock, so the log has the order
+//the writes were made in) and then call sync, which writes and forces everything appended so
+//far. while one thread is forcing, the records of the others pile up in the other buffer and
+//the next sync writes them all with one force, so concurrent writers share the cost of the
+//disk flush (group commit).
+final class WriteAheadLog implements Closeable {
+    static final int FRAME_HEADER = 8;
+    //a frame longer than this can only be a torn or damaged header
+    private static final int MAX_FRAME = 64 << 20;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+    private FileChannel channel;
+
+    //appended but not yet written; swapped with writing by each sync (guarded by this)
+    private ByteBuffer pending = ByteBuffer.allocate(64 << 10);
+    private ByteBuffer writing = ByteBuffer.allocate(64 << 10);
+    private long appended;
+    private int pendingRecords;
+
+    //the last record known to be on disk, and the bytes in the current file
+    private volatile long durable;
+    private volatile long size;
+    //set when a write or force fails; the records after durable may be lost, so every later
+    //sync fails too rather than report them saved
+    private volatile IOException failure;
+
+    //open the file for appending after its first validLength bytes, dropping a torn tail
+    WriteAheadLog(Path file, long validLength) throws IOException {
+        channel = open(file);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        size = validLength;
+    }
+
+    //add a record to the log, returning its sequence number for sync
+    synchronized long append(byte[] payload, int length) {
+        if (pending.remaining() < FRAME_HEADER + length) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + FRAME_HEADER + length));
+            pending.flip();
+            pending = bigger.put(pending);
+        }
+        frame(pending, crc, payload, length);
+        pendingRecords++;
+        return ++appended;
+    }
+
+    //make sure the record with the given sequence number is on disk, returning the number of
+    //records this call wrote (0 when another thread's sync already covered it)
+    int sync(long sequence) throws IOException {
+        if (durable >= sequence) return 0;
+        syncLock.lock();
+        try {
+            if (durable >= sequence) return 0;
+            if (failure != null) throw new IOException("The board log could not be written", failure);
+            return flush();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    //the bytes in the current file
+    long size() {
+        return size;
+    }
+
+    //continue the log in a new file once everything appended so far is on disk in the old one.
+    //the caller keeps writers out meanwhile.
+    void roll(Path next) throws IOException {
+        syncLock.lock();
+        try {
+            flush();
+            channel.close();
+            channel = open(next);
+            size = 0;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        syncLock.lock();
+        try {
+            flush();
+            channel.close();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    //with syncLock held: write and force everything appended so far
+    private int flush() throws IOException {
+        ByteBuffer batch;
+        long last;
+        int records;
+        synchronized (this) {
+            batch = pending;
+            pending = writing;
+            writing = batch;
+            last = appended;
+            records = pendingRecords;
+            pendingRecords = 0;
+        }
+        batch.flip();
+        try {
+            while (batch.hasRemaining()) channel.write(batch);
+            channel.force(false);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        } finally {
+            batch.clear();
+        }
+        size = channel.position();
+        durable = last;
+        return records;
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    //write one frame into the buffer
+    static void frame(ByteBuffer out, CRC32C crc, byte[] payload, int length) {
+        crc.reset();
+        crc.update(payload, 0, length);
+        out.putInt(length);
+        out.putInt((int) crc.getValue());
+        out.put(payload, 0, length);
+    }
+
+    //pass the payload of each frame to the handler, stopping at the end of the file or at the
+    //first frame that is cut short or fails its checksum. returns the length of the valid frames.
+    static long read(Path file, Consumer<ByteBuffer> handler) throws IOException {
+        CRC32C crc = new CRC32C();
+        long valid = 0;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(1 << 20);
+            buf.flip();
+            while (fill(in, buf, FRAME_HEADER)) {
+                int length = buf.getInt(buf.position());
+                int checksum = buf.getInt(buf.position() + 4);
+                if (length < 0 || length > MAX_FRAME) break;
+                if (buf.capacity() < FRAME_HEADER + length) {
+                    buf = ByteBuffer.allocate(FRAME_HEADER + length).put(buf).flip();
+                }
+                if (!fill(in, buf, FRAME_HEADER + length)) break;
+                ByteBuffer payload = buf.slice(buf.position() + FRAME_HEADER, length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) break;
+                handler.accept(payload);
+                buf.position(buf.position() + FRAME_HEADER + length);
+                valid += FRAME_HEADER + length;
+            }
+        }
+        return valid;
+    }
+
+    //make at least n bytes readable, reading more of the file; false if the file ends first
+    private static boolean fill(FileChannel in, ByteBuffer buf, int n) throws IOException {
+        while (buf.remaining() < n) {
+            buf.compact();
+            int read = in.read(buf);
+            buf.flip();
+            if (read < 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package inputValidation;
+
+/*******
+ * <p> Title: CharClass Class. </p>
+ *
+ * <p> Description: An immutable set of characters used as the input alphabet of a validation
+ * rule set.  ASCII characters are held in a 128-bit map; all non-ASCII characters are either
+ * in the class or not.</p>
+ *
+ * @version 1.00	2026-10-19 Initial version for the compiled validation engine
+ *
+ */
+public final class CharClass {
+	private final long low;				// Characters 0 - 63
+	private final long high;			// Characters 64 - 127
+	private final boolean nonAscii;		// Are the characters above 127 in the class?
+
+	private CharClass(long low, long high, boolean nonAscii) {
+		this.low = low;
+		this.high = high;
+		this.nonAscii = nonAscii;
+	}
+
+	// The characters from first to last, inclusive (both must be ASCII)
+	public static CharClass range(char first, char last) {
+		if (first > last || last > 127) throw new IllegalArgumentException("Invalid ASCII range");
+		CharClass result = new CharClass(0, 0, false);
+		for (char c = first; c <= last; c++) result = result.with(c);
+		return result;
+	}
+
+	// Each of the characters of the string (all must be ASCII)
+	public static CharClass of(String chars) {
+		CharClass result = new CharClass(0, 0, false);
+		for (int i = 0; i < chars.length(); i++) result = result.with(chars.charAt(i));
+		return result;
+	}
+
+	// Every character, ASCII or not
+	public static CharClass any() {
+		return new CharClass(-1L, -1L, true);
+	}
+
+	// The characters of this class and of the other class
+	public CharClass or(CharClass other) {
+		return new CharClass(low | other.low, high | other.high, nonAscii || other.nonAscii);
+	}
+
+	public boolean contains(char c) {
+		if (c >= 128) return nonAscii;
+		return c < 64 ? (low & (1L << c)) != 0 : (high & (1L << (c - 64))) != 0;
+	}
+
+	public boolean containsNonAscii() {
+		return nonAscii;
+	}
+
+	private CharClass with(char c) {
+		if (c > 127) throw new IllegalArgumentException("Not an ASCII character: " + c);
+		return c < 64 ? new CharClass(low | (1L << c), high, nonAscii)
+				: new CharClass(low, high | (1L << (c - 64)), nonAscii);
+	}
+}
@@ -0,0 +1,180 @@
+package inputValidation;
+
+import java.util.Arrays;
+
+/*******
+ * <p> Title: CompiledValidator Class. </p>
+ *
+ * <p> Description: The table-driven form of a ValidationRules set.  Every ASCII character is
+ * mapped to a class index, and the next state of each (state, class) pair is held in a flat
+ * array.  A validator holds no state between calls, so one instance may be shared by every
+ * thread.  The input is read in place through CharSequence.charAt and never copied, and a
+ * valid input returns a shared result without allocating.</p>
+ *
+ * @version 1.00	2026-10-19 Initial version for the compiled validation engine
+ *
+ */
+public final class CompiledValidator {
+	private final String name;
+	private final byte[] asciiClass = new byte[128];	// The class index of each ASCII char
+	private final int nonAsciiClass;					// The class index of chars above 127
+	private final int classCount;						// Declared classes plus "no class"
+	private final int[] nextState;						// [state * classCount + class], -1 halts
+	private final boolean[] finalState;
+	private final String[] stateMessage;
+	private final int[] classRequirement;				// The requirement bit of each class
+	private final int lengthRequirement;
+	private final int lengthRequirementBit;
+	private final int allRequirements;
+	private final String[] missingMessage;				// Indexed by the missing requirement bits
+	private final int[] requirementBits;				// Ascending, with their messages
+	private final String[] requirementMessages;
+	private final String requirementsSuffix;
+	private final int minLength;
+	private final String minLengthMessage;
+	private final int maxLength;
+	private final String maxLengthMessage;
+	private final String emptyMessage;
+	private final boolean trimWhitespace;
+	private final boolean optional;
+	private final ValidationResult valid;
+
+	CompiledValidator(ValidationRules rules) {
+		name = rules.name;
+
+		// Map every character to the one declared class that holds it
+		int declared = rules.classes.size();
+		if (declared > 126) throw new IllegalArgumentException(name + ": too many classes");
+		classCount = declared + 1;
+		Arrays.fill(asciiClass, (byte) declared);
+		int nonAscii = declared;
+		for (int k = 0; k < declared; k++) {
+			CharClass chars = rules.classes.get(k);
+			for (char c = 0; c < 128; c++) {
+				if (!chars.contains(c)) continue;
+				if (asciiClass[c] != declared) throw new IllegalArgumentException(name +
+						": classes " + rules.classNames.get(asciiClass[c]) + " and " +
+						rules.classNames.get(k) + " overlap");
+				asciiClass[c] = (byte) k;
+			}
+			if (chars.containsNonAscii()) {
+				if (nonAscii != declared) throw new IllegalArgumentException(name +
+						": more than one class holds non-ASCII characters");
+				nonAscii = k;
+			}
+		}
+		nonAsciiClass = nonAscii;
+
+		// Build the transition table
+		int states = 1;
+		for (int[] t : rules.transitions) states = Math.max(states, Math.max(t[0], t[2]) + 1);
+		for (int s : rules.finalStates) states = Math.max(states, s + 1);
+		nextState = new int[states * classCount];
+		Arrays.fill(nextState, -1);
+		for (int[] t : rules.transitions) nextState[t[0] * classCount + t[1]] = t[2];
+		finalState = new boolean[states];
+		for (int s : rules.finalStates) finalState[s] = true;
+		stateMessage = new String[states];
+		Arrays.fill(stateMessage, "");
+		for (Object[] m : rules.stateMessages) stateMessage[(Integer) m[0]] = (String) m[1];
+
+		// Build the requirement bits
+		classRequirement = new int[classCount];
+		int all = 0;
+		int lengthBit = 0;
+		for (Object[] r : rules.requirements) {
+			int cls = (Integer) r[0];
+			int bit = (Integer) r[1];
+			if (Integer.bitCount(bit) != 1 || (all & bit) != 0)
+				throw new IllegalArgumentException(name + ": requirement bits must be distinct");
+			if (cls < 0) lengthBit = bit;
+			else classRequirement[cls] |= bit;
+			all |= bit;
+		}
+		allRequirements = all;
+		lengthRequirement = rules.lengthRequirement;
+		lengthRequirementBit = lengthBit;
+		Object[][] sorted = rules.requirements.toArray(new Object[0][]);
+		Arrays.sort(sorted, (a, b) -> Integer.compare((Integer) a[1], (Integer) b[1]));
+		requirementBits = new int[sorted.length];
+		requirementMessages = new String[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			requirementBits[i] = (Integer) sorted[i][1];
+			requirementMessages[i] = (String) sorted[i][2];
+		}
+		requirementsSuffix = rules.requirementsSuffix;
+		missingMessage = (32 - Integer.numberOfLeadingZeros(all)) <= 8 ? new String[all + 1] : null;
+		if (missingMessage != null)
+			for (int missing = 1; missing <= all; missing++)
+				if ((missing & ~all) == 0) missingMessage[missing] = describeMissing(missing);
+
+		minLength = rules.minLength;
+		minLengthMessage = rules.minLengthMessage;
+		maxLength = rules.maxLength;
+		maxLengthMessage = rules.maxLengthMessage;
+		emptyMessage = rules.emptyMessage;
+		trimWhitespace = rules.trimWhitespace;
+		optional = rules.optional;
+		valid = new ValidationResult(true, "", -1, allRequirements);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**********
+	 * Run the machine over the whole input.
+	 *
+	 * @param input		The input to validate; null is treated as empty
+	 * @return			The shared valid result, or a result describing the first error
+	 */
+	public ValidationResult validate(CharSequence input) {
+		int from = 0;
+		int to = input == null ? 0 : input.length();
+		if (trimWhitespace) {
+			while (from < to && input.charAt(from) <= ' ') from++;
+			while (to > from && input.charAt(to - 1) <= ' ') to--;
+		}
+		if (from == to) return optional ? valid : new ValidationResult(false, emptyMessage, 0, 0);
+
+		int state = 0;
+		int count = 0;
+		int requirements = 0;
+		int currentCharNdx = from;
+		while (currentCharNdx < to) {
+			char currentChar = input.charAt(currentCharNdx);
+			int cls = currentChar < 128 ? asciiClass[currentChar] : nonAsciiClass;
+			int next = nextState[state * classCount + cls];
+			if (next < 0) break;
+			if (++count > maxLength) break;
+			requirements |= classRequirement[cls];
+			state = next;
+			currentCharNdx++;
+		}
+		if (lengthRequirementBit != 0 && currentCharNdx - from >= lengthRequirement)
+			requirements |= lengthRequirementBit;
+
+		// Determine if the situation where the machine halted is an error or not
+		if (!finalState[state])
+			return new ValidationResult(false, stateMessage[state], currentCharNdx, requirements);
+		if (count < minLength)
+			return new ValidationResult(false, minLengthMessage, currentCharNdx, requirements);
+		if (count > maxLength)
+			return new ValidationResult(false, maxLengthMessage, currentCharNdx, requirements);
+		if (currentCharNdx < to)
+			return new ValidationResult(false, stateMessage[state], currentCharNdx, requirements);
+		if (requirements != allRequirements) {
+			int missing = allRequirements & ~requirements;
+			String message = missingMessage != null ? missingMessage[missing] : describeMissing(missing);
+			return new ValidationResult(false, message, currentCharNdx, requirements);
+		}
+		return valid;
+	}
+
+	private String describeMissing(int missing) {
+		StringBuilder message = new StringBuilder();
+		for (int i = 0; i < requirementBits.length; i++)
+			if ((missing & requirementBits[i]) != 0) message.append(requirementMessages[i]);
+		return message.append(requirementsSuffix).toString();
+	}
+}
@@ -0,0 +1,35 @@
+package inputValidation;
+
+/*******
+ * <p> Title: ValidationResult Class. </p>
+ *
+ * <p> Description: The immutable outcome of running a CompiledValidator.  A detailed error
+ * message and a pointer to the character of the error will enhance the user experience of GUI
+ * applications.</p>
+ *
+ * @version 1.00	2026-10-19 Initial version for the compiled validation engine
+ *
+ */
+public final class ValidationResult {
+	private final boolean valid;			// Was the input accepted?
+	private final String errorMessage;		// The error message text, empty when valid
+	private final int indexOfError;			// The index of error location, -1 when valid
+	private final int requirements;			// The requirement bits that were satisfied
+
+	ValidationResult(boolean valid, String errorMessage, int indexOfError, int requirements) {
+		this.valid = valid;
+		this.errorMessage = errorMessage;
+		this.indexOfError = indexOfError;
+		this.requirements = requirements;
+	}
+
+	public boolean isValid() { return valid; }
+	public String getErrorMessage() { return errorMessage; }
+	public int getIndexOfError() { return indexOfError; }
+	public int getRequirements() { return requirements; }
+
+	// Is the requirement with the given bit satisfied?
+	public boolean has(int requirementBit) {
+		return (requirements & requirementBit) == requirementBit;
+	}
+}
@@ -0,0 +1,129 @@
+package inputValidation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*******
+ * <p> Title: ValidationRules Class. </p>
+ *
+ * <p> Description: A declarative description of an input recognizer: named character classes,
+ * the state transitions of a Finite State Machine diagram over those classes, length bounds,
+ * and requirements that must be satisfied somewhere in the input.  The rules are compiled into
+ * a table-driven CompiledValidator.</p>
+ *
+ * <p> The machine starts in state 0.  When it halts, the message of the halting state is used
+ * if that state is not final, or if it is final but characters remain in the input.</p>
+ *
+ * @version 1.00	2026-10-19 Initial version for the compiled validation engine
+ *
+ */
+public class ValidationRules {
+	final String name;
+	final List<String> classNames = new ArrayList<>();
+	final List<CharClass> classes = new ArrayList<>();
+	final List<int[]> transitions = new ArrayList<>();		// {from, class, to}
+	final List<Integer> finalStates = new ArrayList<>();
+	final List<Object[]> stateMessages = new ArrayList<>();	// {state, message}
+	final List<Object[]> requirements = new ArrayList<>();	// {class or -1, bit, message}
+	int minLength = 0;
+	String minLengthMessage = "";
+	int maxLength = Integer.MAX_VALUE;
+	String maxLengthMessage = "";
+	int lengthRequirement = 0;
+	String emptyMessage = "";
+	String requirementsSuffix = "";
+	boolean trimWhitespace = false;
+	boolean optional = false;
+
+	public ValidationRules(String name) {
+		this.name = name;
+	}
+
+	// Declare a named character class; classes may not overlap
+	public ValidationRules charClass(String className, CharClass chars) {
+		if (classNames.contains(className))
+			throw new IllegalArgumentException(name + ": duplicate class " + className);
+		classNames.add(className);
+		classes.add(chars);
+		return this;
+	}
+
+	// On a character of the class, move from one state to another
+	public ValidationRules transition(int fromState, String className, int toState) {
+		transitions.add(new int[] { fromState, classIndex(className), toState });
+		return this;
+	}
+
+	// The machine accepts the input if it ends in one of these states
+	public ValidationRules finalState(int state) {
+		finalStates.add(state);
+		return this;
+	}
+
+	// The error reported when the machine halts in this state
+	public ValidationRules stateMessage(int state, String message) {
+		stateMessages.add(new Object[] { state, message });
+		return this;
+	}
+
+	// Input shorter than this is rejected once the machine stops in a final state
+	public ValidationRules minLength(int length, String message) {
+		minLength = length;
+		minLengthMessage = message;
+		return this;
+	}
+
+	// The machine halts as soon as this many characters are exceeded
+	public ValidationRules maxLength(int length, String message) {
+		maxLength = length;
+		maxLengthMessage = message;
+		return this;
+	}
+
+	// The error reported for empty (or, when trimming, blank) input
+	public ValidationRules emptyMessage(String message) {
+		emptyMessage = message;
+		return this;
+	}
+
+	// At least one character of the class must appear; reported through the requirement bit
+	public ValidationRules requireClass(String className, int bit, String message) {
+		requirements.add(new Object[] { classIndex(className), bit, message });
+		return this;
+	}
+
+	// The input must have at least this many characters; reported through the requirement bit
+	public ValidationRules requireLength(int length, int bit, String message) {
+		lengthRequirement = length;
+		requirements.add(new Object[] { -1, bit, message });
+		return this;
+	}
+
+	// Appended to the messages of the unsatisfied requirements
+	public ValidationRules requirementsSuffix(String suffix) {
+		requirementsSuffix = suffix;
+		return this;
+	}
+
+	// Ignore leading and trailing characters up to and including a space, like String.trim()
+	public ValidationRules trimWhitespace() {
+		trimWhitespace = true;
+		return this;
+	}
+
+	// Empty input is valid
+	public ValidationRules optional() {
+		optional = true;
+		return this;
+	}
+
+	public CompiledValidator compile() {
+		return new CompiledValidator(this);
+	}
+
+	private int classIndex(String className) {
+		int index = classNames.indexOf(className);
+		if (index < 0) throw new IllegalArgumentException(name + ": unknown class " + className);
+		return index;
+	}
+}
@@ -1,138 +1,302 @@
 package passwordEvaluationTestbed;
 
+import inputValidation.ValidationResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
 /*******
  * <p> Title: PasswordEvaluationTestingAutomation Class. </p>
- * 
- * <p> Description: A Java demonstration for semi-automated tests </p>
- * 
+ *
+ * <p> Description: A Java demonstration for semi-automated tests.  The test cases are read from
+ * a corpus file and run across a fork-join pool, and the report gives the failed cases, the
+ * throughput and the latency percentiles of the evaluator.  The exit status is non-zero when a
+ * case fails or the 99th percentile latency exceeds the limit, so the run can be used as a
+ * regression and performance gate.</p>
+ *
+ * <p> Usage: </p>
+ * <pre>
+ *   PasswordEvaluationTestingAutomation [corpus.csv] [--threads N] [--max-p99-micros X] [--verbose]
+ *   PasswordEvaluationTestingAutomation --generate N output.csv [--seed S]
+ * </pre>
+ *
+ * <p> Each corpus line is "testCase,expectedPass,password"; the password is everything after
+ * the second comma, so it may hold commas.  Blank lines and lines starting with # are skipped.
+ * Without a corpus file the passwordTestCases.csv resource next to this class is used.</p>
+ *
  * <p> Copyright: Lynn Robert Carter © 2022 </p>
- * 
+ *
  * @author Lynn Robert Carter
- * 
+ *
  * @version 1.00	2022-02-25 A set of semi-automated test cases
  * @version 2.00	2024-09-22 Updated for use at ASU
- * 
+ * @version 3.00	2026-10-19 Data-driven corpus run across a fork-join pool
+ *
  */
 public class PasswordEvaluationTestingAutomation {
-	
-	static int numPassed = 0;	// Counter of the number of passed tests
-	static int numFailed = 0;	// Counter of the number of failed tests
+
+	static final LongAdder numPassed = new LongAdder();	// Counter of the number of passed tests
+	static final LongAdder numFailed = new LongAdder();	// Counter of the number of failed tests
+
+	private static final String DEFAULT_CORPUS = "passwordTestCases.csv";
+	private static final int CASES_PER_TASK = 256;		// Below this a task runs its cases itself
+
+	// One line of the corpus
+	static final class TestCase {
+		final int testCase;
+		final boolean expectedPass;
+		final String inputText;
+
+		TestCase(int testCase, boolean expectedPass, String inputText) {
+			this.testCase = testCase;
+			this.expectedPass = expectedPass;
+			this.inputText = inputText;
+		}
+	}
 
 	/*
-	 * This mainline displays a header to the console, performs a sequence of
-	 * test cases, and then displays a footer with a summary of the results
+	 * This mainline displays a header to the console, performs the test cases of the corpus,
+	 * and then displays a footer with a summary of the results
 	 */
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
+		String corpusFile = null;
+		int threads = Runtime.getRuntime().availableProcessors();
+		double maxP99Micros = Double.MAX_VALUE;
+		boolean verbose = false;
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "--generate":
+				long seed = args.length > i + 4 && args[i + 3].equals("--seed") ? Long.parseLong(args[i + 4]) : 360;
+				generateCorpus(Integer.parseInt(args[i + 1]), args[i + 2], seed);
+				return;
+			case "--threads": threads = Integer.parseInt(args[++i]); break;
+			case "--max-p99-micros": maxP99Micros = Double.parseDouble(args[++i]); break;
+			case "--verbose": verbose = true; break;
+			default: corpusFile = args[i];
+			}
+		}
+
 		/************** Test cases semi-automation report header **************/
 		System.out.println("______________________________________");
 		System.out.println("\nTesting Automation");
 
-		/************** Start of the test cases **************/
-		
-		// This is a properly written positive test
-		performTestCase(1, "Aa!15678", true);
-		
-		// This is a properly written negative test
-		performTestCase(2, "A!", false);
-		
-		// This is an improperly written negative test, because the password
-		// is valid, but the second parameter asserts that it is not valid
-		performTestCase(3, "Aa!15678", false);
-		
-		// These are improperly written positive test, because the password 
-		// is not valid, but the second parameter asserts that it is valid
-		performTestCase(4, "A!", true);
-		performTestCase(5, "", true);
-		// Add more test cases here
-		
-		/************** End of the test cases **************/
-		
-		/************** Test cases semi-automation report footer **************/
-		System.out.println("____________________________________________________________________________");
-		System.out.println();
-		System.out.println("Number of tests passed: "+ numPassed);
-		System.out.println("Number of tests failed: "+ numFailed);
+		List<TestCase> cases = corpusFile == null ? readCorpus(
+				PasswordEvaluationTestingAutomation.class.getResourceAsStream(DEFAULT_CORPUS))
+				: readCorpus(Files.newInputStream(Paths.get(corpusFile)));
+		System.out.println("Corpus: " + (corpusFile == null ? DEFAULT_CORPUS : corpusFile) +
+				"  |  Cases: " + cases.size() + "  |  Threads: " + threads);
+
+		/************** Run the test cases **************/
+		int n = cases.size();
+		ValidationResult[] results = new ValidationResult[n];
+		long[] latencyNanos = new long[n];
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			// An unmeasured pass lets the JIT compile the evaluator before the timed pass
+			pool.invoke(new RunCases(cases, results, latencyNanos, 0, n, false));
+			long start = System.nanoTime();
+			pool.invoke(new RunCases(cases, results, latencyNanos, 0, n, true));
+			long elapsed = System.nanoTime() - start;
+
+			/************** Display the failed (or, when verbose, all) cases **************/
+			for (int i = 0; i < n; i++) {
+				TestCase c = cases.get(i);
+				if (verbose || results[i].isValid() != c.expectedPass) displayTestCase(c, results[i]);
+			}
+
+			/************** Test cases semi-automation report footer **************/
+			Arrays.sort(latencyNanos);
+			double p99 = percentileMicros(latencyNanos, 0.99);
+			System.out.println("____________________________________________________________________________");
+			System.out.println();
+			System.out.println("Number of tests passed: "+ numPassed.sum());
+			System.out.println("Number of tests failed: "+ numFailed.sum());
+			System.out.printf("Throughput: %.0f evaluations/s%n", n * 1e9 / Math.max(elapsed, 1));
+			System.out.printf("Latency (us): p50 %.3f  p90 %.3f  p99 %.3f  p99.9 %.3f  max %.3f%n",
+					percentileMicros(latencyNanos, 0.50), percentileMicros(latencyNanos, 0.90), p99,
+					percentileMicros(latencyNanos, 0.999), percentileMicros(latencyNanos, 1.0));
+			if (p99 > maxP99Micros)
+				System.out.println("***Failure*** p99 latency is above " + maxP99Micros + " us");
+			if (numFailed.sum() > 0 || p99 > maxP99Micros) System.exit(1);
+		} finally {
+			pool.shutdown();
+		}
 	}
-	
+
 	/*
-	 * This method sets up the input value for the test from the input parameters,
-	 * displays test execution information, invokes precisely the same recognizer
-	 * that the interactive JavaFX mainline uses, interprets the returned value,
-	 * and displays the interpreted result.
+	 * This task splits its range of the corpus in half until it is small enough, then invokes
+	 * precisely the same evaluator that the interactive JavaFX mainline uses on each case.
 	 */
-	private static void performTestCase(int testCase, String inputText, boolean expectedPass) {
-		/************** Display an individual test case header **************/
-		System.out.println("____________________________________________________________________________\n\nTest case: " + testCase);
-		System.out.println("Input: \"" + inputText + "\"");
-		System.out.println("______________");
-		System.out.println("\nFinite state machine execution trace:");
-		
-		/************** Call the recognizer to process the input **************/
-		String resultText= PasswordEvaluator.evaluatePassword(inputText);
-		
-		/************** Interpret the result and display that interpreted information **************/
-		System.out.println();
-		
-		// If the resulting text is empty, the recognizer accepted the input
-		if (resultText != "") {
-			 // If the test case expected the test to pass then this is a failure
-			if (expectedPass) {
-				System.out.println("***Failure*** The password <" + inputText + "> is invalid." + 
-						"\nBut it was supposed to be valid, so this is a failure!\n");
-				System.out.println("Error message: " + resultText);
-				numFailed++;
+	private static final class RunCases extends RecursiveAction {
+		private static final long serialVersionUID = 1L;	// Tasks are never serialized
+
+		private final transient List<TestCase> cases;
+		private final transient ValidationResult[] results;
+		private final transient long[] latencyNanos;
+		private final int from;
+		private final int to;
+		private final boolean measured;
+
+		RunCases(List<TestCase> cases, ValidationResult[] results, long[] latencyNanos, int from,
+				int to, boolean measured) {
+			this.cases = cases;
+			this.results = results;
+			this.latencyNanos = latencyNanos;
+			this.from = from;
+			this.to = to;
+			this.measured = measured;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > CASES_PER_TASK) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new RunCases(cases, results, latencyNanos, from, middle, measured),
+						new RunCases(cases, results, latencyNanos, middle, to, measured));
+				return;
 			}
-			// If the test case expected the test to fail then this is a success
-			else {			
-				System.out.println("***Success*** The password <" + inputText + "> is invalid." + 
-						"\nBut it was supposed to be invalid, so this is a pass!\n");
-				System.out.println("Error message: " + resultText);
-				numPassed++;
+			for (int i = from; i < to; i++) {
+				TestCase c = cases.get(i);
+				long start = System.nanoTime();
+				ValidationResult result = PasswordEvaluator.evaluate(c.inputText);
+				long elapsed = System.nanoTime() - start;
+				if (!measured) continue;
+				results[i] = result;
+				latencyNanos[i] = elapsed;
+				if (result.isValid() == c.expectedPass) numPassed.increment();
+				else numFailed.increment();
 			}
 		}
-		
-		// If the resulting text is empty, the recognizer accepted the input
-		else {	
-			// If the test case expected the test to pass then this is a success
-			if (expectedPass) {	
-				System.out.println("***Success*** The password <" + inputText + 
-						"> is valid, so this is a pass!");
-				numPassed++;
+	}
+
+	/*
+	 * This method reads the test cases of a corpus
+	 */
+	static List<TestCase> readCorpus(InputStream in) throws IOException {
+		if (in == null) throw new IOException("The corpus " + DEFAULT_CORPUS + " was not found");
+		List<TestCase> cases = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isBlank() || line.startsWith("#")) continue;
+				int first = line.indexOf(',');
+				int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+				if (second < 0) throw new IOException("Line " + lineNumber + " is not testCase,expectedPass,password");
+				cases.add(new TestCase(Integer.parseInt(line.substring(0, first).trim()),
+						Boolean.parseBoolean(line.substring(first + 1, second).trim()),
+						line.substring(second + 1)));
 			}
-			// If the test case expected the test to fail then this is a failure
-			else {
-				System.out.println("***Failure*** The password <" + inputText + 
-						"> was judged as valid" + 
-						"\nBut it was supposed to be invalid, so this is a failure!");
-				numFailed++;
+		}
+		return cases;
+	}
+
+	/*
+	 * This method writes a corpus of synthetic cases.  Each case picks which of the requirements
+	 * it satisfies, and now and then adds a character that is not allowed, so the expected
+	 * result is known without running the evaluator.
+	 */
+	static void generateCorpus(int count, String outputFile, long seed) throws IOException {
+		String[] kinds = { "ABCDEFGHIJKLMNOPQRSTUVWXYZ", "abcdefghijklmnopqrstuvwxyz", "0123456789",
+				"~`!@#$%^&*()_-+={}[]|\\:;\"'<>,.?/" };
+		String invalid = " \té€";
+		Random random = new Random(seed);
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(outputFile), StandardCharsets.UTF_8))) {
+			out.println("# testCase,expectedPass,password (generated, seed " + seed + ")");
+			for (int testCase = 1; testCase <= count; testCase++) {
+				List<String> present = new ArrayList<>();
+				for (String kind : kinds) if (random.nextInt(5) != 0) present.add(kind);
+				if (present.isEmpty()) present.add(kinds[random.nextInt(kinds.length)]);
+				int length = 1 + random.nextInt(20);
+				StringBuilder password = new StringBuilder();
+				for (String kind : present) password.append(kind.charAt(random.nextInt(kind.length())));
+				while (password.length() < length) {
+					String kind = present.get(random.nextInt(present.size()));
+					password.insert(random.nextInt(password.length() + 1), kind.charAt(random.nextInt(kind.length())));
+				}
+				boolean hasInvalid = random.nextInt(10) == 0;
+				if (hasInvalid) password.insert(random.nextInt(password.length() + 1), invalid.charAt(random.nextInt(invalid.length())));
+				boolean expectedPass = !hasInvalid && present.size() == kinds.length && password.length() >= 8;
+				out.println(testCase + "," + expectedPass + "," + password);
 			}
 		}
-		displayEvaluation();
+		System.out.println("Wrote " + count + " cases to " + outputFile);
 	}
-	
-	private static void displayEvaluation() {
-		if (PasswordEvaluator.foundUpperCase)
+
+	private static double percentileMicros(long[] sortedNanos, double fraction) {
+		if (sortedNanos.length == 0) return 0;
+		int index = (int) Math.ceil(fraction * sortedNanos.length) - 1;
+		return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1000.0;
+	}
+
+	/*
+	 * This method displays a test case, the interpreted result of the evaluator, and the
+	 * requirements that were satisfied.
+	 */
+	private static void displayTestCase(TestCase c, ValidationResult result) {
+		/************** Display an individual test case header **************/
+		System.out.println("____________________________________________________________________________\n\nTest case: " + c.testCase);
+		System.out.println("Input: \"" + c.inputText + "\"");
+		System.out.println("______________");
+		System.out.println();
+
+		/************** Interpret the result and display that interpreted information **************/
+		if (!result.isValid()) {
+			if (c.expectedPass)
+				System.out.println("***Failure*** The password <" + c.inputText + "> is invalid." +
+						"\nBut it was supposed to be valid, so this is a failure!\n");
+			else
+				System.out.println("***Success*** The password <" + c.inputText + "> is invalid." +
+						"\nBut it was supposed to be invalid, so this is a pass!\n");
+			System.out.println("Error message: " + result.getErrorMessage());
+		}
+		else if (c.expectedPass)
+			System.out.println("***Success*** The password <" + c.inputText +
+					"> is valid, so this is a pass!");
+		else
+			System.out.println("***Failure*** The password <" + c.inputText +
+					"> was judged as valid" +
+					"\nBut it was supposed to be invalid, so this is a failure!");
+		displayEvaluation(result);
+	}
+
+	private static void displayEvaluation(ValidationResult result) {
+		if (result.has(PasswordEvaluator.UPPER_CASE))
 			System.out.println("At least one upper case letter - Satisfied");
 		else
 			System.out.println("At least one upper case letter - Not Satisfied");
 
-		if (PasswordEvaluator.foundLowerCase)
+		if (result.has(PasswordEvaluator.LOWER_CASE))
 			System.out.println("At least one lower case letter - Satisfied");
 		else
 			System.out.println("At least one lower case letter - Not Satisfied");
-	
 
-		if (PasswordEvaluator.foundNumericDigit)
+
+		if (result.has(PasswordEvaluator.NUMERIC_DIGIT))
 			System.out.println("At least one digit - Satisfied");
 		else
 			System.out.println("At least one digit - Not Satisfied");
 
-		if (PasswordEvaluator.foundSpecialChar)
+		if (result.has(PasswordEvaluator.SPECIAL_CHAR))
 			System.out.println("At least one special character - Satisfied");
 		else
 			System.out.println("At least one special character - Not Satisfied");
 
-		if (PasswordEvaluator.foundLongEnough)
+		if (result.has(PasswordEvaluator.LONG_ENOUGH))
 			System.out.println("At least 8 characters - Satisfied");
 		else
 			System.out.println("At least 8 characters - Not Satisfied");
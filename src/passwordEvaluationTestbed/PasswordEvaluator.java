@@ -1,152 +1,88 @@
 package passwordEvaluationTestbed;
 
+import inputValidation.CharClass;
+import inputValidation.CompiledValidator;
+import inputValidation.ValidationResult;
+import inputValidation.ValidationRules;
 
 public class PasswordEvaluator {
 	/**
 	 * <p> Title: Directed Graph-translated Password Assessor. </p>
-	 * 
-	 * <p> Description: A demonstration of the mechanical translation of Directed Graph 
-	 * diagram into an executable Java program using the Password Evaluator Directed Graph. 
-	 * The code detailed design is based on a while loop with a cascade of if statements</p>
-	 * 
+	 *
+	 * <p> Description: A demonstration of the mechanical translation of Directed Graph
+	 * diagram into an executable Java program using the Password Evaluator Directed Graph.
+	 * The graph is declared as a rule set and compiled by the validation engine, which classifies
+	 * each character through a lookup table into a bit of a requirements mask in a single pass.
+	 * No state is kept outside of a single call, so the evaluator may be used from several
+	 * threads at once.</p>
+	 *
 	 * <p> Copyright: Lynn Robert Carter © 2022 </p>
-	 * 
+	 *
 	 * @author Lynn Robert Carter
-	 * 
-	 * @version 0.00		2018-02-22	Initial baseline 
-	 * 
+	 *
+	 * @version 0.00		2018-02-22	Initial baseline
+	 * @version 1.00		2026-10-19	Single-pass lookup table evaluator returning a Result;
+	 * 									replaces the application package copy
+	 * @version 1.01		2026-10-19	Rule set compiled by the shared validation engine
+	 *
 	 */
 
-	/**********************************************************************************************
-	 * 
-	 * Result attributes to be used for GUI applications where a detailed error message and a 
-	 * pointer to the character of the error will enhance the user experience.
-	 * 
-	 */
+	// The requirement bits of the mask
+	public static final int UPPER_CASE = 1;			// At least one upper case letter
+	public static final int LOWER_CASE = 2;			// At least one lower case letter
+	public static final int NUMERIC_DIGIT = 4;		// At least one numeric digit
+	public static final int SPECIAL_CHAR = 8;		// At least one special character
+	public static final int LONG_ENOUGH = 16;		// At least eight characters
+	public static final int ALL_REQUIREMENTS = 31;
 
-	public static String passwordErrorMessage = "";		// The error message text
-	public static String passwordInput = "";			// The input being processed
-	public static int passwordIndexofError = -1;		// The index where the error was located
-	public static boolean foundUpperCase = false;
-	public static boolean foundLowerCase = false;
-	public static boolean foundNumericDigit = false;
-	public static boolean foundSpecialChar = false;
-	public static boolean foundLongEnough = false;
-	private static String inputLine = "";				// The input line
-	private static char currentChar;					// The current character in the line
-	private static int currentCharNdx;					// The index of the current character
-	private static boolean running;						// The flag that specifies if the FSM is 
-														// running
+	private static final String SPECIAL_CHARS = "~`!@#$%^&*()_-+={}[]|\\:;\"'<>,.?/";
 
 	/**********
-	 * This private method display the input line and then on a line under it displays an up arrow
-	 * at the point where an error should one be detected.  This method is designed to be used to 
-	 * display the error message on the console terminal.
-	 * 
-	 * @param input				The input string
-	 * @param currentCharNdx	The location where an error was found
-	 * @return					Two lines, the entire input line followed by a line with an up arrow
+	 * The Directed Graph as a rule set: a single final state that loops on each of the four
+	 * kinds of character, with every other character halting the graph.  Each kind of character
+	 * and the length are requirements whose bits are reported in the result.
+	 */
+	private static final CompiledValidator PASSWORD = new ValidationRules("Password")
+			.charClass("upper", CharClass.range('A', 'Z'))
+			.charClass("lower", CharClass.range('a', 'z'))
+			.charClass("digit", CharClass.range('0', '9'))
+			.charClass("special", CharClass.of(SPECIAL_CHARS))
+			.transition(0, "upper", 0)
+			.transition(0, "lower", 0)
+			.transition(0, "digit", 0)
+			.transition(0, "special", 0)
+			.finalState(0)
+			.emptyMessage("*** Error *** The password is empty!")
+			.stateMessage(0, "*** Error *** An invalid character has been found!")
+			.requireClass("upper", UPPER_CASE, "Upper case; ")
+			.requireClass("lower", LOWER_CASE, "Lower case; ")
+			.requireClass("digit", NUMERIC_DIGIT, "Numeric digits; ")
+			.requireClass("special", SPECIAL_CHAR, "Special character; ")
+			.requireLength(8, LONG_ENOUGH, "Long Enough; ")
+			.requirementsSuffix("conditions were not satisfied")
+			.compile();
+
+	/**********
+	 * This method evaluates the input in a single pass, or'ing the requirement bit of each
+	 * character into a mask.
+	 *
+	 * @param input		The input string for directed graph processing
+	 * @return			A ValidationResult holding the satisfied requirement bits and, when the
+	 * 						input is not valid, a description of the error and the index where
+	 * 						it was found
 	 */
-	private static void displayInputState() {
-		// Display the entire input line
-		System.out.println(inputLine);
-		System.out.println(inputLine.substring(0,currentCharNdx) + "?");
-		System.out.println("The password size: " + inputLine.length() + "  |  The currentCharNdx: " + 
-				currentCharNdx + "  |  The currentChar: \"" + currentChar + "\"");
+	public static ValidationResult evaluate(CharSequence input) {
+		return PASSWORD.validate(input);
 	}
 
 	/**********
-	 * This method is a mechanical transformation of a Directed Graph diagram into a Java
-	 * method.
-	 * 
+	 * This method evaluates the input and reports only the error message.
+	 *
 	 * @param input		The input string for directed graph processing
 	 * @return			An output string that is empty if every things is okay or it will be
-	 * 						a string with a help description of the error follow by two lines
-	 * 						that shows the input line follow by a line with an up arrow at the
-	 *						point where the error was found.
+	 * 						a string with a help description of the error
 	 */
 	public static String evaluatePassword(String input) {
-		// The following are the local variable used to perform the Directed Graph simulation
-		passwordErrorMessage = "";
-		passwordIndexofError = 0;			// Initialize the IndexofError
-		inputLine = input;					// Save the reference to the input line as a global
-		currentCharNdx = 0;					// The index of the current character
-		
-		if(input.length() <= 0) return "*** Error *** The password is empty!";
-		
-		// The input is not empty, so we can access the first character
-		currentChar = input.charAt(0);		// The current character from the above indexed position
-
-		// The Directed Graph simulation continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition to a next state
-
-		passwordInput = input;				// Save a copy of the input
-		foundUpperCase = false;				// Reset the Boolean flag
-		foundLowerCase = false;				// Reset the Boolean flag
-		foundNumericDigit = false;			// Reset the Boolean flag
-		foundSpecialChar = false;			// Reset the Boolean flag
-		foundNumericDigit = false;			// Reset the Boolean flag
-		foundLongEnough = false;			// Reset the Boolean flag
-		running = true;						// Start the loop
-
-		// The Directed Graph simulation continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition
-		while (running) {
-			displayInputState();
-			// The cascading if statement sequentially tries the current character against all of the
-			// valid transitions
-			if (currentChar >= 'A' && currentChar <= 'Z') {
-				System.out.println("Upper case letter found");
-				foundUpperCase = true;
-			} else if (currentChar >= 'a' && currentChar <= 'z') {
-				System.out.println("Lower case letter found");
-				foundLowerCase = true;
-			} else if (currentChar >= '0' && currentChar <= '9') {
-				System.out.println("Digit found");
-				foundNumericDigit = true;
-			} else if ("~`!@#$%^&*()_-+={}[]|\\:;\"'<>,.?/".indexOf(currentChar) >= 0) {
-				System.out.println("Special character found");
-				foundSpecialChar = true;
-			} else {
-				passwordIndexofError = currentCharNdx;
-				return "*** Error *** An invalid character has been found!";
-			}
-			if (currentCharNdx >= 7) {
-				System.out.println("At least 8 characters found");
-				foundLongEnough = true;
-			}
-			
-			// Go to the next character if there is one
-			currentCharNdx++;
-			if (currentCharNdx >= inputLine.length())
-				running = false;
-			else
-				currentChar = input.charAt(currentCharNdx);
-			
-			System.out.println();
-		}
-		
-		String errMessage = "";
-		if (!foundUpperCase)
-			errMessage += "Upper case; ";
-		
-		if (!foundLowerCase)
-			errMessage += "Lower case; ";
-		
-		if (!foundNumericDigit)
-			errMessage += "Numeric digits; ";
-			
-		if (!foundSpecialChar)
-			errMessage += "Special character; ";
-			
-		if (!foundLongEnough)
-			errMessage += "Long Enough; ";
-		
-		if (errMessage == "")
-			return "";
-		
-		passwordIndexofError = currentCharNdx;
-		return errMessage + "conditions were not satisfied";
-
+		return evaluate(input).getErrorMessage();
 	}
 }
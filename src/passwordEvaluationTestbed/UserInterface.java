@@ -1,6 +1,8 @@
 
 package passwordEvaluationTestbed;
 
+import inputValidation.ValidationResult;
+
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
@@ -192,24 +194,23 @@ public class UserInterface {
 		    noInputFound.setText("No input text found!");
 		else
 		{
-			String errMessage = PasswordEvaluator.evaluatePassword(inputText);
-			updateFlags();
-			if (errMessage != "") {
-				System.out.println(errMessage);
+			ValidationResult result = PasswordEvaluator.evaluate(inputText);
+			updateFlags(result);
+			if (!result.isValid()) {
+				System.out.println(result.getErrorMessage());
 				
-				label_errPassword.setText(PasswordEvaluator.passwordErrorMessage);
-				if (PasswordEvaluator.passwordIndexofError <= -1) return;
-				String input = PasswordEvaluator.passwordInput;
-				errPasswordPart1.setText(input.substring(0, 
-						PasswordEvaluator.passwordIndexofError));
+				label_errPassword.setText(result.getErrorMessage());
+				if (result.getIndexOfError() <= -1) return;
+				errPasswordPart1.setText(inputText.substring(0, 
+						result.getIndexOfError()));
 				errPasswordPart2.setText("\u21EB");
 				validPassword.setTextFill(Color.RED);
 				errPasswordPart3.setText("The red arrow points at the character causing the error!");
 				validPassword.setText("Failure! The password is not valid.");
 			}
-			else if (PasswordEvaluator.foundUpperCase && PasswordEvaluator.foundLowerCase &&
-					PasswordEvaluator.foundNumericDigit && PasswordEvaluator.foundSpecialChar &&
-					PasswordEvaluator.foundLongEnough) {
+			else if (result.has(PasswordEvaluator.UPPER_CASE) && result.has(PasswordEvaluator.LOWER_CASE) &&
+					result.has(PasswordEvaluator.NUMERIC_DIGIT) && result.has(PasswordEvaluator.SPECIAL_CHAR) &&
+					result.has(PasswordEvaluator.LONG_ENOUGH)) {
 				
 				System.out.println("Success! The password satisfies the requirements.");
 				validPassword.setTextFill(Color.GREEN);
@@ -249,28 +250,28 @@ public class UserInterface {
 	    errPasswordPart3.setText("");
 	}
 	
-	private void updateFlags() {
-		if (PasswordEvaluator.foundUpperCase) {
+	private void updateFlags(ValidationResult result) {
+		if (result.has(PasswordEvaluator.UPPER_CASE)) {
 			label_UpperCase.setText("At least one upper case letter - Satisfied");
 			label_UpperCase.setTextFill(Color.GREEN);
 		}
 
-		if (PasswordEvaluator.foundLowerCase) {
+		if (result.has(PasswordEvaluator.LOWER_CASE)) {
 			label_LowerCase.setText("At least one lower case letter - Satisfied");
 			label_LowerCase.setTextFill(Color.GREEN);
 		}
 
-		if (PasswordEvaluator.foundNumericDigit) {
+		if (result.has(PasswordEvaluator.NUMERIC_DIGIT)) {
 			label_NumericDigit.setText("At least one numeric digit - Satisfied");
 			label_NumericDigit.setTextFill(Color.GREEN);
 		}
 
-		if (PasswordEvaluator.foundSpecialChar) {
+		if (result.has(PasswordEvaluator.SPECIAL_CHAR)) {
 			label_SpecialChar.setText("At least one special character - Satisfied");
 			label_SpecialChar.setTextFill(Color.GREEN);
 		}
 
-		if (PasswordEvaluator.foundLongEnough) {
+		if (result.has(PasswordEvaluator.LONG_ENOUGH)) {
 			label_LongEnough.setText("At least eight characters - Satisfied");
 			label_LongEnough.setTextFill(Color.GREEN);
 		}
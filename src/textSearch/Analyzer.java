@@ -0,0 +1,293 @@
+package textSearch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/*******
+ * <p> Title: Analyzer Class. </p>
+ *
+ * <p> Description: Turns text into index terms.  The text is split into runs of letters and
+ * digits, lower-cased, common English stop words are dropped, and each word is reduced to its
+ * stem with the Porter algorithm, so "indexes", "indexed" and "indexing" all become "index".
+ * The same analysis is applied to documents and to queries.</p>
+ *
+ * @version 1.00	2026-10-19 Initial version for the ranked board search
+ *
+ */
+public final class Analyzer {
+	static final int MAX_TERM_LENGTH = 40;		// Longer words are cut to this many characters
+
+	private static final Set<String> STOP_WORDS = Set.of(
+			"a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is",
+			"it", "its", "no", "not", "of", "on", "or", "so", "such", "that", "the", "their", "then",
+			"there", "these", "they", "this", "to", "was", "were", "will", "with", "i", "me", "my",
+			"we", "you", "your", "do", "does", "how", "what", "when", "where", "which", "who", "why");
+
+	private Analyzer() {
+	}
+
+	// The terms of the text, in order and with repeats
+	public static List<String> terms(String text) {
+		List<String> terms = new ArrayList<>();
+		if (text == null) return terms;
+		int n = text.length();
+		int i = 0;
+		while (i < n) {
+			while (i < n && !Character.isLetterOrDigit(text.charAt(i))) i++;
+			int start = i;
+			while (i < n && Character.isLetterOrDigit(text.charAt(i))) i++;
+			if (i > start) {
+				String word = text.substring(start, Math.min(i, start + MAX_TERM_LENGTH)).toLowerCase();
+				if (!STOP_WORDS.contains(word)) terms.add(stem(word));
+			}
+		}
+		return terms;
+	}
+
+	// The Porter stem of a lower-case word; words of one or two letters and words with
+	// characters other than a-z are left as they are
+	public static String stem(String word) {
+		if (word.length() <= 2) return word;
+		for (int i = 0; i < word.length(); i++) {
+			char c = word.charAt(i);
+			if (c < 'a' || c > 'z') return word;
+		}
+		return new Stemmer(word).stem();
+	}
+
+	/**********
+	 * The Porter stemming algorithm (M.F. Porter, 1980) over a char buffer.  b holds the word,
+	 * k is the index of its last character and j marks the end of the stem being tested.
+	 */
+	private static final class Stemmer {
+		private final char[] b;
+		private int k;
+		private int j;
+
+		Stemmer(String word) {
+			b = word.toCharArray();
+			k = b.length - 1;
+		}
+
+		String stem() {
+			step1ab();
+			step1c();
+			step2();
+			step3();
+			step4();
+			step5();
+			return new String(b, 0, k + 1);
+		}
+
+		// Is b[i] a consonant?
+		private boolean cons(int i) {
+			switch (b[i]) {
+			case 'a': case 'e': case 'i': case 'o': case 'u': return false;
+			case 'y': return i == 0 || !cons(i - 1);
+			default: return true;
+			}
+		}
+
+		// The number of vowel-consonant sequences in b[0..j]
+		private int m() {
+			int n = 0;
+			int i = 0;
+			while (true) {
+				if (i > j) return n;
+				if (!cons(i)) break;
+				i++;
+			}
+			i++;
+			while (true) {
+				while (true) {
+					if (i > j) return n;
+					if (cons(i)) break;
+					i++;
+				}
+				i++;
+				n++;
+				while (true) {
+					if (i > j) return n;
+					if (!cons(i)) break;
+					i++;
+				}
+				i++;
+			}
+		}
+
+		// Does b[0..j] contain a vowel?
+		private boolean vowelInStem() {
+			for (int i = 0; i <= j; i++) if (!cons(i)) return true;
+			return false;
+		}
+
+		// Is b[i-1..i] a double consonant?
+		private boolean doubleC(int i) {
+			return i >= 1 && b[i] == b[i - 1] && cons(i);
+		}
+
+		// Is b[i-2..i] consonant-vowel-consonant, with the last not w, x or y?
+		private boolean cvc(int i) {
+			if (i < 2 || !cons(i) || cons(i - 1) || !cons(i - 2)) return false;
+			char c = b[i];
+			return c != 'w' && c != 'x' && c != 'y';
+		}
+
+		// Does b[0..k] end with s?  If so, j is set to the end of the stem before it
+		private boolean ends(String s) {
+			int length = s.length();
+			int o = k - length + 1;
+			if (o < 0) return false;
+			for (int i = 0; i < length; i++) if (b[o + i] != s.charAt(i)) return false;
+			j = k - length;
+			return true;
+		}
+
+		// Replace b[j+1..k] with s
+		private void setTo(String s) {
+			int length = s.length();
+			for (int i = 0; i < length; i++) b[j + 1 + i] = s.charAt(i);
+			k = j + length;
+		}
+
+		private void r(String s) {
+			if (m() > 0) setTo(s);
+		}
+
+		// Plurals and -ed or -ing
+		private void step1ab() {
+			if (b[k] == 's') {
+				if (ends("sses")) k -= 2;
+				else if (ends("ies")) setTo("i");
+				else if (k >= 1 && b[k - 1] != 's') k--;
+			}
+			if (ends("eed")) {
+				if (m() > 0) k--;
+			} else if ((ends("ed") || ends("ing")) && vowelInStem()) {
+				k = j;
+				if (ends("at")) setTo("ate");
+				else if (ends("bl")) setTo("ble");
+				else if (ends("iz")) setTo("ize");
+				else if (doubleC(k)) {
+					char c = b[k];
+					if (c != 'l' && c != 's' && c != 'z') k--;
+				} else {
+					j = k;
+					if (m() == 1 && cvc(k)) {
+						j = k;
+						setTo("e");
+					}
+				}
+			}
+		}
+
+		// A terminal y becomes i when there is another vowel in the stem
+		private void step1c() {
+			if (ends("y") && vowelInStem()) b[k] = 'i';
+		}
+
+		// Double suffixes map to single ones
+		private void step2() {
+			if (k == 0) return;
+			switch (b[k - 1]) {
+			case 'a':
+				if (ends("ational")) r("ate");
+				else if (ends("tional")) r("tion");
+				break;
+			case 'c':
+				if (ends("enci")) r("ence");
+				else if (ends("anci")) r("ance");
+				break;
+			case 'e':
+				if (ends("izer")) r("ize");
+				break;
+			case 'l':
+				if (ends("bli")) r("ble");
+				else if (ends("alli")) r("al");
+				else if (ends("entli")) r("ent");
+				else if (ends("eli")) r("e");
+				else if (ends("ousli")) r("ous");
+				break;
+			case 'o':
+				if (ends("ization")) r("ize");
+				else if (ends("ation")) r("ate");
+				else if (ends("ator")) r("ate");
+				break;
+			case 's':
+				if (ends("alism")) r("al");
+				else if (ends("iveness")) r("ive");
+				else if (ends("fulness")) r("ful");
+				else if (ends("ousness")) r("ous");
+				break;
+			case 't':
+				if (ends("aliti")) r("al");
+				else if (ends("iviti")) r("ive");
+				else if (ends("biliti")) r("ble");
+				break;
+			case 'g':
+				if (ends("logi")) r("log");
+				break;
+			default:
+				break;
+			}
+		}
+
+		// -ic-, -full, -ness and similar
+		private void step3() {
+			switch (b[k]) {
+			case 'e':
+				if (ends("icate")) r("ic");
+				else if (ends("ative")) r("");
+				else if (ends("alize")) r("al");
+				break;
+			case 'i':
+				if (ends("iciti")) r("ic");
+				break;
+			case 'l':
+				if (ends("ical")) r("ic");
+				else if (ends("ful")) r("");
+				break;
+			case 's':
+				if (ends("ness")) r("");
+				break;
+			default:
+				break;
+			}
+		}
+
+		// -ant, -ence and similar, when the stem is long enough
+		private void step4() {
+			if (k == 0) return;
+			boolean found;
+			switch (b[k - 1]) {
+			case 'a': found = ends("al"); break;
+			case 'c': found = ends("ance") || ends("ence"); break;
+			case 'e': found = ends("er"); break;
+			case 'i': found = ends("ic"); break;
+			case 'l': found = ends("able") || ends("ible"); break;
+			case 'n': found = ends("ant") || ends("ement") || ends("ment") || ends("ent"); break;
+			case 'o':
+				found = (ends("ion") && j >= 0 && (b[j] == 's' || b[j] == 't')) || ends("ou");
+				break;
+			case 's': found = ends("ism"); break;
+			case 't': found = ends("ate") || ends("iti"); break;
+			case 'u': found = ends("ous"); break;
+			case 'v': found = ends("ive"); break;
+			case 'z': found = ends("ize"); break;
+			default: found = false; break;
+			}
+			if (found && m() > 1) k = j;
+		}
+
+		// A final -e, and -ll to -l, when the stem is long enough
+		private void step5() {
+			j = k;
+			if (b[k] == 'e') {
+				int a = m();
+				if (a > 1 || (a == 1 && !cvc(k - 1))) k--;
+			}
+			if (b[k] == 'l' && doubleC(k) && m() > 1) k--;
+		}
+	}
+}
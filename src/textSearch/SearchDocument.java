@@ -0,0 +1,78 @@
+package textSearch;
+
+import application.Answer;
+import application.Question;
+import application.Reply;
+
+/*******
+ * <p> Title: SearchDocument Class. </p>
+ *
+ * <p> Description: One question, answer or reply as the search index sees it: its key, the
+ * question it belongs to, a score boost, a short preview for the result list and the text
+ * to index.  Accepted answers, answers students found helpful and answered questions are
+ * boosted, so resolved content ranks first among equally relevant matches.</p>
+ *
+ * @version 1.00	2026-10-19 Initial version for the ranked board search
+ *
+ */
+public final class SearchDocument {
+	static final int PREVIEW_LENGTH = 100;
+	static final float ACCEPTED_BOOST = 1.5f;
+	static final float HELPFUL_BOOST = 1.25f;
+	static final float ANSWERED_BOOST = 1.1f;
+
+	// The kinds of document; the ordinal is stored in the index files
+	public enum Type { QUESTION, ANSWER, REPLY }
+
+	final Type type;
+	final int id;
+	final int questionId;		// The question itself, or the one the answer or reply is under
+	final int answerId;			// The answer of a reply, otherwise 0
+	final float boost;
+	final String preview;
+	final String text;
+
+	SearchDocument(Type type, int id, int questionId, int answerId, float boost, String preview, String text) {
+		this.type = type;
+		this.id = id;
+		this.questionId = questionId;
+		this.answerId = answerId;
+		this.boost = boost;
+		this.preview = preview;
+		this.text = text;
+	}
+
+	public static SearchDocument of(Question q) {
+		return new SearchDocument(Type.QUESTION, q.getQuestionId(), q.getQuestionId(), 0,
+				q.getIsAnswered() ? ANSWERED_BOOST : 1f, preview(q.getTitle()), q.getTitle() + "\n" + q.getContent());
+	}
+
+	public static SearchDocument of(Answer a) {
+		float boost = 1f;
+		if (a.getIsAccepted()) boost *= ACCEPTED_BOOST;
+		if (a.isCorrect()) boost *= HELPFUL_BOOST;
+		return new SearchDocument(Type.ANSWER, a.getAnswerId(), a.getQuestionId(), 0, boost,
+				preview(a.getContent()), a.getContent());
+	}
+
+	// A reply, under the given question (replies only know their answer)
+	public static SearchDocument of(Reply r, int questionId) {
+		return new SearchDocument(Type.REPLY, r.getReplyId(), questionId, r.getAnswerId(), 1f,
+				preview(r.getContent()), r.getContent());
+	}
+
+	// The key of a document in the index: its type and id in one long
+	static long key(Type type, int id) {
+		return ((long) type.ordinal() << 32) | (id & 0xFFFFFFFFL);
+	}
+
+	long key() {
+		return key(type, id);
+	}
+
+	private static String preview(String text) {
+		if (text == null) return "";
+		String oneLine = text.replace('\n', ' ').trim();
+		return oneLine.length() <= PREVIEW_LENGTH ? oneLine : oneLine.substring(0, PREVIEW_LENGTH - 3) + "...";
+	}
+}
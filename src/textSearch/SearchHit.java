@@ -0,0 +1,41 @@
+package textSearch;
+
+/*******
+ * <p> Title: SearchHit Class. </p>
+ *
+ * <p> Description: One ranked search result.  The question id lets the board open the thread
+ * the hit belongs to, and the answer id selects the answer of a reply.</p>
+ *
+ * @version 1.00	2026-10-19 Initial version for the ranked board search
+ *
+ */
+public final class SearchHit {
+	private final SearchDocument.Type type;
+	private final int id;
+	private final int questionId;
+	private final int answerId;
+	private final double score;
+	private final String preview;
+
+	SearchHit(SearchDocument.Type type, int id, int questionId, int answerId, double score, String preview) {
+		this.type = type;
+		this.id = id;
+		this.questionId = questionId;
+		this.answerId = answerId;
+		this.score = score;
+		this.preview = preview;
+	}
+
+	public SearchDocument.Type getType() { return type; }
+	public int getId() { return id; }
+	public int getQuestionId() { return questionId; }
+	public int getAnswerId() { return answerId; }
+	public double getScore() { return score; }
+	public String getPreview() { return preview; }
+
+	@Override
+	public String toString() {
+		String kind = type == SearchDocument.Type.QUESTION ? "Question" : type == SearchDocument.Type.ANSWER ? "Answer" : "Reply";
+		return String.format("[%s %.2f] %s", kind, score, preview);
+	}
+}
@@ -0,0 +1,576 @@
+package textSearch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import application.Answer;
+import application.Question;
+import application.Reply;
+import databasePart1.DiscussionBoardListener;
+import databasePart1.DiscussionBoardRepository;
+
+/*******
+ * <p> Title: SearchIndex Class. </p>
+ *
+ * <p> Description: A ranked full-text index over the questions, answers and replies of the
+ * discussion board.  Results are scored with BM25 and multiplied by the document's boost, so
+ * of two equally relevant answers the accepted one comes first.  The same index finds the
+ * questions most like a draft, so students see related questions before they post.</p>
+ *
+ * <p> The index is a list of immutable segments, each in its own file in the index directory,
+ * and a manifest naming them in order.  It listens to the DAO: every write adds one small
+ * segment holding the new version of the document and the key of the old one.  Segments are
+ * merged by size tier: once MERGE_FACTOR segments hold about as many live documents as each
+ * other (the same number of decimal digits), they become one segment of the next tier, so a
+ * document is rewritten once per tier, a logarithmic number of times as the index grows.
+ * Deleted documents are marked in memory and dropped when their segment is merged.  When the
+ * index is attached to a DAO whose row counts differ from it (a first start, or writes made
+ * without the index) it is rebuilt from the database.</p>
+ *
+ * <p> The listener only hands each write to the index's own thread, which writes the segment
+ * and does any merging, so the thread that made the board write (usually the FX thread) never
+ * waits for the index files.  Searches see a write once that thread has applied it; flush
+ * waits for that.  After each change the thread publishes a read-only view of the segments
+ * and their deletions, and searches read that view without the index's lock, so a search
+ * from the FX thread never waits for a segment write or a merge.</p>
+ *
+ * <p> The directory is board.search.dir, by default FoundationDatabase-search in the user's
+ * home directory next to the database.</p>
+ *
+ * @version 1.00	2026-10-19 Initial version for the ranked board search
+ *
+ */
+public final class SearchIndex implements DiscussionBoardListener {
+	static final int MERGE_FACTOR = 10;	// Segments of one size tier merged together
+	static final double K1 = 1.2;			// BM25 term frequency saturation
+	static final double B = 0.75;			// BM25 length normalization
+	static final int TITLE_WEIGHT = 2;		// How much more a title term counts in similarQuestions
+	private static final String MANIFEST = "segments";
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final long[] NO_KEYS = new long[0];
+
+	private static SearchIndex shared;
+
+	private final Path directory;
+	private final List<Segment> segments = new ArrayList<>();
+	private final List<BitSet> deleted = new ArrayList<>();
+	private final List<Long> numbers = new ArrayList<>();			// The number in each segment's name
+	private final Map<Long, Long> locations = new HashMap<>();		// Key -> segment number << 32 | document
+	private final int[] liveByType = new int[SearchDocument.Type.values().length];
+	private long liveLength;		// Terms in all live documents, for the average length
+	private long nextSegment;
+	private boolean stale;			// A write or load failed; rebuild on the next attach
+	private volatile View view = View.EMPTY;	// What searches read, replaced after each change
+	private final Set<BitSet> published = Collections.newSetFromMap(new IdentityHashMap<>());	// Deletions the view shares
+	private final Set<DiscussionBoardRepository> attached = new HashSet<>();
+	// Applies the writes the index is told about, one at a time and in order
+	private final ExecutorService updates = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "search-index");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private SearchIndex(Path directory) {
+		this.directory = directory;
+	}
+
+	/**********
+	 * The index in the default directory, opened on first use.
+	 */
+	public static synchronized SearchIndex shared() throws IOException {
+		if (shared == null) {
+			shared = open(Path.of(System.getProperty("board.search.dir",
+					System.getProperty("user.home") + "/FoundationDatabase-search")));
+		}
+		return shared;
+	}
+
+	/**********
+	 * Wait for the writes made so far to reach the shared index, if it was opened; called
+	 * before the application exits so an edit is not lost from the index.
+	 */
+	public static void flushShared() {
+		SearchIndex index;
+		synchronized (SearchIndex.class) {
+			index = shared;
+		}
+		if (index != null) index.flush();
+	}
+
+	/**********
+	 * Open the index in the directory, creating it if needed.  A damaged index opens empty
+	 * and is rebuilt when it is attached.
+	 */
+	public static SearchIndex open(Path directory) throws IOException {
+		SearchIndex index = new SearchIndex(directory);
+		Files.createDirectories(directory);
+		index.load();
+		index.publish();
+		return index;
+	}
+
+	/**********
+	 * Bring the index up to date with the DAO's database and follow its writes from now on.
+	 * A DAO the index already follows is not checked again.
+	 */
+	public synchronized void attach(DiscussionBoardRepository dao) throws SQLException, IOException {
+		if (!stale && attached.contains(dao)) return;
+		int[] rows = dao.countBoardRows();
+		boolean current = !stale;
+		for (int type = 0; type < rows.length && current; type++) current = rows[type] == liveByType[type];
+		if (!current) rebuild(dao);
+		dao.addListener(this);
+		attached.add(dao);
+	}
+
+	/**********
+	 * Index every question, answer and reply again, replacing all segments with one.
+	 */
+	public synchronized void rebuild(DiscussionBoardRepository dao) throws SQLException, IOException {
+		List<SearchDocument> docs = new ArrayList<>();
+		for (Question q : dao.getAllQuestions().getAllQuestions()) docs.add(SearchDocument.of(q));
+		Map<Integer, Integer> questionOfAnswer = new HashMap<>();
+		for (Answer a : dao.getAllAnswers().getAllAnswers()) {
+			docs.add(SearchDocument.of(a));
+			questionOfAnswer.put(a.getAnswerId(), a.getQuestionId());
+		}
+		for (Reply r : dao.getAllReplies().getAllReplies())
+			docs.add(SearchDocument.of(r, questionOfAnswer.getOrDefault(r.getAnswerId(), 0)));
+		Segment segment = Segment.build(nextName(), docs, NO_KEYS);
+		segment.write(directory.resolve(segment.name));
+		List<Segment> old = new ArrayList<>(segments);
+		clear();
+		apply(segment);
+		writeManifest();
+		deleteFiles(old);
+		stale = false;
+		publish();
+	}
+
+	/**********
+	 * The best matches for the query, most relevant first.
+	 */
+	public List<SearchHit> search(String query, int limit) {
+		Map<String, Integer> terms = new HashMap<>();
+		for (String term : Analyzer.terms(query)) terms.put(term, 1);
+		return rank(terms, null, 0, limit);
+	}
+
+	/**********
+	 * The questions most like a draft, for showing related questions while one is written.
+	 * Every term of the draft counts as often as it occurs, title terms TITLE_WEIGHT times,
+	 * so the question's subject outweighs incidental words of its body.  The question being
+	 * edited, if any, is left out.
+	 */
+	public List<SearchHit> similarQuestions(String title, String content, int excludeQuestionId, int limit) {
+		Map<String, Integer> terms = new HashMap<>();
+		for (String term : Analyzer.terms(title)) terms.merge(term, TITLE_WEIGHT, Integer::sum);
+		for (String term : Analyzer.terms(content)) terms.merge(term, 1, Integer::sum);
+		long exclude = excludeQuestionId > 0 ? SearchDocument.key(SearchDocument.Type.QUESTION, excludeQuestionId) : -1;
+		return rank(terms, SearchDocument.Type.QUESTION, exclude, limit);
+	}
+
+	// Score the live documents of one type (or all when null) against the weighted query terms
+	private List<SearchHit> rank(Map<String, Integer> terms, SearchDocument.Type only, long exclude, int limit) {
+		View view = this.view;
+		List<Segment> segments = view.segments;
+		List<BitSet> deleted = view.deleted;
+		int liveDocs = view.liveDocs;
+		if (terms.isEmpty() || liveDocs == 0 || limit <= 0) return List.of();
+		double averageLength = Math.max(1.0, (double) view.liveLength / liveDocs);
+		int onlyType = only == null ? -1 : only.ordinal();
+
+		// Accumulate the BM25 score of each document term by term
+		float[][] scores = new float[segments.size()][];
+		int[] found = new int[segments.size()];
+		for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+			String term = entry.getKey();
+			int df = 0;
+			for (int s = 0; s < segments.size(); s++) {
+				found[s] = segments.get(s).find(term);
+				if (found[s] < 0) continue;
+				BitSet dead = deleted.get(s);
+				for (int doc : segments.get(s).postingDocs[found[s]]) if (!dead.get(doc)) df++;
+			}
+			if (df == 0) continue;
+			double weight = entry.getValue() * Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+			for (int s = 0; s < segments.size(); s++) {
+				if (found[s] < 0) continue;
+				Segment segment = segments.get(s);
+				BitSet dead = deleted.get(s);
+				int[] docs = segment.postingDocs[found[s]];
+				int[] freqs = segment.postingFreqs[found[s]];
+				if (scores[s] == null) scores[s] = new float[segment.docCount()];
+				for (int p = 0; p < docs.length; p++) {
+					if (dead.get(docs[p]) || (onlyType >= 0 && segment.types[docs[p]] != onlyType)) continue;
+					double tf = freqs[p];
+					double norm = K1 * (1 - B + B * segment.lengths[docs[p]] / averageLength);
+					scores[s][docs[p]] += (float) (weight * tf * (K1 + 1) / (tf + norm));
+				}
+			}
+		}
+
+		// Keep the best few in a min-heap
+		PriorityQueue<SearchHit> top = new PriorityQueue<>(Comparator.comparingDouble(SearchHit::getScore));
+		for (int s = 0; s < segments.size(); s++) {
+			if (scores[s] == null) continue;
+			Segment segment = segments.get(s);
+			for (int doc = 0; doc < scores[s].length; doc++) {
+				if (scores[s][doc] <= 0 || segment.key(doc) == exclude) continue;
+				double score = scores[s][doc] * segment.boosts[doc];
+				if (top.size() == limit && score <= top.peek().getScore()) continue;
+				top.add(new SearchHit(SearchDocument.Type.values()[segment.types[doc]], segment.ids[doc],
+						segment.questionIds[doc], segment.answerIds[doc], score, segment.previews[doc]));
+				if (top.size() > limit) top.poll();
+			}
+		}
+		List<SearchHit> hits = new ArrayList<>(top);
+		hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed()
+				.thenComparing(SearchHit::getType).thenComparingInt(SearchHit::getId));
+		return hits;
+	}
+
+	/**********
+	 * Wait until the index has applied every write it was told about before this call.
+	 */
+	public void flush() {
+		try {
+			updates.submit(() -> { }).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**********
+	 * The number of live documents.
+	 */
+	public int size() {
+		return view.liveDocs;
+	}
+
+	// The listener side: each write becomes one small segment, written on the index's thread.
+	// The documents are taken from the rows now, since the caller may change them afterwards
+
+	@Override
+	public void questionSaved(Question question) {
+		SearchDocument doc = SearchDocument.of(question);
+		update(() -> write(List.of(doc), NO_KEYS));
+	}
+
+	@Override
+	public void questionDeleted(int questionId) {
+		update(() -> remove(SearchDocument.key(SearchDocument.Type.QUESTION, questionId)));
+	}
+
+	@Override
+	public void answerSaved(Answer answer) {
+		SearchDocument doc = SearchDocument.of(answer);
+		update(() -> write(List.of(doc), NO_KEYS));
+	}
+
+	@Override
+	public void answerDeleted(int answerId) {
+		update(() -> remove(SearchDocument.key(SearchDocument.Type.ANSWER, answerId)));
+	}
+
+	@Override
+	public void replySaved(Reply reply) {
+		Reply copy = new Reply(reply.getReplyId(), reply.getAnswerId(), reply.getContent(), reply.getAuthorUserName(),
+				reply.getCreatedAt(), reply.getUpdatedAt());
+		update(() -> write(List.of(SearchDocument.of(copy, questionOf(copy.getAnswerId()))), NO_KEYS));
+	}
+
+	@Override
+	public void replyDeleted(int replyId) {
+		update(() -> remove(SearchDocument.key(SearchDocument.Type.REPLY, replyId)));
+	}
+
+	// Run a change on the index's thread, holding the index's lock
+	private void update(Runnable change) {
+		updates.execute(() -> {
+			synchronized (this) {
+				change.run();
+				publish();
+			}
+		});
+	}
+
+	// Replace the view searches read with one of the index as it is now.  The view shares the
+	// deletion sets; kill copies a shared one before marking a document in it
+	private void publish() {
+		published.clear();
+		published.addAll(deleted);
+		int live = 0;
+		for (int count : liveByType) live += count;
+		view = new View(List.copyOf(segments), List.copyOf(deleted), live, liveLength);
+	}
+
+	// The segments and deletions a search reads, never changed once published
+	private static final class View {
+		static final View EMPTY = new View(List.of(), List.of(), 0, 0);
+
+		final List<Segment> segments;
+		final List<BitSet> deleted;
+		final int liveDocs;
+		final long liveLength;
+
+		View(List<Segment> segments, List<BitSet> deleted, int liveDocs, long liveLength) {
+			this.segments = segments;
+			this.deleted = deleted;
+			this.liveDocs = liveDocs;
+			this.liveLength = liveLength;
+		}
+	}
+
+	// The question of an indexed answer, so a reply can be indexed without a query
+	private int questionOf(int answerId) {
+		Long location = locations.get(SearchDocument.key(SearchDocument.Type.ANSWER, answerId));
+		if (location == null) return 0;
+		return segments.get(segmentOf(location)).questionIds[(int) location.longValue()];
+	}
+
+	// The position in segments of the segment a location points into
+	private int segmentOf(long location) {
+		long number = location >>> 32;
+		for (int s = segments.size() - 1; s >= 0; s--) {
+			if (numbers.get(s) == number) return s;
+		}
+		throw new IllegalStateException("No search index segment " + number);
+	}
+
+	private void remove(long key) {
+		if (locations.containsKey(key)) write(List.of(), new long[] { key });
+	}
+
+	// Write a segment for the change.  The database already has it, so a failure here only
+	// marks the index for a rebuild instead of failing the user's write
+	private void write(List<SearchDocument> docs, long[] deletes) {
+		try {
+			Segment segment = Segment.build(nextName(), docs, deletes);
+			segment.write(directory.resolve(segment.name));
+			apply(segment);
+			writeManifest();
+			mergeTiers();
+		} catch (IOException e) {
+			stale = true;
+			System.err.println("Search index update failed, it will be rebuilt: " + e.getMessage());
+		}
+	}
+
+	// Merge the segments of any size tier that has MERGE_FACTOR of them, until none has
+	private void mergeTiers() throws IOException {
+		while (true) {
+			Map<Integer, List<Integer>> byTier = new HashMap<>();
+			List<Integer> full = null;
+			for (int s = 0; s < segments.size() && full == null; s++) {
+				List<Integer> tier = byTier.computeIfAbsent(tier(s), t -> new ArrayList<>());
+				tier.add(s);
+				if (tier.size() == MERGE_FACTOR) full = tier;
+			}
+			if (full == null) return;
+			merge(full);
+		}
+	}
+
+	// The size tier of a segment: the number of decimal digits (for MERGE_FACTOR 10) of its
+	// live document count, 0 for one with none left
+	private int tier(int s) {
+		int tier = 0;
+		for (long size = 1; liveCount(s) >= size; size *= MERGE_FACTOR) tier++;
+		return tier;
+	}
+
+	// Replace the segments at the given positions (ascending) with one holding their live
+	// documents, added after all the others.  Only those segments are read and only the
+	// merged documents' locations change, so the cost is the size of the merge
+	private void merge(List<Integer> members) throws IOException {
+		Set<Integer> merging = new HashSet<>(members);
+
+		// A document in a kept segment may have been deleted, on load, by a delete or a newer
+		// version in a merged segment.  The merged segment carries those keys as deletes, except
+		// where the live version is in a kept segment: that one is newer than every other
+		// version, so it follows them and deletes them itself
+		Set<Long> carried = new HashSet<>();
+		for (int s : members) {
+			Segment segment = segments.get(s);
+			for (long key : segment.deletes) carry(carried, key, merging);
+			BitSet dead = deleted.get(s);
+			for (int doc = dead.nextSetBit(0); doc >= 0; doc = dead.nextSetBit(doc + 1)) carry(carried, segment.key(doc), merging);
+		}
+
+		int total = 0;
+		for (int s : members) total += liveCount(s);
+		byte[] types = new byte[total];
+		int[] ids = new int[total];
+		int[] questionIds = new int[total];
+		int[] answerIds = new int[total];
+		int[] lengths = new int[total];
+		float[] boosts = new float[total];
+		String[] previews = new String[total];
+		TreeMap<String, Segment.IntPairs> postings = new TreeMap<>();
+		int next = 0;
+		for (int s : members) {
+			Segment segment = segments.get(s);
+			BitSet dead = deleted.get(s);
+			int[] renumbered = new int[segment.docCount()];
+			for (int doc = 0; doc < segment.docCount(); doc++) {
+				if (dead.get(doc)) {
+					renumbered[doc] = -1;
+					continue;
+				}
+				renumbered[doc] = next;
+				types[next] = segment.types[doc];
+				ids[next] = segment.ids[doc];
+				questionIds[next] = segment.questionIds[doc];
+				answerIds[next] = segment.answerIds[doc];
+				lengths[next] = segment.lengths[doc];
+				boosts[next] = segment.boosts[doc];
+				previews[next] = segment.previews[doc];
+				next++;
+			}
+			for (int t = 0; t < segment.terms.length; t++) {
+				Segment.IntPairs merged = null;
+				for (int p = 0; p < segment.postingDocs[t].length; p++) {
+					int doc = renumbered[segment.postingDocs[t][p]];
+					if (doc < 0) continue;
+					if (merged == null) merged = postings.computeIfAbsent(segment.terms[t], k -> new Segment.IntPairs());
+					merged.add(doc, segment.postingFreqs[t][p]);
+				}
+			}
+		}
+		long[] carriedKeys = carried.stream().mapToLong(Long::longValue).toArray();
+		Segment merged = Segment.fromPostings(nextName(), types, ids, questionIds, answerIds, lengths, boosts,
+				previews, postings, carriedKeys);
+		merged.write(directory.resolve(merged.name));
+
+		// Applying the merged segment moves every live document out of the old ones, which
+		// are then dropped, last first so the positions of the others stay put
+		apply(merged);
+		List<Segment> old = new ArrayList<>();
+		for (int m = members.size() - 1; m >= 0; m--) {
+			int s = members.get(m);
+			old.add(segments.remove(s));
+			deleted.remove(s);
+			numbers.remove(s);
+		}
+		writeManifest();
+		deleteFiles(old);
+	}
+
+	private void carry(Set<Long> carried, long key, Set<Integer> merging) {
+		Long location = locations.get(key);
+		if (location == null || merging.contains(segmentOf(location))) carried.add(key);
+	}
+
+	private int liveCount(int s) {
+		return segments.get(s).docCount() - deleted.get(s).cardinality();
+	}
+
+	// Add a segment: first its deletes, then its documents, each replacing an older version
+	private void apply(Segment segment) {
+		long number = Long.parseLong(segment.name.substring(SEGMENT_PREFIX.length()));
+		segments.add(segment);
+		deleted.add(new BitSet(segment.docCount()));
+		numbers.add(number);
+		for (long key : segment.deletes) kill(key);
+		for (int doc = 0; doc < segment.docCount(); doc++) {
+			long key = segment.key(doc);
+			kill(key);
+			locations.put(key, (number << 32) | doc);
+			liveByType[segment.types[doc]]++;
+			liveLength += segment.lengths[doc];
+		}
+	}
+
+	private void kill(long key) {
+		Long location = locations.remove(key);
+		if (location == null) return;
+		int s = segmentOf(location);
+		int doc = (int) location.longValue();
+		Segment segment = segments.get(s);
+		BitSet dead = deleted.get(s);
+		if (published.remove(dead)) {
+			dead = (BitSet) dead.clone();
+			deleted.set(s, dead);
+		}
+		dead.set(doc);
+		liveByType[segment.types[doc]]--;
+		liveLength -= segment.lengths[doc];
+	}
+
+	private void clear() {
+		segments.clear();
+		deleted.clear();
+		numbers.clear();
+		locations.clear();
+		Arrays.fill(liveByType, 0);
+		liveLength = 0;
+	}
+
+	// Read the segments named in the manifest, and remove files a crash left behind
+	private void load() throws IOException {
+		Path manifest = directory.resolve(MANIFEST);
+		Set<String> names = new HashSet<>();
+		if (Files.exists(manifest)) {
+			try {
+				for (String name : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+					if (name.isBlank()) continue;
+					apply(Segment.read(directory.resolve(name)));
+					names.add(name);
+					nextSegment = Math.max(nextSegment, Long.parseLong(name.substring(SEGMENT_PREFIX.length())) + 1);
+				}
+			} catch (IOException | RuntimeException e) {
+				System.err.println("Search index is damaged and will be rebuilt: " + e.getMessage());
+				clear();
+				names.clear();
+				stale = true;
+			}
+		} else {
+			stale = true;
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+			for (Path file : files) {
+				if (!names.contains(file.getFileName().toString())) Files.deleteIfExists(file);
+			}
+		}
+	}
+
+	private String nextName() {
+		return SEGMENT_PREFIX + nextSegment++;
+	}
+
+	private void writeManifest() throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (Segment segment : segments) text.append(segment.name).append('\n');
+		Path temp = directory.resolve(MANIFEST + ".tmp");
+		Files.writeString(temp, text, StandardCharsets.UTF_8);
+		Files.move(temp, directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void deleteFiles(List<Segment> old) throws IOException {
+		for (Segment segment : old) Files.deleteIfExists(directory.resolve(segment.name));
+	}
+}
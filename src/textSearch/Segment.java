@@ -0,0 +1,235 @@
+package textSearch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*******
+ * <p> Title: Segment Class. </p>
+ *
+ * <p> Description: An immutable part of the search index, written once to its own file.  It
+ * holds a table of documents (key, question, boost, length in terms and preview), a sorted
+ * term dictionary, and for each term the documents that contain it with the term frequency.
+ * It also lists the keys it deletes from older segments, which is how an update or a delete
+ * is recorded without rewriting the files that hold the old version.</p>
+ *
+ * <p> File layout (big-endian): the magic number and version, the document table, the deleted
+ * keys, then each term with its postings as variable-length document gaps and frequencies.</p>
+ *
+ * @version 1.00	2026-10-19 Initial version for the ranked board search
+ *
+ */
+final class Segment {
+	private static final int MAGIC = 0x42534547;		// "BSEG"
+	private static final int VERSION = 1;
+
+	final String name;
+	final byte[] types;
+	final int[] ids;
+	final int[] questionIds;
+	final int[] answerIds;
+	final int[] lengths;
+	final float[] boosts;
+	final String[] previews;
+	final String[] terms;			// Sorted
+	final int[][] postingDocs;		// Ascending document numbers of each term
+	final int[][] postingFreqs;
+	final long[] deletes;			// Keys removed from older segments
+
+	Segment(String name, byte[] types, int[] ids, int[] questionIds, int[] answerIds, int[] lengths, float[] boosts,
+			String[] previews, String[] terms, int[][] postingDocs, int[][] postingFreqs, long[] deletes) {
+		this.name = name;
+		this.types = types;
+		this.ids = ids;
+		this.questionIds = questionIds;
+		this.answerIds = answerIds;
+		this.lengths = lengths;
+		this.boosts = boosts;
+		this.previews = previews;
+		this.terms = terms;
+		this.postingDocs = postingDocs;
+		this.postingFreqs = postingFreqs;
+		this.deletes = deletes;
+	}
+
+	int docCount() {
+		return ids.length;
+	}
+
+	long key(int doc) {
+		return SearchDocument.key(SearchDocument.Type.values()[types[doc]], ids[doc]);
+	}
+
+	// The index of the term in the dictionary, or -1
+	int find(String term) {
+		int i = Arrays.binarySearch(terms, term);
+		return i >= 0 ? i : -1;
+	}
+
+	// Analyze the documents and build a segment from them
+	static Segment build(String name, List<SearchDocument> docs, long[] deletes) {
+		int n = docs.size();
+		byte[] types = new byte[n];
+		int[] ids = new int[n];
+		int[] questionIds = new int[n];
+		int[] answerIds = new int[n];
+		int[] lengths = new int[n];
+		float[] boosts = new float[n];
+		String[] previews = new String[n];
+		TreeMap<String, IntPairs> postings = new TreeMap<>();
+		for (int d = 0; d < n; d++) {
+			SearchDocument doc = docs.get(d);
+			types[d] = (byte) doc.type.ordinal();
+			ids[d] = doc.id;
+			questionIds[d] = doc.questionId;
+			answerIds[d] = doc.answerId;
+			boosts[d] = doc.boost;
+			previews[d] = doc.preview;
+			List<String> docTerms = Analyzer.terms(doc.text);
+			lengths[d] = docTerms.size();
+			Map<String, Integer> freqs = new HashMap<>();
+			for (String term : docTerms) freqs.merge(term, 1, Integer::sum);
+			for (Map.Entry<String, Integer> e : freqs.entrySet())
+				postings.computeIfAbsent(e.getKey(), t -> new IntPairs()).add(d, e.getValue());
+		}
+		return fromPostings(name, types, ids, questionIds, answerIds, lengths, boosts, previews, postings, deletes);
+	}
+
+	// A segment from a sorted map of postings, each list in ascending document order
+	static Segment fromPostings(String name, byte[] types, int[] ids, int[] questionIds, int[] answerIds,
+			int[] lengths, float[] boosts, String[] previews, TreeMap<String, IntPairs> postings, long[] deletes) {
+		String[] terms = postings.keySet().toArray(new String[0]);
+		int[][] docs = new int[terms.length][];
+		int[][] freqs = new int[terms.length][];
+		int t = 0;
+		for (IntPairs p : postings.values()) {
+			docs[t] = Arrays.copyOf(p.first, p.size);
+			freqs[t] = Arrays.copyOf(p.second, p.size);
+			t++;
+		}
+		return new Segment(name, types, ids, questionIds, answerIds, lengths, boosts, previews, terms, docs, freqs, deletes);
+	}
+
+	// Write the segment to a temporary file and move it into place, so a reader never sees
+	// half a segment
+	void write(Path file) throws IOException {
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(ids.length);
+			for (int d = 0; d < ids.length; d++) {
+				out.writeByte(types[d]);
+				out.writeInt(ids[d]);
+				out.writeInt(questionIds[d]);
+				out.writeInt(answerIds[d]);
+				writeVarInt(out, lengths[d]);
+				out.writeFloat(boosts[d]);
+				out.writeUTF(previews[d]);
+			}
+			out.writeInt(deletes.length);
+			for (long key : deletes) out.writeLong(key);
+			out.writeInt(terms.length);
+			for (int t = 0; t < terms.length; t++) {
+				out.writeUTF(terms[t]);
+				writeVarInt(out, postingDocs[t].length);
+				int previous = 0;
+				for (int p = 0; p < postingDocs[t].length; p++) {
+					writeVarInt(out, postingDocs[t][p] - previous);
+					writeVarInt(out, postingFreqs[t][p]);
+					previous = postingDocs[t][p];
+				}
+			}
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	static Segment read(Path file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("Not a search segment: " + file);
+			int n = in.readInt();
+			byte[] types = new byte[n];
+			int[] ids = new int[n];
+			int[] questionIds = new int[n];
+			int[] answerIds = new int[n];
+			int[] lengths = new int[n];
+			float[] boosts = new float[n];
+			String[] previews = new String[n];
+			for (int d = 0; d < n; d++) {
+				types[d] = in.readByte();
+				ids[d] = in.readInt();
+				questionIds[d] = in.readInt();
+				answerIds[d] = in.readInt();
+				lengths[d] = readVarInt(in);
+				boosts[d] = in.readFloat();
+				previews[d] = in.readUTF();
+			}
+			long[] deletes = new long[in.readInt()];
+			for (int i = 0; i < deletes.length; i++) deletes[i] = in.readLong();
+			String[] terms = new String[in.readInt()];
+			int[][] docs = new int[terms.length][];
+			int[][] freqs = new int[terms.length][];
+			for (int t = 0; t < terms.length; t++) {
+				terms[t] = in.readUTF();
+				int count = readVarInt(in);
+				docs[t] = new int[count];
+				freqs[t] = new int[count];
+				int previous = 0;
+				for (int p = 0; p < count; p++) {
+					previous += readVarInt(in);
+					docs[t][p] = previous;
+					freqs[t][p] = readVarInt(in);
+				}
+			}
+			String name = file.getFileName().toString();
+			return new Segment(name, types, ids, questionIds, answerIds, lengths, boosts, previews, terms, docs, freqs, deletes);
+		}
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return value;
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+
+	/**********
+	 * A growable list of (document, frequency) pairs used while building postings.
+	 */
+	static final class IntPairs {
+		int[] first = new int[4];
+		int[] second = new int[4];
+		int size;
+
+		void add(int a, int b) {
+			if (size == first.length) {
+				first = Arrays.copyOf(first, size * 2);
+				second = Arrays.copyOf(second, size * 2);
+			}
+			first[size] = a;
+			second[size] = b;
+			size++;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package textSearch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*******
+ * <p> Title: SimHash Class. </p>
+ *
+ * <p> Description: A 64-bit fingerprint of a question (M. Charikar's SimHash) that changes in
+ * only a few bits when the text changes a little, so two questions whose fingerprints differ
+ * in at most MAX_DISTANCE bits are near-duplicates.  The text is normalized by the Analyzer,
+ * so case, punctuation, stop words and word endings do not matter, and title terms count
+ * twice.</p>
+ *
+ * <p> The fingerprint is split into BANDS bands of 16 bits.  Two fingerprints within
+ * MAX_DISTANCE bits of each other agree on at least one band, because each differing bit can
+ * spoil only one band, so near-duplicates are found by looking up the bands instead of
+ * comparing against every question.</p>
+ *
+ * @version 1.00	2026-10-19 Initial version for duplicate question detection
+ *
+ */
+public final class SimHash {
+	public static final int MAX_DISTANCE = 3;
+	public static final int BANDS = MAX_DISTANCE + 1;
+	private static final int BAND_BITS = 64 / BANDS;
+	private static final int TITLE_WEIGHT = 2;
+
+	private SimHash() {
+	}
+
+	/**********
+	 * The fingerprint of a question's title and content.
+	 */
+	public static long of(String title, String content) {
+		Map<String, Integer> weights = new HashMap<>();
+		for (String term : Analyzer.terms(title)) weights.merge(term, TITLE_WEIGHT, Integer::sum);
+		for (String term : Analyzer.terms(content)) weights.merge(term, 1, Integer::sum);
+		int[] votes = new int[64];
+		for (Map.Entry<String, Integer> e : weights.entrySet()) {
+			long hash = hash(e.getKey());
+			int weight = e.getValue();
+			for (int bit = 0; bit < 64; bit++) votes[bit] += ((hash >>> bit) & 1) != 0 ? weight : -weight;
+		}
+		long fingerprint = 0;
+		for (int bit = 0; bit < 64; bit++) if (votes[bit] > 0) fingerprint |= 1L << bit;
+		return fingerprint;
+	}
+
+	/**********
+	 * Whether the question has any terms once stop words are dropped.  Without terms the
+	 * fingerprint is 0, which says nothing about the text, so such a question is not compared.
+	 */
+	public static boolean hasTerms(String title, String content) {
+		return !Analyzer.terms(title).isEmpty() || !Analyzer.terms(content).isEmpty();
+	}
+
+	/**********
+	 * Band i of the fingerprint, an unsigned 16-bit value.
+	 */
+	public static int band(long fingerprint, int i) {
+		return (int) (fingerprint >>> (i * BAND_BITS)) & ((1 << BAND_BITS) - 1);
+	}
+
+	/**********
+	 * The number of bits in which two fingerprints differ.
+	 */
+	public static int distance(long a, long b) {
+		return Long.bitCount(a ^ b);
+	}
+
+	// FNV-1a over the characters, then the MurmurHash3 finalizer so every bit depends on
+	// every character
+	private static long hash(String term) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < term.length(); i++) {
+			h ^= term.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}